@@ -0,0 +1,18 @@
+package com.example.swipe.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmarks run outside Spring Boot, where logback falls back to logging everything at DEBUG. The search engine logs
+ * on every request, which would otherwise be measured instead of the search itself.
+ */
+final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    static void warnOnly() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.JobColumns;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Retained heap per job of the catalog, held as {@link Job} beans (as bound from the CORE payload, certificates
+ * encoded) against held in {@link JobColumns}. The jobs are the fixture records scaled to {@code footprint.jobs}.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.example.swipe.benchmark.CatalogFootprint -Djmh.jvmArgs="-Dfootprint.jobs=200000"
+ * </pre>
+ */
+public class CatalogFootprint {
+
+    private static final int JOBS = Integer.getInteger("footprint.jobs", 100_000);
+
+    public static void main(String[] args) throws Exception {
+        byte[] payload = SyntheticData.jobsJson(JOBS, 1);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        long baseline = usedHeap();
+        List<Job> beans = Arrays.asList(objectMapper.readValue(payload, Job[].class));
+        beans.forEach(job -> job.setRequiredCertificateBits(CertificateDictionary.getInstance().encode(job.getRequiredCertificates())));
+        long beanBytes = usedHeap() - baseline;
+
+        JobColumns columns = JobColumns.of(beans);
+        beans = null;
+        long columnBytes = usedHeap() - baseline;
+
+        System.out.printf("%d jobs: beans %d bytes/job, columns %d bytes/job%n", columns.size(), beanBytes / JOBS, columnBytes / JOBS);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.service.JobCatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to turn the jobs of a refresh into the next {@link JobCatalogSnapshot}: built from scratch, against patched from
+ * the previous snapshot (delta sync) when a share of the jobs changed. The download and the JSON binding, the same for
+ * both, are not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CatalogRefreshBenchmark {
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"1", "10"})
+    private int changedPercent;
+
+    private JobCatalogSnapshot base;
+    private List<Job> refreshed;
+
+    @Setup
+    public void setUp() {
+        List<Job> jobs = SyntheticData.jobs(catalogSize, 1L, 3);
+        JobCatalogSnapshot.Patch initial = JobCatalogSnapshot.of(1L, jobs).patch();
+        jobs.forEach(initial::add);
+        base = initial.build(1L, Instant.now(), 1.0);
+
+        // Changed jobs are replaced by a job of another catalog under the same jobId, removed ones by a new jobId.
+        Random random = new Random(3L);
+        List<Job> others = SyntheticData.jobs(catalogSize, 2L, 3);
+        refreshed = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Job job = jobs.get(i);
+            if (random.nextInt(100) < changedPercent) {
+                job = others.get(i);
+                job.setJobId(random.nextBoolean() ? jobs.get(i).getJobId() : catalogSize + (long) i);
+            }
+            refreshed.add(job);
+        }
+    }
+
+    @Benchmark
+    public JobCatalogSnapshot fullBuild() {
+        JobCatalogSnapshot.Builder builder = JobCatalogSnapshot.builder();
+        refreshed.forEach(builder::add);
+        return builder.build(2L, Instant.now());
+    }
+
+    @Benchmark
+    public JobCatalogSnapshot patch() {
+        JobCatalogSnapshot.Patch patch = base.patch();
+        refreshed.forEach(patch::add);
+        return patch.build(2L, Instant.now(), 1.0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.service.index.CertificateDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Certificate score of one worker against 10k jobs: the original list based score (List.contains for every required
+ * certificate) against the {@link CertificateDictionary} bitsets used by the search engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CertificateScoreBenchmark {
+
+    private static final int JOB_COUNT = 10_000;
+
+    @Param({"3", "10", "40"})
+    private int certificates;
+
+    private List<String>[] jobCertificates;
+    private long[][] jobBits;
+    private List<String> workerCertificates;
+    private long[] workerBits;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        CertificateDictionary dictionary = CertificateDictionary.getInstance();
+        List<Job> jobs = SyntheticData.jobs(JOB_COUNT, 1L, certificates);
+        jobCertificates = new List[JOB_COUNT];
+        jobBits = new long[JOB_COUNT][];
+        for (int i = 0; i < JOB_COUNT; i++) {
+            jobCertificates[i] = jobs.get(i).getRequiredCertificates();
+            jobBits[i] = dictionary.encode(jobCertificates[i]);
+        }
+        workerCertificates = SyntheticData.certificates(certificates, 2L);
+        workerBits = dictionary.encode(workerCertificates);
+    }
+
+    @Benchmark
+    public double listScore() {
+        double total = 0;
+        for (List<String> required : jobCertificates) {
+            if (!required.isEmpty() && !workerCertificates.isEmpty()) {
+                total += ((double) required.stream().filter(workerCertificates::contains).count()) / (double) required.size();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double bitsetScore() {
+        double total = 0;
+        for (long[] required : jobBits) {
+            int count = CertificateDictionary.count(required);
+            if (count != 0) {
+                total += (double) CertificateDictionary.countCommon(required, workerBits) / (double) count;
+            }
+        }
+        return total;
+    }
+}
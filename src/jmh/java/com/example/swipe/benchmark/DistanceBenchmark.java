@@ -0,0 +1,88 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.utility.ApplicationUtilities;
+import com.example.swipe.utility.DistanceFormula;
+import com.example.swipe.utility.DistanceQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the distance check of one worker against 10k job locations: {@link ApplicationUtilities#distance} against
+ * {@link DistanceQuery} with each {@link DistanceFormula}.
+ * <br>
+ * "local" places every job within a degree of the worker, so most of them pass the bounding box and the formula cost
+ * dominates. "continental" spreads them over Europe, where the bounding box rejects almost everything.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    private static final int JOB_COUNT = 10_000;
+    private static final Coordinates WORKER = new Coordinates(14.4378, 50.0755);
+    private static final int MAX_DISTANCE_KM = 30;
+
+    @Param({"local", "continental"})
+    private String spread;
+
+    private Coordinates[] locations;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        double degrees = "local".equals(spread) ? 1 : 20;
+        locations = new Coordinates[JOB_COUNT];
+        for (int i = 0; i < JOB_COUNT; i++) {
+            locations[i] = new Coordinates(WORKER.getLongitude() + (random.nextDouble() * 2 - 1) * degrees,
+                                           WORKER.getLatitude() + (random.nextDouble() * 2 - 1) * degrees / 2);
+        }
+    }
+
+    @Benchmark
+    public int legacyDistance() {
+        int matches = 0;
+        for (Coordinates location : locations) {
+            if (ApplicationUtilities.distance(location, WORKER, "km") < MAX_DISTANCE_KM) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int haversineQuery() {
+        return count(DistanceQuery.of(WORKER, MAX_DISTANCE_KM, DistanceUnit.of("km"), DistanceFormula.HAVERSINE));
+    }
+
+    @Benchmark
+    public int equirectangularQuery() {
+        return count(DistanceQuery.of(WORKER, MAX_DISTANCE_KM, DistanceUnit.of("km"), DistanceFormula.EQUIRECTANGULAR));
+    }
+
+    private int count(DistanceQuery query) {
+        int matches = 0;
+        for (Coordinates location : locations) {
+            if (query.contains(location)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
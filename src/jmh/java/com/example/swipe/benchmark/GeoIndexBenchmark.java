@@ -0,0 +1,84 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.Worker.GeocodePreference;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.service.index.GeoGridIndex;
+import com.example.swipe.utility.ApplicationUtilities;
+import com.example.swipe.utility.IntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the distance filter of a single worker request: linear scan over the whole catalog against a
+ * {@link GeoGridIndex} radius query followed by the exact check on the candidates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GeoIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int jobCount;
+
+    private List<Job> jobs;
+    private GeoGridIndex index;
+    private GeocodePreference[] preferences;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jobs = SyntheticData.jobs(jobCount, 1L);
+        index = GeoGridIndex.build(jobs);
+        preferences = SyntheticData.workers(1024, 2L).stream().map(Worker::getJobSearchAddress).toArray(GeocodePreference[]::new);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        GeocodePreference preference = nextPreference();
+        int matches = 0;
+        for (Job job : jobs) {
+            if (ApplicationUtilities.distance(job.getLocation(), preference, preference.getUnit()) < preference.getMaxJobDistance()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int gridIndex() {
+        GeocodePreference preference = nextPreference();
+        IntArrayList candidates = new IntArrayList();
+        index.query(preference.getLatitude(), preference.getLongitude(),
+                    preference.getMaxJobDistance() / DistanceUnit.of(preference.getUnit()).earthRadius(), candidates);
+        int matches = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            Job job = jobs.get(candidates.get(i));
+            if (ApplicationUtilities.distance(job.getLocation(), preference, preference.getUnit()) < preference.getMaxJobDistance()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private GeocodePreference nextPreference() {
+        next = (next + 1) & (preferences.length - 1);
+        return preferences[next];
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.JobSearchEngine;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.utility.DistanceFormula;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link JobSearchEngine#findMatchingJobsForWorker} for one worker, by catalog size and by the number of
+ * certificates per job (and per worker), which drives how many candidates get a score above 0. {@code parallelism} 1
+ * is the sequential scan, above 1 every scan is split into chunks matched on that many threads. {@code matchAvailability}
+ * toggles the start day filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class JobSearchBenchmark {
+
+    private static final int LIMIT = 3;
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"0", "3", "10"})
+    private int certificatesPerJob;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    @Param({"false", "true"})
+    private boolean matchAvailability;
+
+    private JobSearchEngine engine;
+    private JobCatalogSnapshot snapshot;
+    private Worker[] workers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.warnOnly();
+        engine = new JobSearchEngine(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "distanceFormula", DistanceFormula.HAVERSINE);
+        ReflectionTestUtils.setField(engine, "parallelThreshold", 0);
+        ReflectionTestUtils.setField(engine, "parallelChunkSize", 4096);
+        ReflectionTestUtils.setField(engine, "parallelism", parallelism);
+        ReflectionTestUtils.setField(engine, "matchAvailability", matchAvailability);
+
+        List<Job> jobs = SyntheticData.jobs(catalogSize, 1L, certificatesPerJob);
+        snapshot = JobCatalogSnapshot.of(1L, jobs);
+
+        // Encoded the way WorkerStore does when it loads the workers.
+        workers = SyntheticData.workers(1024, 2L, certificatesPerJob).toArray(new Worker[0]);
+        for (Worker worker : workers) {
+            worker.setCertificateBits(CertificateDictionary.getInstance().encode(worker.getCertificates()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public List<Job> findMatchingJobsForWorker() {
+        Worker worker = workers[next++ & (workers.length - 1)];
+        return engine.findMatchingJobsForWorker(snapshot, worker, LIMIT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.utility.JsonArrayReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of the /jobs and /workers payloads, scaled up from the fixtures: binding the whole array as
+ * RestTemplate.getForEntity did, against streaming the elements with {@link JsonArrayReader}. Run with
+ * {@code -prof gc} to compare the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonBindingBenchmark {
+
+    @Param({"jobs", "workers"})
+    private String payload;
+
+    @Param({"1000", "100000"})
+    private int records;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private Class<?> arrayType;
+    private ObjectReader elementReader;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        boolean jobs = "jobs".equals(payload);
+        arrayType = jobs ? Job[].class : Worker[].class;
+        elementReader = objectMapper.readerFor(jobs ? Job.class : Worker.class);
+        json = jobs ? SyntheticData.jobsJson(records, 1L) : SyntheticData.workersJson(records, 1L);
+    }
+
+    @Benchmark
+    public List<?> bindArray() throws IOException {
+        return Arrays.asList((Object[]) objectMapper.readValue(json, arrayType));
+    }
+
+    @Benchmark
+    public int streamElements(Blackhole blackhole) throws IOException {
+        return JsonArrayReader.forEach(elementReader, new ByteArrayInputStream(json), blackhole::consume);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.utility.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disabled DEBUG calls of {@link Logger} in a matching loop of 1024 jobs, one call per job. Run with {@code -prof gc}:
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per loop, expected to be ~0 for the fixed-arity overloads
+ * even though the ordinal is boxed at the call site (the box does not escape once the guarded call is inlined). The
+ * varargs call (four parameters) allocates its array and boxes, ~80 bytes per call; the supplier call its capturing
+ * lambda, 16 bytes per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final int JOB_COUNT = 1024;
+    // Above the Integer cache, so that a boxed ordinal would be a new object.
+    private static final int FIRST_ORDINAL = 1_000_000;
+
+    private double[] distances;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.warnOnly();
+        distances = new double[JOB_COUNT];
+        for (int i = 0; i < JOB_COUNT; i++) {
+            distances[i] = i * 0.5;
+        }
+    }
+
+    @Benchmark
+    public double oneParam() {
+        double total = 0;
+        for (int i = 0; i < JOB_COUNT; i++) {
+            Logger.debug(getClass(), "Job {} has no coordinates. Ranked as the farthest.", FIRST_ORDINAL + i);
+            total += distances[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double threeParams() {
+        double total = 0;
+        for (int i = 0; i < JOB_COUNT; i++) {
+            Logger.debug(getClass(), "Job {} is {} km away, score {}.", FIRST_ORDINAL + i, distances[i], total);
+            total += distances[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double supplier() {
+        double total = 0;
+        for (int i = 0; i < JOB_COUNT; i++) {
+            int ordinal = FIRST_ORDINAL + i;
+            Logger.debug(getClass(), "Job {} has no coordinates. Ranked as the farthest.", () -> ordinal);
+            total += distances[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double varargs() {
+        double total = 0;
+        for (int i = 0; i < JOB_COUNT; i++) {
+            Logger.debug(getClass(), "Job {} is {} km away, score {} of {}.", FIRST_ORDINAL + i, distances[i], total, JOB_COUNT);
+            total += distances[i];
+        }
+        return total;
+    }
+}
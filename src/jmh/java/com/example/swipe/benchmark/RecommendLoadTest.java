@@ -0,0 +1,172 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.Application;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test of {@code GET /jobs/recommend/{workerId}}: starts a stub CORE system answering after
+ * {@code load.coreLatencyMillis}, starts the application against it and has {@code load.concurrency} clients send
+ * requests back to back for {@code load.durationSeconds}, after {@code load.warmupSeconds} of warm up. Prints the p50,
+ * p99 and p99.9 latencies and the throughput.
+ * <br>
+ * Program arguments are passed to the application, e.g. to compare the platform-thread default with
+ * {@code --execution.virtualThreads=true} (JDK 21, {@code java21} profile):
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.example.swipe.benchmark.RecommendLoadTest -Djmh.args="--execution.virtualThreads=true"
+ * </pre>
+ * The load settings are system properties of the forked JVM, passed through {@code jmh.jvmArgs}:
+ * <pre>
+ * -Djmh.jvmArgs="-Dload.concurrency=256 -Dload.coreLatencyMillis=200"
+ * </pre>
+ */
+public class RecommendLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 20);
+    private static final int CORE_LATENCY_MILLIS = Integer.getInteger("load.coreLatencyMillis", 50);
+    private static final int JOBS = Integer.getInteger("load.jobs", 10_000);
+    private static final int WORKERS = Integer.getInteger("load.workers", 10_000);
+    /** Share of the requests for workers unknown to the CORE system, each reading the workers through. */
+    private static final double UNKNOWN_WORKER_RATIO = Double.parseDouble(System.getProperty("load.unknownWorkerRatio", "0.01"));
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkLogging.warnOnly();
+        HttpServer core = startCore(SyntheticData.jobsJson(JOBS, 1), SyntheticData.workersJson(WORKERS, 2));
+        ConfigurableApplicationContext context = null;
+        try {
+            List<String> applicationArgs = new ArrayList<>(Arrays.asList(
+                    "--server.port=0",
+                    "--swipeJobServer=http://localhost:" + core.getAddress().getPort(),
+                    "--logging.level.root=WARN"));
+            applicationArgs.addAll(Arrays.asList(args));
+            SpringApplication application = new SpringApplication(Application.class);
+            application.addInitializers(applicationContext -> applicationContext.getBeanFactory()
+                    .registerSingleton("testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()));
+            context = application.run(applicationArgs.toArray(new String[0]));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/jobs/recommend/";
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            run(client, baseUrl, WARMUP_SECONDS);
+            long[] latencies = run(client, baseUrl, DURATION_SECONDS);
+
+            Arrays.sort(latencies);
+            System.out.printf("args=%s concurrency=%d coreLatency=%dms unknownWorkers=%.1f%%%n",
+                    Arrays.toString(args), CONCURRENCY, CORE_LATENCY_MILLIS, UNKNOWN_WORKER_RATIO * 100);
+            System.out.printf("requests=%d throughput=%.0f/s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    latencies.length, latencies.length / (double) DURATION_SECONDS,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            core.stop(0);
+        }
+    }
+
+    private static long[] run(HttpClient client, String baseUrl, int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY, runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long workerId = random.nextDouble() < UNKNOWN_WORKER_RATIO ? WORKERS + random.nextInt(WORKERS) : random.nextInt(WORKERS);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + workerId)).GET().build();
+                    long start = System.nanoTime();
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        clients.shutdown();
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static HttpServer startCore(byte[] jobs, byte[] workers) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jobs", exchange -> respond(exchange, jobs));
+        server.createContext("/workers", exchange -> respond(exchange, workers));
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "core-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            Thread.sleep(CORE_LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Keeps the test configurations, which are on the benchmark classpath too, out of the application's component scan.
+     */
+    private static final class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+}
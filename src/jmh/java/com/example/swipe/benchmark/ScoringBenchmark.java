@@ -0,0 +1,89 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.JobSearchEngine;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.scoring.JobSignal;
+import com.example.swipe.service.scoring.JobSignals;
+import com.example.swipe.service.scoring.ScoringPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link JobSearchEngine#findMatchingJobsForWorker} by {@link ScoringPlan}: {@code signals} is the number of
+ * built-in signals of the plan, added in the order certificates, distance, bill rate, skills and start time, so that
+ * each step measures the cost of one more signal. One signal is the certificates only plan, which skips the candidates
+ * scoring 0 once it has enough jobs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ScoringBenchmark {
+
+    private static final int LIMIT = 3;
+    private static final List<JobSignal> SIGNALS = Arrays.asList(JobSignals.certificates(), JobSignals.distance(), JobSignals.billRate(),
+                                                                 JobSignals.skills(), JobSignals.startTime(Duration.ofDays(7)));
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"1", "2", "3", "4", "5"})
+    private int signals;
+
+    private JobSearchEngine engine;
+    private JobCatalogSnapshot snapshot;
+    private Worker[] workers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.warnOnly();
+        engine = new JobSearchEngine(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+        ScoringPlan.Builder plan = ScoringPlan.builder();
+        for (JobSignal signal : SIGNALS.subList(0, signals)) {
+            plan.add(signal, 1);
+        }
+        engine.setScoringPlan(plan.build());
+
+        List<Job> jobs = SyntheticData.jobs(catalogSize, 1L, 3);
+        snapshot = JobCatalogSnapshot.of(1L, jobs);
+        workers = SyntheticData.workers(1024, 2L, 3).toArray(new Worker[0]);
+        for (Worker worker : workers) {
+            worker.setCertificateBits(CertificateDictionary.getInstance().encode(worker.getCertificates()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public List<Job> findMatchingJobsForWorker() {
+        Worker worker = workers[next++ & (workers.length - 1)];
+        return engine.findMatchingJobsForWorker(snapshot, worker, LIMIT);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.JobSearchEngine;
+import com.example.swipe.service.SwipeLog;
+import com.example.swipe.service.SwipeStore;
+import com.example.swipe.service.index.CertificateDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link JobSearchEngine#findMatchingJobsForWorker} by number of jobs each worker already swiped: 0 is the
+ * search without exclusion, up to {@code swipeStore.maxExactJobs} (256) the swiped jobs are an exact sorted set, beyond
+ * a Bloom filter. Half of the swiped jobs are the worker's own top jobs, the other half random jobs of the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SwipeExclusionBenchmark {
+
+    private static final int LIMIT = 3;
+
+    @Param({"100000"})
+    private int catalogSize;
+
+    @Param({"0", "100", "10000"})
+    private int swipedJobs;
+
+    private JobSearchEngine engine;
+    private JobCatalogSnapshot snapshot;
+    private Worker[] workers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.warnOnly();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        engine = new JobSearchEngine(meterRegistry);
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+
+        List<Job> jobs = SyntheticData.jobs(catalogSize, 1L, 3);
+        snapshot = JobCatalogSnapshot.of(1L, jobs);
+        workers = SyntheticData.workers(1024, 2L, 3).toArray(new Worker[0]);
+        for (Worker worker : workers) {
+            worker.setCertificateBits(CertificateDictionary.getInstance().encode(worker.getCertificates()));
+        }
+
+        SwipeStore swipeStore = new SwipeStore(new SwipeLog(""), meterRegistry, 256, 4096);
+        Random random = new Random(3L);
+        for (Worker worker : workers) {
+            int own = 0;
+            for (Job job : engine.findMatchingJobsForWorker(snapshot, worker, swipedJobs / 2)) {
+                swipeStore.record(worker.getUserId(), job.getJobId(), SwipeAction.DECLINE);
+                own++;
+            }
+            for (int i = own; i < swipedJobs; i++) {
+                swipeStore.record(worker.getUserId(), random.nextInt(catalogSize), SwipeAction.DECLINE);
+            }
+        }
+        ReflectionTestUtils.setField(engine, "swipeStore", swipeStore);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public List<Job> findMatchingJobsForWorker() {
+        Worker worker = workers[next++ & (workers.length - 1)];
+        return engine.findMatchingJobsForWorker(snapshot, worker, LIMIT);
+    }
+}
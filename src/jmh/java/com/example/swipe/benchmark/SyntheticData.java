@@ -0,0 +1,223 @@
+package com.example.swipe.benchmark;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.Worker.GeocodePreference;
+import com.example.swipe.domain.common.Coordinates;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates synthetic {@link Job}s and {@link Worker}s spread over a Europe-sized area, so benchmarks can run against
+ * catalogs far larger than the fixtures in src/test/resources/data.
+ * <br>
+ * Certificates are drawn from the names used by the fixtures, extended with generated names up to
+ * {@link #CERTIFICATE_VOCABULARY} distinct certificates. Jobs start over four weeks and workers are available on about
+ * two days out of three, like the fixtures. Job titles and worker skills are drawn from the job titles of the fixtures,
+ * with a bill rate between $5 and $50.
+ */
+public final class SyntheticData {
+
+    public static final int CERTIFICATE_VOCABULARY = 200;
+
+    private static final String JOBS_FIXTURE = "/data/jobs.json";
+    private static final String WORKERS_FIXTURE = "/data/workers.json";
+
+    private static final double MIN_LATITUDE = 36.0;
+    private static final double MAX_LATITUDE = 60.0;
+    private static final double MIN_LONGITUDE = -10.0;
+    private static final double MAX_LONGITUDE = 30.0;
+    private static final Instant FIRST_START_TIME = Instant.parse("2015-11-02T00:00:00Z");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final List<String> CERTIFICATES = certificateVocabulary();
+    private static final List<String> TITLES = titleVocabulary();
+
+    private SyntheticData() {
+    }
+
+    public static List<Job> jobs(int count, long seed) {
+        return jobs(count, seed, 0);
+    }
+
+    /**
+     * @param count              Number of jobs.
+     * @param seed               Random seed. The same seed always generates the same jobs.
+     * @param certificatesPerJob Maximum number of required certificates of a job. Each job requires 0 to that many.
+     * @return jobs, with jobId equal to their position.
+     */
+    public static List<Job> jobs(int count, long seed, int certificatesPerJob) {
+        Random random = new Random(seed);
+        // Separate generator, so that the other fields stay the same as before titles and bill rates were added.
+        Random ranking = new Random(~seed);
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add(Job.builder()
+                             .jobId((long) i)
+                             .workersRequired(random.nextInt(4))
+                             .driverLicenseRequired(random.nextInt(4) == 0)
+                             .location(randomLocation(random))
+                             .requiredCertificates(randomCertificates(random, certificatesPerJob))
+                             .startTime(FIRST_START_TIME.plusSeconds(random.nextInt(28 * 86_400)))
+                             .jobTitle(TITLES.get(ranking.nextInt(TITLES.size())))
+                             .billRate(String.format(Locale.ROOT, "$%d.%02d", 5 + ranking.nextInt(45), ranking.nextInt(100)))
+                             .build());
+        }
+        return jobs;
+    }
+
+    public static List<Worker> workers(int count, long seed) {
+        return workers(count, seed, 0);
+    }
+
+    /**
+     * @param count                 Number of workers.
+     * @param seed                  Random seed.
+     * @param certificatesPerWorker Maximum number of certificates of a worker.
+     * @return active workers, with userId equal to their position.
+     */
+    public static List<Worker> workers(int count, long seed, int certificatesPerWorker) {
+        Random random = new Random(seed);
+        Random ranking = new Random(~seed);
+        List<Worker> workers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Coordinates location = randomLocation(random);
+            GeocodePreference preference = new GeocodePreference("km", 10 + random.nextInt(5) * 10);
+            preference.setLatitude(location.getLatitude());
+            preference.setLongitude(location.getLongitude());
+            workers.add(Worker.builder()
+                                .userId((long) i)
+                                .isActive(true)
+                                .hasDriverLicense(random.nextBoolean())
+                                .jobSearchAddress(preference)
+                                .certificates(randomCertificates(random, certificatesPerWorker))
+                                .availability(randomAvailability(random))
+                                .skills(Arrays.asList(TITLES.get(ranking.nextInt(TITLES.size())), TITLES.get(ranking.nextInt(TITLES.size()))))
+                                .build());
+        }
+        return workers;
+    }
+
+    /**
+     * Scales src/test/resources/data/jobs.json up to the given number of records: the fixture jobs are repeated with a
+     * unique jobId and guid and a random location, keeping all the other fields (e.g. the `about` text) as is.
+     *
+     * @param count Number of jobs in the document.
+     * @param seed  Random seed.
+     * @return JSON array, as served by the CORE system.
+     */
+    public static byte[] jobsJson(int count, long seed) {
+        return scaleFixture(JOBS_FIXTURE, "jobId", count, seed);
+    }
+
+    /**
+     * Same as {@link #jobsJson(int, long)} for src/test/resources/data/workers.json.
+     *
+     * @param count Number of workers in the document.
+     * @param seed  Random seed.
+     * @return JSON array, as served by the CORE system.
+     */
+    public static byte[] workersJson(int count, long seed) {
+        return scaleFixture(WORKERS_FIXTURE, "userId", count, seed);
+    }
+
+    private static byte[] scaleFixture(String fixture, String idField, int count, long seed) {
+        Random random = new Random(seed);
+        JsonNode records = readFixture(fixture);
+        ArrayNode scaled = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode record = records.get(i % records.size()).deepCopy();
+            record.put(idField, i);
+            record.put("guid", Long.toHexString(random.nextLong()));
+            ObjectNode location = (ObjectNode) (record.has("location") ? record.get("location") : record.get("jobSearchAddress"));
+            Coordinates coordinates = randomLocation(random);
+            location.put("latitude", String.valueOf(coordinates.getLatitude()));
+            location.put("longitude", String.valueOf(coordinates.getLongitude()));
+            scaled.add(record);
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(scaled);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param count Number of distinct certificates, at most {@link #CERTIFICATE_VOCABULARY}.
+     * @param seed  Random seed.
+     * @return certificate names.
+     */
+    public static List<String> certificates(int count, long seed) {
+        return certificates(new Random(seed), Math.min(count, CERTIFICATE_VOCABULARY));
+    }
+
+    private static List<Worker.DayOfWeek> randomAvailability(Random random) {
+        List<Worker.DayOfWeek> availability = new ArrayList<>(7);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (random.nextInt(3) != 0) {
+                Worker.DayOfWeek available = new Worker.DayOfWeek();
+                available.setTitle(day.getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+                available.setDayIndex(day.getValue());
+                availability.add(available);
+            }
+        }
+        return availability;
+    }
+
+    private static List<String> randomCertificates(Random random, int max) {
+        return certificates(random, max <= 0 ? 0 : random.nextInt(max + 1));
+    }
+
+    private static List<String> certificates(Random random, int count) {
+        Set<String> certificates = new LinkedHashSet<>();
+        while (certificates.size() < count) {
+            certificates.add(CERTIFICATES.get(random.nextInt(CERTIFICATES.size())));
+        }
+        return new ArrayList<>(certificates);
+    }
+
+    private static List<String> certificateVocabulary() {
+        Set<String> certificates = new LinkedHashSet<>();
+        readFixture(JOBS_FIXTURE).forEach(job -> job.path("requiredCertificates").forEach(name -> certificates.add(name.asText())));
+        readFixture(WORKERS_FIXTURE).forEach(worker -> worker.path("certificates").forEach(name -> certificates.add(name.asText())));
+        for (int i = 0; certificates.size() < CERTIFICATE_VOCABULARY; i++) {
+            certificates.add("Synthetic Certificate " + i);
+        }
+        return new ArrayList<>(certificates);
+    }
+
+    private static List<String> titleVocabulary() {
+        Set<String> titles = new LinkedHashSet<>();
+        readFixture(JOBS_FIXTURE).forEach(job -> titles.add(job.path("jobTitle").asText()));
+        return new ArrayList<>(titles);
+    }
+
+    private static JsonNode readFixture(String fixture) {
+        try (InputStream input = SyntheticData.class.getResourceAsStream(fixture)) {
+            return OBJECT_MAPPER.readTree(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Coordinates randomLocation(Random random) {
+        return new Coordinates(MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE),
+                               MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE));
+    }
+}
@@ -1,15 +1,83 @@
 package com.example.swipe.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
+@EnableScheduling
 public class BeanConfiguration {
 
+    private static final String CORE_CLIENT = "core";
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient coreHttpClient) {
+        return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(coreHttpClient)).build();
+    }
+
+    /**
+     * Connection pool of the CORE system client. Its size and usage are exposed as
+     * {@code httpcomponents.httpclient.pool.*} metrics tagged {@code httpclient=core}.
+     *
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager coreConnectionManager(MeterRegistry meterRegistry,
+                                                                    @Value("${coreClient.maxConnections:50}") int maxConnections,
+                                                                    @Value("${coreClient.maxConnectionsPerRoute:20}") int maxConnectionsPerRoute,
+                                                                    @Value("${coreClient.validateAfterInactivityMillis:2000}") int validateAfterInactivityMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, CORE_CLIENT).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Pooled, keep-alive HTTP client of the CORE system. Responses are requested and decompressed as gzip or deflate.
+     * Every request is timed as {@code httpcomponents.httpclient.request}, tagged with the endpoint path.
+     *
+     * @return
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient coreHttpClient(PoolingHttpClientConnectionManager coreConnectionManager,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${coreClient.connectTimeoutMillis:2000}") int connectTimeoutMillis,
+                                              @Value("${coreClient.readTimeoutMillis:10000}") int readTimeoutMillis,
+                                              @Value("${coreClient.poolAcquireTimeoutMillis:1000}") int poolAcquireTimeoutMillis,
+                                              @Value("${coreClient.idleEvictMillis:30000}") long idleEvictMillis) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(poolAcquireTimeoutMillis)
+                .setContentCompressionEnabled(true)
+                .build();
+        MicrometerHttpRequestExecutor requestExecutor = MicrometerHttpRequestExecutor.builder(meterRegistry)
+                .uriMapper(request -> URI.create(request.getRequestLine().getUri()).getPath())
+                .tags(Tags.of("httpclient", CORE_CLIENT))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(coreConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setRequestExecutor(requestExecutor)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictMillis, TimeUnit.MILLISECONDS)
+                .build();
     }
 }
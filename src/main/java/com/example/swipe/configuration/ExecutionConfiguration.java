@@ -0,0 +1,97 @@
+package com.example.swipe.configuration;
+
+import com.example.swipe.utility.Logger;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads the servlet requests and the CORE system fetches run on.
+ * <br>
+ * With {@code execution.virtualThreads=true} on JDK 21 or later, Tomcat handles each request on its own virtual thread
+ * and the fetches a request starts run on virtual threads too. The executor is looked up reflectively so the application
+ * still builds for Java 11; on an older JDK the flag is ignored with a warning and platform threads are used.
+ * <br>
+ * The platform threads of the fetches are bounded by {@code coreClient.maxConnections}, as each fetch holds one of those
+ * connections. Beyond that many fetches plus as many queued, a fetch runs on the request thread that started it.
+ */
+@Configuration
+public class ExecutionConfiguration {
+
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+
+    /**
+     * Executor of the CORE system fetches started by a request, e.g. a stale job catalog loaded while the worker is
+     * looked up.
+     *
+     * @param virtualThreads {@code execution.virtualThreads}
+     * @param maxThreads     {@code coreClient.maxConnections}. Maximum number of platform threads.
+     * @return
+     */
+    @Bean(UPSTREAM_EXECUTOR)
+    public ExecutorService upstreamExecutor(@Value("${execution.virtualThreads:false}") boolean virtualThreads,
+                                            @Value("${coreClient.maxConnections:50}") int maxThreads) {
+        ExecutorService executor = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        return executor != null ? executor : newPlatformThreadExecutor(maxThreads);
+    }
+
+    static ThreadPoolExecutor newPlatformThreadExecutor(int maxThreads) {
+        int threads = Math.max(maxThreads, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads),
+                                                             new UpstreamThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "execution.virtualThreads", havingValue = "true")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            return protocolHandler -> {
+            };
+        }
+        Logger.info(ExecutionConfiguration.class, "Handling requests on virtual threads.");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, or {@code null} if the JDK does not provide virtual threads.
+     *
+     * @return
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            Logger.warn(ExecutionConfiguration.class, "Virtual threads need JDK 21 or later, running on {}. Using platform threads.", Runtime.version());
+            return null;
+        }
+    }
+
+    private static final class UpstreamThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "upstream-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
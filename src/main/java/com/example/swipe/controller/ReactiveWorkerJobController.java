@@ -0,0 +1,208 @@
+package com.example.swipe.controller;
+
+import com.example.swipe.domain.BatchRecommendationRequest;
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.SwipeRequest;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.service.JobPushService;
+import com.example.swipe.service.RecommendationSessions;
+import com.example.swipe.service.SwipeStore;
+import com.example.swipe.service.reactive.ReactiveRecommendationService;
+import com.example.swipe.utility.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link WorkerJobController}, active with {@code spring.main.web-application-type=reactive}.
+ * Same endpoints and responses; requests never block the event loop.
+ */
+@RestController
+@RequestMapping("/jobs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkerJobController {
+
+    private final ReactiveRecommendationService recommendationService;
+    private final RecommendationSessions recommendationSessions;
+    private final JobPushService jobPushService;
+    private final SwipeStore swipeStore;
+
+    public ReactiveWorkerJobController(ReactiveRecommendationService recommendationService,
+                                       RecommendationSessions recommendationSessions,
+                                       JobPushService jobPushService,
+                                       SwipeStore swipeStore) {
+        this.recommendationService = recommendationService;
+        this.recommendationSessions = recommendationSessions;
+        this.jobPushService = jobPushService;
+        this.swipeStore = swipeStore;
+    }
+
+    /**
+     * Returns the matching job for given workerId if it's valid and exist in the system. See
+     * {@link WorkerJobController#recommendJobs(String, Integer, boolean, String)} for the pagination.
+     *
+     * @param workerId Integer value referring the {@link Worker#userId}
+     * @param limit    Optional. Limit the result count. Default 3.
+     * @param paginate Optional. Return the cursor of the next page. Default false.
+     * @param cursor   Optional. Cursor of the page to return, from the previous page.
+     * @return
+     */
+    @GetMapping("/recommend/{workerId}")
+    public Mono<ResponseEntity<?>> recommendJobs(@PathVariable String workerId,
+                                                 @RequestParam(value = "limit", required = false, defaultValue = "3") Integer limit,
+                                                 @RequestParam(value = "paginate", required = false, defaultValue = "false") boolean paginate,
+                                                 @RequestParam(value = "cursor", required = false) String cursor) {
+
+        Logger.info(getClass(), "Recommend job request received for worker {} with limit {}.", workerId, limit);
+
+        Long userId = workerId == null ? null : asLong(workerId, "workerId");
+        if (userId == null) {
+            Logger.error(getClass(), "Invalid workerId.");
+            return Mono.just(ResponseEntity.badRequest().body("WorkerId is numeric value and it's mandatory."));
+        }
+
+        if (cursor != null) {
+            RecommendationSessions.Cursor position = RecommendationSessions.parseCursor(cursor);
+            if (position == null) {
+                Logger.error(getClass(), "Invalid cursor {}.", cursor);
+                return Mono.just(ResponseEntity.badRequest().body("Invalid cursor."));
+            }
+            // Pages are materialized from memory, on the event loop.
+            RecommendationSessions.Page page = recommendationSessions.nextPage(userId, position, limit);
+            if (page == null) {
+                return Mono.just(ResponseEntity.status(HttpStatus.GONE).body("Cursor expired. Request the first page again."));
+            }
+            Logger.info(getClass(), "Found {} more matching jobs for worker {}.", page.getJobs().size(), workerId);
+            return Mono.just(WorkerJobController.toResponse(page));
+        }
+
+        if (paginate) {
+            return recommendationService.recommendJobsPage(userId, limit)
+                    .<ResponseEntity<?>>map(page -> {
+                        Logger.info(getClass(), "Found {} matching jobs for worker {}.", page.getJobs().size(), workerId);
+                        return WorkerJobController.toResponse(page);
+                    })
+                    .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid workerId. Record not found."));
+        }
+
+        return recommendationService.recommendJobs(userId, limit)
+                .<ResponseEntity<?>>map(matchingJobs -> {
+                    Logger.info(getClass(), "Found {} matching jobs for worker {}.", matchingJobs.size(), workerId);
+                    return ResponseEntity.ok(matchingJobs);
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid workerId. Record not found."));
+    }
+
+    /**
+     * Returns the matching jobs of many workers, streamed as newline delimited JSON. See
+     * {@link WorkerJobController#recommendJobsBatch(BatchRecommendationRequest)}.
+     *
+     * @param request {@link BatchRecommendationRequest}. Either workerIds or allActive is mandatory.
+     * @return
+     */
+    @PostMapping(value = "/recommend/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> recommendJobsBatch(@RequestBody BatchRecommendationRequest request) {
+
+        Logger.info(getClass(), "Batch recommend job request received {}.", request);
+
+        if (!request.getAllActive() && CollectionUtils.isEmpty(request.getWorkerIds())) {
+            Logger.error(getClass(), "Batch request without workers.");
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body("Either workerIds or allActive is mandatory.");
+        }
+        int limit = request.getLimit() == null ? 3 : request.getLimit();
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(recommendationService.recommendJobsBatch(request, limit));
+    }
+
+    /**
+     * Returns the workers a job of the catalog would be pushed to. See
+     * {@link WorkerJobController#eligibleWorkers(String, Double)}.
+     *
+     * @param jobId               Long value referring the {@link Job#jobId}
+     * @param minCertificateScore Optional. Share (0...1) of the job's required certificates a worker must hold.
+     * @return
+     */
+    @GetMapping("/{jobId}/workers")
+    public Mono<ResponseEntity<?>> eligibleWorkers(@PathVariable String jobId,
+                                                   @RequestParam(value = "minCertificateScore", required = false) Double minCertificateScore) {
+
+        Logger.info(getClass(), "Eligible workers request received for job {}.", jobId);
+
+        Long id = jobId == null ? null : asLong(jobId, "jobId");
+        if (id == null) {
+            return Mono.just(ResponseEntity.badRequest().body("JobId is numeric value and it's mandatory."));
+        }
+        double minScore = minCertificateScore == null ? jobPushService.getMinCertificateScore() : minCertificateScore;
+
+        // A stale catalog is loaded by the lookup, off the event loop.
+        return Mono.fromCallable(() -> jobPushService.findEligibleWorkers(id, minScore))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(workers -> {
+                    Logger.info(getClass(), "Found {} eligible workers for job {}.", workers.length, jobId);
+                    return ResponseEntity.ok(workers);
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid jobId. Record not found."));
+    }
+
+    /**
+     * Records that a worker swiped a job. See {@link WorkerJobController#swipeJob(String, SwipeRequest)}.
+     *
+     * @param jobId   Long value referring the {@link Job#jobId}
+     * @param request {@link SwipeRequest}. workerId and action are mandatory.
+     * @return
+     */
+    @PostMapping("/{jobId}/swipes")
+    public Mono<ResponseEntity<?>> swipeJob(@PathVariable String jobId, @RequestBody SwipeRequest request) {
+
+        Logger.info(getClass(), "Swipe request received for job {} {}.", jobId, request);
+
+        Long id = jobId == null ? null : asLong(jobId, "jobId");
+        if (id == null) {
+            return Mono.just(ResponseEntity.badRequest().body("JobId is numeric value and it's mandatory."));
+        }
+        if (request.getWorkerId() == null || request.getAction() == null) {
+            return Mono.just(ResponseEntity.badRequest().body("WorkerId and action are mandatory."));
+        }
+
+        // The job is looked up and the swipe appended to the log file off the event loop.
+        return recommendationService.getWorker(request.getWorkerId())
+                .flatMap(worker -> recommendationService.getSnapshot())
+                .publishOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(snapshot -> {
+                    if (snapshot.findJob(id) == null) {
+                        Logger.error(getClass(), "Job not found for id {}.", jobId);
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid jobId. Record not found.");
+                    }
+                    swipeStore.record(request.getWorkerId(), id, request.getAction());
+                    return ResponseEntity.noContent().build();
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid workerId. Record not found."));
+    }
+
+    /**
+     * Convert String to Long. Return null in case of exception.
+     *
+     * @param longStr
+     * @param fieldName
+     * @return
+     */
+    private Long asLong(String longStr, String fieldName) {
+        try {
+            return Long.parseLong(longStr);
+        } catch (NumberFormatException e) {
+            Logger.error(getClass(), "Invalid {} value {}.", fieldName, longStr);
+        }
+        return null;
+    }
+}
@@ -1,51 +1,133 @@
 package com.example.swipe.controller;
 
+import com.example.swipe.configuration.ExecutionConfiguration;
+import com.example.swipe.domain.BatchRecommendationRequest;
 import com.example.swipe.domain.Job;
+import com.example.swipe.domain.SwipeRequest;
 import com.example.swipe.domain.Worker;
-import com.example.swipe.service.JobSearchEngine;
-import com.example.swipe.service.WorkerService;
+import com.example.swipe.service.BatchRecommendationService;
+import com.example.swipe.service.JobCatalog;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.JobPushService;
+import com.example.swipe.service.RecommendationCache;
+import com.example.swipe.service.RecommendationSessions;
+import com.example.swipe.service.SwipeStore;
+import com.example.swipe.service.WorkerStore;
 import com.example.swipe.utility.Logger;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/jobs")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WorkerJobController {
 
-    private final WorkerService workerService;
-    private final JobSearchEngine jobSearchEngine;
+    /**
+     * Response header carrying the cursor of the next page of recommendations, absent on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "Next-Cursor";
 
-    public WorkerJobController(WorkerService workerService, JobSearchEngine jobSearchEngine) {
-        this.workerService = workerService;
-        this.jobSearchEngine = jobSearchEngine;
+    private final WorkerStore workerStore;
+    private final JobCatalog jobCatalog;
+    private final RecommendationCache recommendationCache;
+    private final RecommendationSessions recommendationSessions;
+    private final BatchRecommendationService batchRecommendationService;
+    private final JobPushService jobPushService;
+    private final SwipeStore swipeStore;
+    private final ObjectMapper objectMapper;
+    private final Executor upstreamExecutor;
+    private final long batchTimeoutMillis;
+
+    public WorkerJobController(WorkerStore workerStore,
+                               JobCatalog jobCatalog,
+                               RecommendationCache recommendationCache,
+                               RecommendationSessions recommendationSessions,
+                               BatchRecommendationService batchRecommendationService,
+                               JobPushService jobPushService,
+                               SwipeStore swipeStore,
+                               ObjectMapper objectMapper,
+                               @Qualifier(ExecutionConfiguration.UPSTREAM_EXECUTOR) Executor upstreamExecutor,
+                               @Value("${batchRecommendation.timeoutMillis:600000}") long batchTimeoutMillis) {
+        this.workerStore = workerStore;
+        this.jobCatalog = jobCatalog;
+        this.recommendationCache = recommendationCache;
+        this.recommendationSessions = recommendationSessions;
+        this.batchRecommendationService = batchRecommendationService;
+        this.jobPushService = jobPushService;
+        this.swipeStore = swipeStore;
+        this.objectMapper = objectMapper;
+        this.upstreamExecutor = upstreamExecutor;
+        this.batchTimeoutMillis = batchTimeoutMillis;
     }
 
     /**
      * Returns the matching job for given workerId if it's valid and exist in the system.
+     * <br>
+     * With paginate, or with the cursor of a previous page, the jobs are paged through {@link RecommendationSessions}:
+     * the cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
      *
      * @param workerId Integer value referring the {@link Worker#userId}
      * @param limit    Optional. Limit the result count. Default 3.
+     * @param paginate Optional. Return the cursor of the next page. Default false.
+     * @param cursor   Optional. Cursor of the page to return, from the previous page.
      * @return
      */
     @GetMapping("/recommend/{workerId}")
     public ResponseEntity recommendJobs(@PathVariable String workerId,
-                                        @RequestParam(value = "limit", required = false, defaultValue = "3") Integer limit) {
+                                        @RequestParam(value = "limit", required = false, defaultValue = "3") Integer limit,
+                                        @RequestParam(value = "paginate", required = false, defaultValue = "false") boolean paginate,
+                                        @RequestParam(value = "cursor", required = false) String cursor) {
 
         Logger.info(getClass(), "Recommend job request received for worker {} with limit {}.", workerId, limit);
 
-        if (workerId == null || asLong(workerId, "workerId") == null) {
+        Long userId = workerId == null ? null : asLong(workerId, "workerId");
+        if (userId == null) {
             Logger.error(getClass(), "Invalid workerId.");
             return ResponseEntity.badRequest().body("WorkerId is numeric value and it's mandatory.");
         }
 
-        Worker worker = workerService.getWorker(asLong(workerId, null));
+        if (cursor != null) {
+            RecommendationSessions.Cursor position = RecommendationSessions.parseCursor(cursor);
+            if (position == null) {
+                Logger.error(getClass(), "Invalid cursor {}.", cursor);
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            RecommendationSessions.Page page = recommendationSessions.nextPage(userId, position, limit);
+            if (page == null) {
+                return ResponseEntity.status(HttpStatus.GONE).body("Cursor expired. Request the first page again.");
+            }
+            Logger.info(getClass(), "Found {} more matching jobs for worker {}.", page.getJobs().size(), workerId);
+            return toResponse(page);
+        }
+
+        // A stale catalog is loaded while the worker is looked up, rather than after it.
+        CompletableFuture<JobCatalogSnapshot> snapshot = getSnapshot();
+        Worker worker = workerStore.getWorker(userId);
 
         if (worker == null) {
             Logger.error(getClass(), "Worker not found for id {}.", workerId);
@@ -54,13 +136,156 @@ public class WorkerJobController {
 
         Logger.debug(getClass(), "Fetching recommended jobs for worker {}.", worker);
 
-        List<Job> matchingJobs = jobSearchEngine.findMatchingJobsForWorker(worker, limit);
+        if (paginate) {
+            RecommendationSessions.Page page = recommendationSessions.firstPage(snapshot.join(), worker, limit);
+            Logger.info(getClass(), "Found {} matching jobs for worker {}.", page.getJobs().size(), workerId);
+            return toResponse(page);
+        }
+
+        List<Job> matchingJobs = recommendationCache.findMatchingJobsForWorker(snapshot.join(), worker, limit);
 
         Logger.info(getClass(), "Found {} matching jobs for worker {}.", matchingJobs.size(), workerId);
 
         return ResponseEntity.ok(matchingJobs);
     }
 
+    /**
+     * Returns the matching jobs of many workers, streamed as newline delimited JSON: one
+     * {@link com.example.swipe.domain.WorkerRecommendation} per line, in the order of the requested workerIds (by userId
+     * for all active workers).
+     *
+     * @param request {@link BatchRecommendationRequest}. Either workerIds or allActive is mandatory.
+     * @return
+     */
+    @PostMapping(value = "/recommend/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> recommendJobsBatch(@RequestBody BatchRecommendationRequest request,
+                                                 HttpServletResponse response) throws IOException {
+
+        Logger.info(getClass(), "Batch recommend job request received {}.", request);
+
+        if (!request.getAllActive() && CollectionUtils.isEmpty(request.getWorkerIds())) {
+            Logger.error(getClass(), "Batch request without workers.");
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getOutputStream().write("Either workerIds or allActive is mandatory.".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+        int limit = request.getLimit() == null ? 3 : request.getLimit();
+
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = outputStream -> {
+            int workers = batchRecommendationService.recommend(request, limit, recommendation -> {
+                try {
+                    writer.writeValue(outputStream, recommendation);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            Logger.info(getClass(), "Streamed recommendations of {} workers.", workers);
+        };
+        // The stream of a large batch may outlive the default async request timeout, so it gets its own.
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(batchTimeoutMillis, () -> {
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
+    }
+
+    /**
+     * Returns the workers a job of the catalog would be pushed to: the active workers whose search would return it.
+     *
+     * @param jobId               Long value referring the {@link Job#jobId}
+     * @param minCertificateScore Optional. Share (0...1) of the job's required certificates a worker must hold. Default
+     *                            {@code jobPush.minCertificateScore}.
+     * @return
+     */
+    @GetMapping("/{jobId}/workers")
+    public ResponseEntity eligibleWorkers(@PathVariable String jobId,
+                                          @RequestParam(value = "minCertificateScore", required = false) Double minCertificateScore) {
+
+        Logger.info(getClass(), "Eligible workers request received for job {}.", jobId);
+
+        Long id = jobId == null ? null : asLong(jobId, "jobId");
+        if (id == null) {
+            return ResponseEntity.badRequest().body("JobId is numeric value and it's mandatory.");
+        }
+
+        long[] workers = jobPushService.findEligibleWorkers(id, minCertificateScore == null ? jobPushService.getMinCertificateScore() : minCertificateScore);
+        if (workers == null) {
+            Logger.error(getClass(), "Job not found for id {}.", jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid jobId. Record not found.");
+        }
+
+        Logger.info(getClass(), "Found {} eligible workers for job {}.", workers.length, jobId);
+
+        return ResponseEntity.ok(workers);
+    }
+
+    /**
+     * Records that a worker swiped a job: the job is no longer recommended to the worker. Both must exist: the worker in
+     * the CORE system and the job in the current catalog.
+     *
+     * @param jobId   Long value referring the {@link Job#jobId}
+     * @param request {@link SwipeRequest}. workerId and action are mandatory.
+     * @return
+     */
+    @PostMapping("/{jobId}/swipes")
+    public ResponseEntity swipeJob(@PathVariable String jobId, @RequestBody SwipeRequest request) {
+
+        Logger.info(getClass(), "Swipe request received for job {} {}.", jobId, request);
+
+        Long id = jobId == null ? null : asLong(jobId, "jobId");
+        if (id == null) {
+            return ResponseEntity.badRequest().body("JobId is numeric value and it's mandatory.");
+        }
+        if (request.getWorkerId() == null || request.getAction() == null) {
+            return ResponseEntity.badRequest().body("WorkerId and action are mandatory.");
+        }
+        if (workerStore.getWorker(request.getWorkerId()) == null) {
+            Logger.error(getClass(), "Worker not found for id {}.", request.getWorkerId());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid workerId. Record not found.");
+        }
+        if (jobCatalog.getSnapshot().findJob(id) == null) {
+            Logger.error(getClass(), "Job not found for id {}.", jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid jobId. Record not found.");
+        }
+
+        swipeStore.record(request.getWorkerId(), id, request.getAction());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Responds with the jobs of the page, and the cursor of the next page if any.
+     *
+     * @param page {@link RecommendationSessions.Page}
+     * @return
+     */
+    static ResponseEntity<List<Job>> toResponse(RecommendationSessions.Page page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getJobs());
+    }
+
+    /**
+     * Returns the current job catalog snapshot, loaded on the upstream executor if it is stale. Before the first load,
+     * every request waits for the same load: the snapshot is then awaited on the request thread.
+     *
+     * @return
+     */
+    private CompletableFuture<JobCatalogSnapshot> getSnapshot() {
+        JobCatalogSnapshot snapshot = jobCatalog.peekSnapshot();
+        if (!jobCatalog.isStale(snapshot)) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        if (!snapshot.isLoaded()) {
+            return CompletableFuture.completedFuture(jobCatalog.getSnapshot());
+        }
+        return CompletableFuture.supplyAsync(jobCatalog::getSnapshot, upstreamExecutor);
+    }
+
     /**
      * Convert String to Long. Return 0 in case of exception.
      *
@@ -0,0 +1,37 @@
+package com.example.swipe.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Body of a batch recommendation request: either an explicit list of {@link Worker#userId}s or all the active workers.
+ */
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@Setter
+@ToString
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.LowerCamelCaseStrategy.class)
+public class BatchRecommendationRequest {
+
+    private List<Long> workerIds;
+    private Boolean allActive;
+    private Integer limit;
+
+    public Boolean getAllActive() {
+        return Optional.ofNullable(allActive).orElse(Boolean.FALSE);
+    }
+}
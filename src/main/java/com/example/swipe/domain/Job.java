@@ -1,6 +1,8 @@
 package com.example.swipe.domain;
 
 import com.example.swipe.domain.common.Coordinates;
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -31,6 +33,8 @@ public class Job {
     private String company;
     private String jobTitle;
     private String about;
+    // The CORE system sends it as startDate.
+    @JsonAlias("startDate")
     private Instant startTime;
     private Integer workersRequired;
     private String billRate;
@@ -38,6 +42,13 @@ public class Job {
     private List<String> requiredCertificates;
     private Boolean driverLicenseRequired;
 
+    /**
+     * {@link #requiredCertificates} encoded by {@link com.example.swipe.service.index.CertificateDictionary} when the catalog is loaded.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    private long[] requiredCertificateBits;
+
     public Integer getWorkersRequired() {
         return Optional.ofNullable(workersRequired).orElse(0);
     }
@@ -1,6 +1,7 @@
 package com.example.swipe.domain;
 
 import com.example.swipe.domain.common.Coordinates;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -40,6 +41,13 @@ public class Worker {
     private Boolean isActive;
     private Integer rating;
 
+    /**
+     * {@link #certificates} encoded by {@link com.example.swipe.service.index.CertificateDictionary} when the worker is loaded.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    private long[] certificateBits;
+
     public Boolean getHasDriverLicense() {
         return Optional.ofNullable(hasDriverLicense).orElse(Boolean.FALSE);
     }
@@ -0,0 +1,35 @@
+package com.example.swipe.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Recommended {@link Job}s of one worker, written as one line of a batch recommendation response.
+ * <br>
+ * {@link #error} is set instead of {@link #jobs} when no recommendation could be computed for the worker.
+ */
+@AllArgsConstructor
+@Getter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.LowerCamelCaseStrategy.class)
+public class WorkerRecommendation {
+
+    private final Long workerId;
+    private final List<Job> jobs;
+    private final String error;
+
+    public static WorkerRecommendation of(Long workerId, List<Job> jobs) {
+        return new WorkerRecommendation(workerId, jobs, null);
+    }
+
+    public static WorkerRecommendation failed(Long workerId, String error) {
+        return new WorkerRecommendation(workerId, null, error);
+    }
+}
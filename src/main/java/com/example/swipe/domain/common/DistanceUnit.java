@@ -0,0 +1,55 @@
+package com.example.swipe.domain.common;
+
+/**
+ * Unit of measure of a distance, e.g. {@code Worker.GeocodePreference#unit}.
+ */
+public enum DistanceUnit {
+
+    MILES(1.0),
+    KILOMETERS(1.609344),
+    NAUTICAL_MILES(0.8684);
+
+    /**
+     * Earth radius in statute miles: 60 nautical miles per degree of arc and 1.1515 statute miles per nautical mile.
+     */
+    private static final double EARTH_RADIUS_MILES = Math.toDegrees(60 * 1.1515);
+
+    private final double milesFactor;
+
+    DistanceUnit(double milesFactor) {
+        this.milesFactor = milesFactor;
+    }
+
+    /**
+     * Resolves the unit code used by the CORE system. "KM" is kilometers and "N" nautical miles (case-insensitive);
+     * anything else is statute miles.
+     *
+     * @param code Unit code. Not null.
+     * @return DistanceUnit
+     */
+    public static DistanceUnit of(String code) {
+        if (code.equalsIgnoreCase("KM")) {
+            return KILOMETERS;
+        } else if (code.equalsIgnoreCase("N")) {
+            return NAUTICAL_MILES;
+        }
+        return MILES;
+    }
+
+    /**
+     * Earth radius in this unit. Dividing a distance by it gives the angle the distance spans at the centre of the earth.
+     *
+     * @return earth radius.
+     */
+    public double earthRadius() {
+        return EARTH_RADIUS_MILES * milesFactor;
+    }
+
+    public double fromMiles(double miles) {
+        return miles * milesFactor;
+    }
+
+    public double toKilometers(double distance) {
+        return distance / milesFactor * KILOMETERS.milesFactor;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.swipe.domain.common;
+
+/**
+ * What a worker did with a recommended job. Either way the job is not recommended to the worker again.
+ */
+public enum SwipeAction {
+
+    ACCEPT,
+    DECLINE
+}
@@ -0,0 +1,98 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.BatchRecommendationRequest;
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.WorkerRecommendation;
+import com.example.swipe.utility.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the job recommendations of many workers in one pass.
+ * <br>
+ * All the workers of a batch are matched against the same {@link JobCatalogSnapshot}. They are processed in chunks of
+ * {@code batchRecommendation.chunkSize}: the workers of a chunk are matched in parallel on a dedicated
+ * {@link ForkJoinPool} of {@code batchRecommendation.parallelism} threads, then handed to the sink in request order
+ * before the next chunk starts. Only one chunk of results is held in memory at a time.
+ */
+@Service
+public class BatchRecommendationService {
+
+    private final WorkerStore workerStore;
+    private final JobCatalog jobCatalog;
+    private final RecommendationCache recommendationCache;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchRecommendationService(WorkerStore workerStore,
+                                      JobCatalog jobCatalog,
+                                      RecommendationCache recommendationCache,
+                                      @Value("${batchRecommendation.parallelism:0}") int parallelism,
+                                      @Value("${batchRecommendation.chunkSize:256}") int chunkSize) {
+        this.workerStore = workerStore;
+        this.jobCatalog = jobCatalog;
+        this.recommendationCache = recommendationCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /**
+     * Matches every worker of the request and passes one {@link WorkerRecommendation} per worker to the sink. The sink
+     * is always called from the calling thread.
+     *
+     * @param request {@link BatchRecommendationRequest}
+     * @param limit   Maximum number of jobs per worker.
+     * @param sink    Receives the recommendations.
+     * @return number of workers processed.
+     */
+    public int recommend(BatchRecommendationRequest request, int limit, Consumer<WorkerRecommendation> sink) {
+        JobCatalogSnapshot snapshot = jobCatalog.getSnapshot();
+        List<Long> workerIds = getWorkerIds(request);
+        Logger.info(getClass(), "Batch recommendation for {} workers against job catalog snapshot {}.", workerIds.size(), snapshot);
+
+        for (int from = 0; from < workerIds.size(); from += chunkSize) {
+            List<Long> chunk = workerIds.subList(from, Math.min(from + chunkSize, workerIds.size()));
+            List<WorkerRecommendation> recommendations = pool.submit(() -> chunk.parallelStream()
+                    .map(workerId -> recommend(snapshot, workerId, limit))
+                    .collect(Collectors.toList())).join();
+            recommendations.forEach(sink);
+        }
+        return workerIds.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private List<Long> getWorkerIds(BatchRecommendationRequest request) {
+        if (request.getAllActive()) {
+            return workerStore.getActiveWorkers().stream().map(Worker::getUserId).sorted().collect(Collectors.toList());
+        }
+        return CollectionUtils.isEmpty(request.getWorkerIds()) ? new ArrayList<>() : request.getWorkerIds();
+    }
+
+    private WorkerRecommendation recommend(JobCatalogSnapshot snapshot, Long workerId, int limit) {
+        try {
+            Worker worker = workerId == null ? null : workerStore.getWorker(workerId);
+            if (worker == null) {
+                return WorkerRecommendation.failed(workerId, "Invalid workerId. Record not found.");
+            }
+            List<Job> jobs = recommendationCache.findMatchingJobsForWorker(snapshot, worker, limit);
+            return WorkerRecommendation.of(workerId, jobs);
+
+        } catch (RuntimeException e) {
+            Logger.error(getClass(), "Batch recommendation failed for worker {}.", workerId, e);
+            return WorkerRecommendation.failed(workerId, "Recommendation failed.");
+        }
+    }
+}
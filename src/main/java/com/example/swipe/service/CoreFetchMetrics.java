@@ -0,0 +1,63 @@
+package com.example.swipe.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of the streamed fetches of one endpoint of the CORE system, tagged {@code endpoint}:
+ * <br> {@code core.fetch}: time from the request to the last element read, also tagged {@code outcome} (ok,
+ * not_modified, http_error or exception).
+ * <br> {@code core.fetch.elements}: elements read per fetch.
+ * <br> {@code core.fetch.payload}: bytes of the response body, once decompressed.
+ */
+final class CoreFetchMetrics {
+
+    static final String OK = "ok";
+    static final String NOT_MODIFIED = "not_modified";
+    static final String HTTP_ERROR = "http_error";
+    static final String EXCEPTION = "exception";
+
+    private final MeterRegistry meterRegistry;
+    private final String endpoint;
+    private final DistributionSummary elements;
+    private final DistributionSummary payload;
+
+    CoreFetchMetrics(MeterRegistry meterRegistry, String endpoint) {
+        this.meterRegistry = meterRegistry;
+        this.endpoint = endpoint;
+        this.elements = DistributionSummary.builder("core.fetch.elements")
+                .description("Elements read per fetch of the CORE system")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        this.payload = DistributionSummary.builder("core.fetch.payload")
+                .description("Decompressed size of the response body of the CORE system")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records a completed fetch.
+     *
+     * @param sample       Started by {@link #start()} before the request.
+     * @param outcome      One of the outcome constants.
+     * @param elementCount Elements read.
+     * @param payloadBytes Bytes of the body read.
+     */
+    void record(Timer.Sample sample, String outcome, int elementCount, long payloadBytes) {
+        sample.stop(Timer.builder("core.fetch")
+                            .description("Time taken to stream a response of the CORE system")
+                            .tag("endpoint", endpoint)
+                            .tag("outcome", outcome)
+                            .register(meterRegistry));
+        if (OK.equals(outcome)) {
+            elements.record(elementCount);
+            payload.record(payloadBytes);
+        }
+    }
+}
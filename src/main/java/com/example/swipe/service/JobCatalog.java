@@ -0,0 +1,312 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.utility.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Holds the current {@link JobCatalogSnapshot} and keeps it fresh.
+ * <br>
+ * The snapshot is reloaded from {@link JobService} by a scheduled background task and swapped in atomically, so request
+ * threads read the catalog without touching the CORE system. Only when the snapshot is older than
+ * {@code jobCatalog.maxStalenessMillis} (e.g. the background task keeps failing) does a request trigger a fallback fetch.
+ * <br>
+ * With {@code jobCatalog.deltaSync} a load is a conditional request answered with 304 when nothing changed, and the
+ * jobs returned otherwise are diffed against the current snapshot: only the inserted, updated and removed jobs are
+ * indexed (see {@link JobCatalogSnapshot.Patch}). A snapshot with no change keeps its version, so the recommendations
+ * cached against it stay valid.
+ * <br>
+ * Every installed snapshot is also written to the {@link JobCatalogFile}, in the background, which a restarted instance
+ * serves from until its first load.
+ */
+@Service
+public class JobCatalog {
+
+    private final JobService jobService;
+    private final JobCatalogFile catalogFile;
+    private final Clock clock;
+    private final AtomicReference<JobCatalogSnapshot> current = new AtomicReference<>(JobCatalogSnapshot.EMPTY);
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final MeterRegistry meterRegistry;
+    private final Timer refreshTimer;
+    private final List<Consumer<JobCatalogSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<JobCatalogSnapshot, List<Job>>> insertListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${jobCatalog.maxStalenessMillis:300000}")
+    private long maxStalenessMillis;
+    @Value("${jobCatalog.deltaSync:false}")
+    private boolean deltaSync;
+    @Value("${jobCatalog.deltaCompactionRatio:0.25}")
+    private double deltaCompactionRatio;
+
+    // Validators of the response the snapshot of version validatedVersion was loaded from. Guarded by refreshLock.
+    private String eTag;
+    private String lastModified;
+    private long validatedVersion = -1;
+
+    @Autowired
+    public JobCatalog(JobService jobService, MeterRegistry meterRegistry, JobCatalogFile catalogFile) {
+        this(jobService, meterRegistry, catalogFile, Clock.systemUTC());
+    }
+
+    JobCatalog(JobService jobService, MeterRegistry meterRegistry, Clock clock) {
+        this(jobService, meterRegistry, JobCatalogFile.disabled(), clock);
+    }
+
+    JobCatalog(JobService jobService, MeterRegistry meterRegistry, JobCatalogFile catalogFile, Clock clock) {
+        this.jobService = jobService;
+        this.catalogFile = catalogFile;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.refreshTimer = Timer.builder("job.catalog.refresh").description("Time taken to load the job catalog").register(meterRegistry);
+        TimeGauge.builder("job.catalog.snapshot.age", this, TimeUnit.MILLISECONDS, catalog -> catalog.getSnapshotAge().toMillis())
+                .description("Age of the job catalog snapshot served to requests")
+                .register(meterRegistry);
+        Gauge.builder("job.catalog.snapshot.size", this, catalog -> catalog.current.get().size())
+                .description("Number of jobs in the current snapshot")
+                .register(meterRegistry);
+        Gauge.builder("job.catalog.snapshot.version", this, catalog -> catalog.current.get().getVersion())
+                .description("Version of the current snapshot")
+                .register(meterRegistry);
+        restore();
+    }
+
+    /**
+     * Returns the current snapshot. Falls back to a synchronous load when the snapshot is stale and no other thread is
+     * already loading it; otherwise the stale snapshot is served (or awaited, if nothing was ever loaded).
+     *
+     * @return JobCatalogSnapshot
+     */
+    public JobCatalogSnapshot getSnapshot() {
+        JobCatalogSnapshot snapshot = current.get();
+        if (!isStale(snapshot)) {
+            return snapshot;
+        }
+
+        if (snapshot.isLoaded() ? refreshLock.tryLock() : lockUninterruptibly()) {
+            try {
+                // Another thread may have completed a load while we were waiting for the lock.
+                JobCatalogSnapshot latest = current.get();
+                if (latest != snapshot && !isStale(latest)) {
+                    return latest;
+                }
+                Logger.warn(getClass(), "Job catalog snapshot {} is stale. Loading it on the request thread.", latest);
+                return load();
+            } catch (RuntimeException e) {
+                Logger.error(getClass(), "Fallback load of the job catalog failed. Serving snapshot {}.", current.get(), e);
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * Background refresh of the snapshot. Failures are logged and the previous snapshot stays in place.
+     */
+    @Scheduled(initialDelayString = "${jobCatalog.initialDelayMillis:0}", fixedDelayString = "${jobCatalog.refreshIntervalMillis:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            Logger.error(getClass(), "Scheduled job catalog refresh failed. Keeping snapshot {}.", current.get(), e);
+        }
+    }
+
+    /**
+     * Loads the catalog from the CORE system and installs it as the current snapshot.
+     *
+     * @return the newly installed snapshot.
+     */
+    public JobCatalogSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            return load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Registers a listener called, on the loading thread, every time a new snapshot is installed.
+     *
+     * @param listener Receives the new snapshot.
+     */
+    public void addSnapshotListener(Consumer<JobCatalogSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener called, on the loading thread, with every snapshot installed by a delta load and the jobs it
+     * inserted, i.e. whose jobId was not in the previous snapshot. Not called for full loads, nor for the first load
+     * since startup which has no previous snapshot.
+     *
+     * @param listener Receives the new snapshot and its inserted jobs, never empty.
+     */
+    public void addInsertListener(BiConsumer<JobCatalogSnapshot, List<Job>> listener) {
+        insertListeners.add(listener);
+    }
+
+    public Duration getSnapshotAge() {
+        JobCatalogSnapshot snapshot = current.get();
+        return snapshot.isLoaded() ? snapshot.age(clock.instant()) : Duration.ZERO;
+    }
+
+    /**
+     * Installs a snapshot of jobs loaded by the caller, e.g. through a non-blocking client. A snapshot built
+     * concurrently by a later load is never replaced by this one.
+     *
+     * @param builder  Jobs of the catalog.
+     * @param loadedAt Time the jobs were fetched from the CORE system.
+     * @return the current snapshot after the install.
+     */
+    public JobCatalogSnapshot install(JobCatalogSnapshot.Builder builder, Instant loadedAt) {
+        return install(builder.build(versionSequence.incrementAndGet(), loadedAt));
+    }
+
+    private JobCatalogSnapshot install(JobCatalogSnapshot snapshot) {
+        JobCatalogSnapshot installed = current.accumulateAndGet(snapshot, (previous, next) -> next.getVersion() > previous.getVersion() ? next : previous);
+        if (installed != snapshot) {
+            Logger.info(getClass(), "Discarded job catalog snapshot {}, {} is newer.", snapshot, installed);
+            return installed;
+        }
+        Logger.info(getClass(), "Installed job catalog snapshot {}.", snapshot);
+        for (Consumer<JobCatalogSnapshot> listener : snapshotListeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                Logger.error(getClass(), "Job catalog snapshot listener failed for snapshot {}.", snapshot, e);
+            }
+        }
+        catalogFile.writeLater(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Installs the snapshot of the {@link JobCatalogFile}, if any, before the first load. It is served as long as it is
+     * not stale, while the scheduled refresh replaces it with the catalog of the CORE system.
+     */
+    private void restore() {
+        long start = System.nanoTime();
+        catalogFile.read().ifPresent(snapshot -> {
+            versionSequence.set(snapshot.getVersion());
+            current.set(snapshot);
+            Logger.info(getClass(), "Restored job catalog snapshot {} in {} ms.", snapshot, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Returns the current snapshot as is, never loading it.
+     *
+     * @return JobCatalogSnapshot
+     */
+    public JobCatalogSnapshot peekSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Whether the snapshot is older than {@code jobCatalog.maxStalenessMillis}, or was never loaded.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     * @return
+     */
+    public boolean isStale(JobCatalogSnapshot snapshot) {
+        return !snapshot.isLoaded() || snapshot.age(clock.instant()).toMillis() > maxStalenessMillis;
+    }
+
+    private JobCatalogSnapshot load() {
+        return refreshTimer.record(() -> deltaSync ? loadDelta() : loadFull());
+    }
+
+    private JobCatalogSnapshot loadFull() {
+        Instant loadedAt = clock.instant();
+        JobCatalogSnapshot.Builder builder = JobCatalogSnapshot.builder();
+        jobService.forEachJob(builder::add);
+        return install(builder, loadedAt);
+    }
+
+    private JobCatalogSnapshot loadDelta() {
+        Instant loadedAt = clock.instant();
+        JobCatalogSnapshot base = current.get();
+        boolean validated = base.isLoaded() && base.getVersion() == validatedVersion;
+        JobCatalogSnapshot.Patch patch = base.patch();
+        JobService.ConditionalFetch fetch = jobService.forEachJobIfModified(validated ? eTag : null, validated ? lastModified : null, patch::add);
+
+        if (base.isLoaded() && (!fetch.isModified() || patch.isUnchanged())) {
+            Logger.info(getClass(), "Job catalog unchanged since snapshot {}.", base);
+            JobCatalogSnapshot touched = base.withLoadedAt(loadedAt);
+            if (!current.compareAndSet(base, touched)) {
+                return current.get();
+            }
+            validate(touched, fetch);
+            catalogFile.touch(touched);
+            return touched;
+        }
+
+        if (base.isLoaded()) {
+            Logger.info(getClass(), "Job catalog delta against snapshot {}: {} inserted, {} updated, {} removed.",
+                        base, patch.getInserted(), patch.getUpdated(), patch.getRemoved());
+            deltaCounter("inserted").increment(patch.getInserted());
+            deltaCounter("updated").increment(patch.getUpdated());
+            deltaCounter("removed").increment(patch.getRemoved());
+        }
+        JobCatalogSnapshot snapshot = patch.build(versionSequence.incrementAndGet(), loadedAt, deltaCompactionRatio);
+        JobCatalogSnapshot installed = install(snapshot);
+        if (installed == snapshot) {
+            validate(snapshot, fetch);
+            if (base.isLoaded() && !patch.getInsertedJobs().isEmpty()) {
+                notifyInserted(snapshot, patch.getInsertedJobs());
+            }
+        }
+        return installed;
+    }
+
+    private void notifyInserted(JobCatalogSnapshot snapshot, List<Job> inserted) {
+        for (BiConsumer<JobCatalogSnapshot, List<Job>> listener : insertListeners) {
+            try {
+                listener.accept(snapshot, inserted);
+            } catch (RuntimeException e) {
+                Logger.error(getClass(), "Job catalog insert listener failed for snapshot {}.", snapshot, e);
+            }
+        }
+    }
+
+    private void validate(JobCatalogSnapshot snapshot, JobService.ConditionalFetch fetch) {
+        eTag = fetch.getETag();
+        lastModified = fetch.getLastModified();
+        validatedVersion = snapshot.getVersion();
+    }
+
+    private Counter deltaCounter(String change) {
+        return Counter.builder("job.catalog.delta.jobs")
+                .description("Jobs changed between two loads of the job catalog")
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+
+    private boolean lockUninterruptibly() {
+        refreshLock.lock();
+        return true;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.swipe.service;
+
+import com.example.swipe.utility.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Local copy of the last {@link JobCatalogSnapshot}, so that a restarted instance serves the catalog right away instead
+ * of waiting for the CORE system.
+ * <br>
+ * The file is a fixed header (magic, format version, body length, CRC32 of the body) followed by the columns of the
+ * snapshot (see {@link JobCatalogSnapshot#write}). It is written to a temporary file and moved in place, so a reader
+ * never sees a partial file, and read back through a {@link MappedByteBuffer}: the checksum is verified, then the
+ * columns are bulk copied out and indexed.
+ * <br>
+ * Snapshots are written by a single background thread, never by the thread installing them. Only the latest snapshot
+ * waiting to be written is kept: a snapshot installed while another one is being written replaces any older one still
+ * pending.
+ * <br>
+ * A missing, corrupted or incompatible file, or one older than {@code jobCatalog.snapshotFileMaxAgeMillis}, is ignored
+ * and the catalog is loaded from the CORE system as usual.
+ */
+@Component
+public class JobCatalogFile {
+
+    private static final int MAGIC = 0x53574a43; // "SWJC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 2;
+
+    private final Path path;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Executor writer;
+    private final AtomicReference<JobCatalogSnapshot> pending = new AtomicReference<>();
+
+    // Version and load time of the snapshot held by the file, if any.
+    private volatile long fileVersion = -1;
+    private volatile Instant fileLoadedAt;
+
+    @Autowired
+    public JobCatalogFile(@Value("${jobCatalog.snapshotFile:}") String path,
+                          @Value("${jobCatalog.snapshotFileMaxAgeMillis:86400000}") long maxAgeMillis) {
+        this(StringUtils.hasText(path) ? Paths.get(path) : null, Duration.ofMillis(maxAgeMillis), Clock.systemUTC(),
+             StringUtils.hasText(path) ? Executors.newSingleThreadExecutor(JobCatalogFile::newWriterThread) : Runnable::run);
+    }
+
+    JobCatalogFile(Path path, Duration maxAge, Clock clock) {
+        this(path, maxAge, clock, Runnable::run);
+    }
+
+    JobCatalogFile(Path path, Duration maxAge, Clock clock, Executor writer) {
+        this.path = path;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.writer = writer;
+    }
+
+    /**
+     * @return a file that is never read nor written.
+     */
+    static JobCatalogFile disabled() {
+        return new JobCatalogFile(null, Duration.ZERO, Clock.systemUTC());
+    }
+
+    private static Thread newWriterThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "job-catalog-file");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Replaces the file with the snapshot in the background. A snapshot still waiting to be written is dropped.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     */
+    public void writeLater(JobCatalogSnapshot snapshot) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (pending.getAndSet(snapshot) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Writes the snapshot again if the file holds the same version, loaded more than half of
+     * {@code jobCatalog.snapshotFileMaxAgeMillis} before it. Keeps the file of a catalog that does not change from
+     * being ignored by a restart as too old.
+     *
+     * @param snapshot {@link JobCatalogSnapshot} confirmed unchanged by a load.
+     */
+    public void touch(JobCatalogSnapshot snapshot) {
+        Instant loadedAt = fileLoadedAt;
+        if (isEnabled() && snapshot.getVersion() == fileVersion && loadedAt != null
+                && Duration.between(loadedAt, snapshot.getLoadedAt()).compareTo(maxAge.dividedBy(2)) > 0) {
+            writeLater(snapshot);
+        }
+    }
+
+    private void writePending() {
+        JobCatalogSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot != null) {
+            write(snapshot);
+        }
+    }
+
+    /**
+     * Replaces the file with the snapshot. Failures are logged, the previous file is then left as is.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     */
+    void write(JobCatalogSnapshot snapshot) {
+        if (!isEnabled()) {
+            return;
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                CheckedOutputStream body = new CheckedOutputStream(Channels.newOutputStream(channel), crc);
+                // Not closed: the header is written once the body is flushed, the channel is closed below.
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, 1 << 16));
+                snapshot.write(out);
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(channel.position() - HEADER_BYTES).putLong(crc.getValue()).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileVersion = snapshot.getVersion();
+            fileLoadedAt = snapshot.getLoadedAt();
+            Logger.info(getClass(), "Wrote job catalog snapshot {} to {}.", snapshot, path);
+        } catch (IOException | RuntimeException e) {
+            Logger.error(getClass(), "Could not write job catalog snapshot {} to {}.", snapshot, path, e);
+        }
+    }
+
+    /**
+     * Reads the snapshot of the file.
+     *
+     * @return the snapshot, or empty if there is no usable file.
+     */
+    public Optional<JobCatalogSnapshot> read() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                Logger.warn(getClass(), "Ignoring {}: not a job catalog snapshot of format {}.", path, FORMAT_VERSION);
+                return Optional.empty();
+            }
+            long length = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (length != buffer.remaining()) {
+                Logger.warn(getClass(), "Ignoring {}: {} bytes of snapshot expected, {} found.", path, length, buffer.remaining());
+                return Optional.empty();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != checksum) {
+                Logger.warn(getClass(), "Ignoring {}: checksum mismatch.", path);
+                return Optional.empty();
+            }
+
+            JobCatalogSnapshot snapshot = JobCatalogSnapshot.read(buffer);
+            Duration age = snapshot.age(clock.instant());
+            if (age.compareTo(maxAge) > 0) {
+                Logger.warn(getClass(), "Ignoring {}: snapshot {} is {} old.", path, snapshot, age);
+                return Optional.empty();
+            }
+            fileVersion = snapshot.getVersion();
+            fileLoadedAt = snapshot.getLoadedAt();
+            return Optional.of(snapshot);
+
+        } catch (NoSuchFileException e) {
+            Logger.info(getClass(), "No job catalog snapshot at {}.", path);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn(getClass(), "Ignoring {}: could not be read.", path, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Waits for the snapshot being written, if any. A snapshot still pending is not written.
+     */
+    @PreDestroy
+    public void close() {
+        if (!(writer instanceof ExecutorService)) {
+            return;
+        }
+        ExecutorService executor = (ExecutorService) writer;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                Logger.warn(getClass(), "Job catalog snapshot still being written to {} at shutdown.", path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
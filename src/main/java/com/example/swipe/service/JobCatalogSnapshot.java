@@ -0,0 +1,481 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.DayMask;
+import com.example.swipe.service.index.GeoGridIndex;
+import com.example.swipe.service.index.JobColumns;
+import com.example.swipe.service.index.JobPostingIndex;
+import com.example.swipe.utility.DistanceQuery;
+import com.example.swipe.utility.LongObjectHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable, versioned view of the {@link Job} catalog as loaded from the CORE system.
+ * <br>
+ * A snapshot is never modified after it is built. {@link JobCatalog} installs a new one atomically on every refresh, so
+ * a request keeps working against the snapshot it started with.
+ * <br>
+ * A snapshot is either built from scratch or derived from the previous one by a {@link Patch}: removed and updated jobs
+ * keep their ordinal but are dropped from the posting lists, and new versions of the jobs are appended. The patched
+ * snapshot shares the untouched posting lists and the grid index of its base, and indexes the appended jobs only.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class JobCatalogSnapshot {
+
+    /**
+     * Placeholder installed until the first successful load.
+     */
+    public static final JobCatalogSnapshot EMPTY = new JobCatalogSnapshot(0L, Instant.EPOCH, JobColumns.EMPTY);
+
+    @ToString.Include
+    private final long version;
+    @ToString.Include
+    private final Instant loadedAt;
+    // Jobs by ordinal, including the ones removed by a patch.
+    @Getter(AccessLevel.NONE)
+    private final JobColumns columns;
+    @Getter(AccessLevel.NONE)
+    private final RoaringBitmap removed;
+    @Getter(AccessLevel.NONE)
+    private final GeoGridIndex geoIndex;
+    // Grid index of the ordinals appended by patches since the last full build, null if there are none.
+    @Getter(AccessLevel.NONE)
+    private final GeoGridIndex appendedGeoIndex;
+    @Getter(AccessLevel.NONE)
+    private final int appendedFrom;
+    @Getter(AccessLevel.NONE)
+    private final JobPostingIndex postingIndex;
+    // Ordinal of each jobId, computed by the first patch and carried over by the next ones. Entries of removed
+    // ordinals are left in place: a lookup checks the ordinal is still live.
+    @Getter(AccessLevel.NONE)
+    private final LongObjectHashMap<Integer> ordinalByJobId;
+    // Highest bill rate of the live jobs in cents, 0 if none.
+    private final int maxBillRateCents;
+    // Ordinal of each jobId of a snapshot without ordinalByJobId, computed by the first lookup.
+    @Getter(AccessLevel.NONE)
+    private volatile LongObjectHashMap<Integer> lookupOrdinals;
+
+    private JobCatalogSnapshot(long version, Instant loadedAt, JobColumns columns) {
+        this(version, loadedAt, columns, new RoaringBitmap(), GeoGridIndex.build(columns, 0, columns.size()), null, columns.size(),
+             JobPostingIndex.build(columns, 0, columns.size()), null, columns.getMaxBillRateCents());
+    }
+
+    private JobCatalogSnapshot(long version, Instant loadedAt, JobColumns columns, RoaringBitmap removed,
+                               GeoGridIndex geoIndex, GeoGridIndex appendedGeoIndex, int appendedFrom,
+                               JobPostingIndex postingIndex, LongObjectHashMap<Integer> ordinalByJobId, int maxBillRateCents) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.columns = columns;
+        this.removed = removed;
+        this.geoIndex = geoIndex;
+        this.appendedGeoIndex = appendedGeoIndex;
+        this.appendedFrom = appendedFrom;
+        this.postingIndex = postingIndex;
+        this.ordinalByJobId = ordinalByJobId;
+        this.maxBillRateCents = maxBillRateCents;
+    }
+
+    /**
+     * Builds a snapshot over a copy of the given jobs. {@code null} entries are dropped.
+     *
+     * @param version  Monotonically increasing catalog version.
+     * @param loadedAt Time the jobs were fetched from the CORE system.
+     * @param jobs     Jobs in the catalog.
+     * @return JobCatalogSnapshot
+     */
+    public static JobCatalogSnapshot of(long version, Instant loadedAt, List<Job> jobs) {
+        Builder builder = builder();
+        jobs.forEach(builder::add);
+        return builder.build(version, loadedAt);
+    }
+
+    /**
+     * Builds a snapshot loaded now. Mostly useful for tests.
+     *
+     * @param version Catalog version.
+     * @param jobs    Jobs in the catalog.
+     * @return JobCatalogSnapshot
+     */
+    public static JobCatalogSnapshot of(long version, List<Job> jobs) {
+        return of(version, Instant.now(), jobs);
+    }
+
+    /**
+     * Returns the ordinals (see {@link #getJob(int)}) of the jobs passing the attribute filters: open positions, driver
+     * license, start day and the grid cells around the query. The set is computed from posting lists only, no job is
+     * looked at. It is a superset of the matching jobs: the exact distance still has to be checked by the caller.
+     *
+     * @param query            {@link DistanceQuery} describing the search area. Null for no restriction.
+     * @param hasDriverLicense Whether the worker may take jobs requiring a driver license.
+     * @param availableDays    {@link DayMask} of the days the worker can start a job on.
+     * @return new bitmap, owned by the caller.
+     */
+    public RoaringBitmap getCandidates(DistanceQuery query, boolean hasDriverLicense, int availableDays) {
+        RoaringBitmap candidates;
+        if (query == null) {
+            candidates = postingIndex.getOpenStartingOnAnyDay(availableDays).clone();
+        } else {
+            candidates = geoIndex.queryBitmap(query.getLatitude(), query.getLongitude(), query.getRadiusRadians());
+            if (appendedGeoIndex != null) {
+                candidates.or(appendedGeoIndex.queryBitmap(query.getLatitude(), query.getLongitude(), query.getRadiusRadians()));
+            }
+            // Removed ordinals are still in the grid indexes, but never in the open posting list.
+            candidates.and(postingIndex.getOpenStartingOnAnyDay(availableDays));
+        }
+        if (!hasDriverLicense) {
+            candidates.and(postingIndex.getNoLicenseRequired());
+        }
+        return candidates;
+    }
+
+    /**
+     * Counts the jobs passing the open positions filter, and the driver license filter unless the worker has one.
+     *
+     * @param hasDriverLicense Whether the worker may take jobs requiring a driver license.
+     * @return
+     */
+    public int countOpen(boolean hasDriverLicense) {
+        return countOpen(hasDriverLicense, DayMask.ALL);
+    }
+
+    /**
+     * Counts the jobs passing the open positions, driver license and start day filters.
+     *
+     * @param hasDriverLicense Whether the worker may take jobs requiring a driver license.
+     * @param availableDays    {@link DayMask} of the days the worker can start a job on.
+     * @return
+     */
+    public int countOpen(boolean hasDriverLicense, int availableDays) {
+        RoaringBitmap open = postingIndex.getOpenStartingOnAnyDay(availableDays);
+        return hasDriverLicense ? open.getCardinality() : RoaringBitmap.andCardinality(open, postingIndex.getNoLicenseRequired());
+    }
+
+    /**
+     * Returns the ordinals of the jobs requiring at least one of the certificates, i.e. the jobs a worker holding them
+     * scores above 0 on.
+     *
+     * @param certificateBits {@link CertificateDictionary} bitset.
+     * @return new bitmap, owned by the caller.
+     */
+    public RoaringBitmap getJobsRequiringAnyCertificate(long[] certificateBits) {
+        return postingIndex.getRequiringAnyCertificate(certificateBits);
+    }
+
+    /**
+     * Matching fields of the jobs, by ordinal. Includes the jobs removed by a patch, which are never candidates.
+     *
+     * @return JobColumns
+     */
+    public JobColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Materializes a job. Every call returns a new {@link Job}, so callers only ask for the jobs they return.
+     *
+     * @param ordinal Ordinal returned by {@link #getCandidates(DistanceQuery, boolean, int)}.
+     * @return the job at that ordinal.
+     */
+    public Job getJob(int ordinal) {
+        return columns.getJob(ordinal);
+    }
+
+    /**
+     * Looks a live job up by jobId.
+     *
+     * @param jobId Referring to {@link Job#jobId}
+     * @return the materialized job, or null if it is not in the catalog.
+     */
+    public Job findJob(long jobId) {
+        Integer ordinal = (ordinalByJobId != null ? ordinalByJobId : getLookupOrdinals()).get(jobId);
+        return ordinal != null && !removed.contains(ordinal.intValue()) ? columns.getJob(ordinal) : null;
+    }
+
+    /**
+     * Only patched snapshots carry the jobId map; the one of a full build is computed once, by the first lookup. The
+     * first live ordinal of a jobId wins.
+     *
+     * @return
+     */
+    private LongObjectHashMap<Integer> getLookupOrdinals() {
+        LongObjectHashMap<Integer> ordinals = lookupOrdinals;
+        if (ordinals == null) {
+            ordinals = new LongObjectHashMap<>(columns.size());
+            for (int ordinal = columns.size() - 1; ordinal >= 0; ordinal--) {
+                if (columns.hasJobId(ordinal) && !removed.contains(ordinal)) {
+                    ordinals.put(columns.getRankingJobId(ordinal), ordinal);
+                }
+            }
+            // Racing lookups may each compute it: they compute the same map.
+            lookupOrdinals = ordinals;
+        }
+        return ordinals;
+    }
+
+    /**
+     * Materializes the jobs in the catalog, without the ones removed by a patch.
+     *
+     * @return unmodifiable list.
+     */
+    public List<Job> getJobs() {
+        List<Job> live = new ArrayList<>(size());
+        for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+            if (!removed.contains(ordinal)) {
+                live.add(columns.getJob(ordinal));
+            }
+        }
+        return Collections.unmodifiableList(live);
+    }
+
+    /**
+     * Writes the snapshot, without the jobs removed by a patch, in the format read by {@link #read(ByteBuffer)}.
+     *
+     * @param out Destination.
+     * @throws IOException if the destination fails.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(version);
+        out.writeLong(loadedAt.getEpochSecond());
+        out.writeInt(loadedAt.getNano());
+        columns.write(out, RoaringBitmap.andNot(RoaringBitmap.bitmapOfRange(0, columns.size()), removed).toArray());
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(DataOutput)}, with its version and load time, and indexes it.
+     *
+     * @param buffer Source, positioned at the start of the snapshot.
+     * @return JobCatalogSnapshot
+     */
+    public static JobCatalogSnapshot read(ByteBuffer buffer) {
+        long version = buffer.getLong();
+        Instant loadedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return new JobCatalogSnapshot(version, loadedAt, JobColumns.read(buffer));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a patch of this snapshot with the jobs currently in the CORE system.
+     *
+     * @return Patch
+     */
+    public Patch patch() {
+        return new Patch(this);
+    }
+
+    /**
+     * Same snapshot, with the same version, marked as loaded at the given time. Used when the CORE system reports no
+     * change since this snapshot was loaded.
+     *
+     * @param loadedAt Time the catalog was checked.
+     * @return JobCatalogSnapshot
+     */
+    public JobCatalogSnapshot withLoadedAt(Instant loadedAt) {
+        return new JobCatalogSnapshot(version, loadedAt, columns, removed, geoIndex, appendedGeoIndex, appendedFrom, postingIndex, ordinalByJobId,
+                                      maxBillRateCents);
+    }
+
+    @ToString.Include
+    public int size() {
+        return columns.size() - removed.getCardinality();
+    }
+
+    public boolean isLoaded() {
+        return this != EMPTY;
+    }
+
+    public Duration age(Instant now) {
+        return Duration.between(loadedAt, now);
+    }
+
+    /**
+     * Collects the jobs of a snapshot as they are read from the CORE system. Each job is copied into the columns on
+     * {@link #add(Job)} and not retained, so the payload does not outlive the load.
+     */
+    public static final class Builder {
+
+        private final JobColumns.Builder columns = JobColumns.builder(1024);
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the job to the snapshot. {@code null} is ignored.
+         *
+         * @param job {@link Job}
+         */
+        public void add(Job job) {
+            if (job != null) {
+                columns.add(job);
+            }
+        }
+
+        public JobCatalogSnapshot build(long version, Instant loadedAt) {
+            return new JobCatalogSnapshot(version, loadedAt, columns.build());
+        }
+    }
+
+    /**
+     * Diffs the jobs read from the CORE system against a base snapshot, by jobId and
+     * {@link JobColumns#sameContent(int, Job)}, and builds the next snapshot from the difference.
+     * <br>
+     * Unchanged jobs are not indexed again: the base keeps their ordinal and their postings. The snapshot is built from
+     * scratch instead when the removed and appended ordinals carried since the last full build grow beyond the
+     * compaction ratio, or when the jobs cannot be told apart by jobId (a job without one, or a jobId read twice).
+     */
+    public static final class Patch {
+
+        private final JobCatalogSnapshot base;
+        private final LongObjectHashMap<Integer> baseOrdinals;
+        private final RoaringBitmap seen = new RoaringBitmap();
+        private final RoaringBitmap updated = new RoaringBitmap();
+        private final List<Job> appended = new ArrayList<>();
+        private final List<Job> inserted = new ArrayList<>();
+        private final Set<Long> appendedJobIds = new HashSet<>();
+        private boolean keyed = true;
+
+        private Patch(JobCatalogSnapshot base) {
+            this.base = base;
+            JobColumns columns = base.columns;
+            if (base.ordinalByJobId != null) {
+                this.baseOrdinals = base.ordinalByJobId;
+            } else {
+                this.baseOrdinals = new LongObjectHashMap<>(columns.size());
+                for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+                    keyed &= columns.hasJobId(ordinal) && baseOrdinals.put(columns.getRankingJobId(ordinal), ordinal) == null;
+                }
+            }
+        }
+
+        /**
+         * Diffs the job against the base snapshot. {@code null} is ignored.
+         *
+         * @param job {@link Job}
+         */
+        public void add(Job job) {
+            if (job == null) {
+                return;
+            }
+            Long jobId = job.getJobId();
+            Integer ordinal = jobId == null ? null : baseOrdinals.get(jobId);
+            if (ordinal != null && (ordinal >= base.columns.size() || base.removed.contains(ordinal.intValue()))) {
+                ordinal = null;
+            }
+
+            if (ordinal != null && !seen.contains(ordinal) && !updated.contains(ordinal)) {
+                if (base.columns.sameContent(ordinal, job)) {
+                    seen.add(ordinal);
+                    return;
+                }
+                updated.add(ordinal);
+            } else {
+                keyed &= ordinal == null && jobId != null && appendedJobIds.add(jobId);
+                if (ordinal == null) {
+                    inserted.add(job);
+                }
+            }
+            appended.add(job);
+        }
+
+        /**
+         * @return whether the CORE system returned exactly the jobs of the base snapshot.
+         */
+        public boolean isUnchanged() {
+            return keyed && appended.isEmpty() && seen.getCardinality() == base.size();
+        }
+
+        public int getInserted() {
+            return appended.size() - updated.getCardinality();
+        }
+
+        /**
+         * @return the jobs whose jobId is not in the base snapshot, in payload order.
+         */
+        public List<Job> getInsertedJobs() {
+            return Collections.unmodifiableList(inserted);
+        }
+
+        public int getUpdated() {
+            return updated.getCardinality();
+        }
+
+        public int getRemoved() {
+            return base.size() - seen.getCardinality() - updated.getCardinality();
+        }
+
+        /**
+         * Builds the patched snapshot, or a new one from scratch if compacting is due.
+         *
+         * @param version         Catalog version.
+         * @param loadedAt        Time the jobs were fetched from the CORE system.
+         * @param compactionRatio Largest share of removed and appended ordinals, relative to the jobs in the catalog,
+         *                        kept before building from scratch.
+         * @return JobCatalogSnapshot
+         */
+        public JobCatalogSnapshot build(long version, Instant loadedAt, double compactionRatio) {
+            int baseSize = base.columns.size();
+            RoaringBitmap newlyRemoved = RoaringBitmap.bitmapOfRange(0, baseSize);
+            newlyRemoved.andNot(base.removed);
+            newlyRemoved.andNot(seen);
+            RoaringBitmap removed = RoaringBitmap.or(base.removed, newlyRemoved);
+
+            int carried = removed.getCardinality() + baseSize + appended.size() - base.appendedFrom;
+            if (!keyed || carried > compactionRatio * (seen.getCardinality() + appended.size())) {
+                return compact(version, loadedAt);
+            }
+
+            JobColumns columns = base.columns.append(appended);
+            removed.runOptimize();
+
+            LongObjectHashMap<Integer> ordinalByJobId = baseOrdinals.copy();
+            for (int i = 0; i < appended.size(); i++) {
+                ordinalByJobId.put(appended.get(i).getJobId(), baseSize + i);
+            }
+
+            GeoGridIndex appendedGeoIndex = columns.size() > base.appendedFrom
+                    ? GeoGridIndex.build(columns, base.appendedFrom, columns.size())
+                    : null;
+            return new JobCatalogSnapshot(version, loadedAt, columns, removed, base.geoIndex, appendedGeoIndex,
+                                          base.appendedFrom, base.postingIndex.patch(newlyRemoved, columns, baseSize),
+                                          ordinalByJobId, maxBillRateCents(columns, removed));
+        }
+
+        // Removed and superseded ordinals stay in the columns until compaction: they are left out of the maximum.
+        private static int maxBillRateCents(JobColumns columns, RoaringBitmap removed) {
+            int maxBillRateCents = 0;
+            for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+                int cents = columns.getBillRateCents(ordinal);
+                if (cents > maxBillRateCents && !removed.contains(ordinal)) {
+                    maxBillRateCents = cents;
+                }
+            }
+            return maxBillRateCents;
+        }
+
+        // Unchanged jobs are copied column by column from the base, without being materialized.
+        private JobCatalogSnapshot compact(long version, Instant loadedAt) {
+            JobColumns.Builder columns = JobColumns.builder(seen.getCardinality() + appended.size());
+            seen.forEach((int ordinal) -> columns.add(base.columns, ordinal));
+            appended.forEach(columns::add);
+            return new JobCatalogSnapshot(version, loadedAt, columns.build());
+        }
+    }
+}
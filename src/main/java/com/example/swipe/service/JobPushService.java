@@ -0,0 +1,139 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.service.index.WorkerIndex;
+import com.example.swipe.utility.Logger;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Reverse matching: finds the workers a {@link Job} should be pushed to, without running the job search once per worker.
+ * <br>
+ * The active workers of the {@link WorkerStore} are indexed by a {@link WorkerIndex}, rebuilt on first use after every
+ * load of the store. Every job inserted into the catalog by a delta load (see {@link JobCatalog#addInsertListener}) is
+ * matched against it and handed with its workers to the push listeners. The number of workers per pushed job is
+ * recorded as {@code job.push.workers}.
+ */
+@Service
+public class JobPushService {
+
+    private final WorkerStore workerStore;
+    private final JobCatalog jobCatalog;
+    private final JobSearchEngine jobSearchEngine;
+    private final DistributionSummary pushedWorkers;
+    private final List<BiConsumer<Job, long[]>> pushListeners = new CopyOnWriteArrayList<>();
+    // Incremented on every load of the store; the index is rebuilt when it was built from an older load.
+    private final AtomicLong storeLoads = new AtomicLong();
+    private volatile IndexedWorkers indexedWorkers;
+
+    @Value("${jobPush.minCertificateScore:0}")
+    private double minCertificateScore;
+
+    public JobPushService(WorkerStore workerStore, JobCatalog jobCatalog, JobSearchEngine jobSearchEngine, MeterRegistry meterRegistry) {
+        this.workerStore = workerStore;
+        this.jobCatalog = jobCatalog;
+        this.jobSearchEngine = jobSearchEngine;
+        this.pushedWorkers = DistributionSummary.builder("job.push.workers")
+                .description("Workers a newly posted job is pushed to")
+                .register(meterRegistry);
+        workerStore.addLoadListener(storeLoads::incrementAndGet);
+        jobCatalog.addInsertListener((snapshot, inserted) -> push(inserted));
+    }
+
+    /**
+     * Registers a listener called, on the catalog loading thread, with every newly posted job and the workers it matches.
+     * Jobs matching no worker are not reported.
+     *
+     * @param listener Receives the job and the userIds of its workers, ascending.
+     */
+    public void addPushListener(BiConsumer<Job, long[]> listener) {
+        pushListeners.add(listener);
+    }
+
+    /**
+     * Returns the workers a job of the current catalog matches.
+     *
+     * @param jobId               Referring to {@link Job#jobId}
+     * @param minCertificateScore Share (0...1) of the job's required certificates a worker must hold.
+     * @return userIds of the workers, ascending. Null if the job is not in the catalog.
+     */
+    public long[] findEligibleWorkers(long jobId, double minCertificateScore) {
+        Job job = jobCatalog.getSnapshot().findJob(jobId);
+        return job == null ? null : findEligibleWorkers(job, minCertificateScore);
+    }
+
+    /**
+     * Returns the active workers whose job search would return the job, given a large enough limit.
+     *
+     * @param job                 {@link Job}
+     * @param minCertificateScore Share (0...1) of the job's required certificates a worker must hold.
+     * @return userIds of the workers, ascending.
+     */
+    public long[] findEligibleWorkers(Job job, double minCertificateScore) {
+        return getWorkerIndex().match(job, minCertificateScore);
+    }
+
+    public double getMinCertificateScore() {
+        return minCertificateScore;
+    }
+
+    private void push(List<Job> inserted) {
+        WorkerIndex index = getWorkerIndex();
+        int pushed = 0;
+        for (Job job : inserted) {
+            long[] workers = index.match(job, minCertificateScore);
+            pushedWorkers.record(workers.length);
+            if (workers.length == 0) {
+                continue;
+            }
+            pushed++;
+            Logger.debug(getClass(), "Job {} matches {} workers.", job.getJobId(), workers.length);
+            for (BiConsumer<Job, long[]> listener : pushListeners) {
+                try {
+                    listener.accept(job, workers);
+                } catch (RuntimeException e) {
+                    Logger.error(getClass(), "Push listener failed for job {}.", job.getJobId(), e);
+                }
+            }
+        }
+        Logger.info(getClass(), "Pushed {} of {} newly posted jobs to their workers, out of {} indexed.", pushed, inserted.size(), index.size());
+    }
+
+    private WorkerIndex getWorkerIndex() {
+        IndexedWorkers indexed = indexedWorkers;
+        if (indexed == null || indexed.storeLoad != storeLoads.get()) {
+            synchronized (this) {
+                indexed = indexedWorkers;
+                long storeLoad = storeLoads.get();
+                if (indexed == null || indexed.storeLoad != storeLoad) {
+                    List<Worker> workers = workerStore.getActiveWorkers();
+                    WorkerIndex index = WorkerIndex.build(workers, worker -> jobSearchEngine.toDistanceQuery(worker.getJobSearchAddress()),
+                                                          jobSearchEngine::getAvailableDays);
+                    Logger.info(getClass(), "Indexed {} active workers for reverse matching.", index.size());
+                    indexed = new IndexedWorkers(index, storeLoad);
+                    indexedWorkers = indexed;
+                }
+            }
+        }
+        return indexed.index;
+    }
+
+    private static final class IndexedWorkers {
+
+        private final WorkerIndex index;
+        private final long storeLoad;
+
+        private IndexedWorkers(WorkerIndex index, long storeLoad) {
+            this.index = index;
+            this.storeLoad = storeLoad;
+        }
+    }
+}
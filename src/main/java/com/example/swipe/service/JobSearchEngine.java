@@ -3,29 +3,156 @@ package com.example.swipe.service;
 import com.example.swipe.domain.Job;
 import com.example.swipe.domain.Worker;
 import com.example.swipe.domain.Worker.GeocodePreference;
-import com.example.swipe.domain.common.Coordinates;
-import com.example.swipe.utility.ApplicationUtilities;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.DayMask;
+import com.example.swipe.service.index.JobColumns;
+import com.example.swipe.service.index.SeenJobs;
+import com.example.swipe.service.scoring.JobScorer;
+import com.example.swipe.service.scoring.JobSignals;
+import com.example.swipe.service.scoring.ScoringPlan;
+import com.example.swipe.service.scoring.ScoringRequest;
+import com.example.swipe.utility.DistanceFormula;
+import com.example.swipe.utility.DistanceQuery;
 import com.example.swipe.utility.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 /**
  * Search engine service responsible to find the matching {@link Job}s for a {@link Worker}.
+ * <br>
+ * Each search records the time of its stages as {@code job.search.stage} and the number of jobs left after each filter
+ * as {@code job.search.jobs}, both tagged {@code stage}. Tags never carry a worker or job id.
+ * <br>
+ * Jobs are ranked on a {@link ScoringPlan} compiled from the {@code jobScoring.*} weights, which can be replaced with
+ * {@link #setScoringPlan(ScoringPlan)} to plug in other signals.
  */
 @Service
 public class JobSearchEngine {
 
     @Autowired
-    private JobService jobService;
+    private JobCatalog jobCatalog;
+    // Optional, so that the engine can be used without the swipes.
+    @Autowired(required = false)
+    private SwipeStore swipeStore;
+
+    @Value("${jobSearch.distanceFormula:HAVERSINE}")
+    private DistanceFormula distanceFormula;
+    @Value("${jobSearch.equirectangularMaxRadiusKm:100}")
+    private double equirectangularMaxRadiusKm;
+    @Value("${jobSearch.parallelThreshold:100000}")
+    private int parallelThreshold;
+    @Value("${jobSearch.parallelChunkSize:16384}")
+    private int parallelChunkSize;
+    @Value("${jobSearch.parallelism:0}")
+    private int parallelism;
+    @Value("${jobSearch.matchAvailability:true}")
+    private boolean matchAvailability;
+    @Value("${jobScoring.certificateWeight:1}")
+    private double certificateWeight;
+    @Value("${jobScoring.distanceWeight:0}")
+    private double distanceWeight;
+    @Value("${jobScoring.billRateWeight:0}")
+    private double billRateWeight;
+    @Value("${jobScoring.skillWeight:0}")
+    private double skillWeight;
+    @Value("${jobScoring.startTimeWeight:0}")
+    private double startTimeWeight;
+    @Value("${jobScoring.startTimeHorizonHours:168}")
+    private long startTimeHorizonHours;
+
+    private volatile ScoringPlan scoringPlan = ScoringPlan.certificatesOnly();
+
+    // Dedicated pool of the parallel scan, created on first use so that small catalogs never start it.
+    private volatile ForkJoinPool pool;
+
+    private final Timer candidatesTimer;
+    private final Timer certificatesTimer;
+    private final Timer scanTimer;
+    private final Timer materializeTimer;
+    private final DistributionSummary workersRequiredJobs;
+    private final DistributionSummary driverLicenseJobs;
+    private final DistributionSummary availabilityJobs;
+    private final DistributionSummary geoCellJobs;
+    private final DistributionSummary distanceJobs;
+    private final DistributionSummary resultJobs;
+    private final Counter jobsWithoutLocation;
+    private final Counter swipedJobs;
+    private final Clock clock;
+
+    @Autowired
+    public JobSearchEngine(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC());
+    }
+
+    JobSearchEngine(MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        this.candidatesTimer = stageTimer(meterRegistry, "candidates");
+        this.certificatesTimer = stageTimer(meterRegistry, "certificates");
+        this.scanTimer = stageTimer(meterRegistry, "scan");
+        this.materializeTimer = stageTimer(meterRegistry, "materialize");
+        this.workersRequiredJobs = stageJobs(meterRegistry, "workers_required");
+        this.driverLicenseJobs = stageJobs(meterRegistry, "driver_license");
+        this.availabilityJobs = stageJobs(meterRegistry, "availability");
+        this.geoCellJobs = stageJobs(meterRegistry, "geo_cells");
+        this.distanceJobs = stageJobs(meterRegistry, "distance");
+        this.resultJobs = stageJobs(meterRegistry, "results");
+        this.jobsWithoutLocation = Counter.builder("job.search.anomalies")
+                .description("Jobs ranked by a fallback rule instead of being matched")
+                .tag("reason", "no_location")
+                .register(meterRegistry);
+        this.swipedJobs = Counter.builder("job.search.swiped")
+                .description("Jobs left out of the results because the worker already swiped them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compiles the scoring plan from the {@code jobScoring.*} weights. Signals of weight 0 are left out.
+     */
+    @PostConstruct
+    void compileScoringPlan() {
+        setScoringPlan(ScoringPlan.builder()
+                .add(JobSignals.certificates(), certificateWeight)
+                .add(JobSignals.distance(), distanceWeight)
+                .add(JobSignals.billRate(), billRateWeight)
+                .add(JobSignals.skills(), skillWeight)
+                .add(JobSignals.startTime(Duration.ofHours(startTimeHorizonHours)), startTimeWeight)
+                .build());
+    }
+
+    public ScoringPlan getScoringPlan() {
+        return scoringPlan;
+    }
+
+    /**
+     * Replaces the plan the jobs are ranked on. Searches already running keep the previous one.
+     *
+     * @param scoringPlan {@link ScoringPlan}
+     */
+    public void setScoringPlan(ScoringPlan scoringPlan) {
+        this.scoringPlan = scoringPlan;
+        Logger.info(getClass(), "Ranking jobs on score {}.", scoringPlan);
+    }
 
     /**
      * Returns the best possible matching {@link Job}s for given {@link Worker}.
@@ -33,10 +160,13 @@ public class JobSearchEngine {
      * Matching Criteria:
      * <br> 1. Remove the jobs where workersRequired is 0.
      * <br> 2. Compare the driver license requirement.
-     * <br> 3. Perform the Geocode matching. Calculate the distance between job & worker coordinates and validate it against maxJobDistance.
-     * <br> 4. Look for certificate matching (score based).
+     * <br> 3. Remove the jobs starting on a day the worker is not available (jobs without start time are kept).
+     * <br> 4. Perform the Geocode matching. Calculate the distance between job & worker coordinates and validate it against maxJobDistance.
+     * <br> 5. Score the jobs on the {@link ScoringPlan}, certificate matching by default.
+     * <br> 6. Remove the jobs the worker already swiped, see {@link SwipeStore}.
      * <br>
-     * Finally, returns the number of best matching jobs based on the limit and search score.
+     * Finally, returns the number of best matching jobs based on the limit and search score. Jobs with the same score are ordered by distance,
+     * then by jobId.
      *
      * @param worker {@link Worker}
      * @param limit  To restrict the result count.
@@ -47,81 +177,278 @@ public class JobSearchEngine {
             Logger.warn(getClass(), "Worker is null. Returning empty list.");
             return Collections.emptyList();
         }
+        return findMatchingJobsForWorker(jobCatalog.getSnapshot(), worker, limit);
+    }
+
+    /**
+     * Same as {@link #findMatchingJobsForWorker(Worker, int)} against the given snapshot, so that a batch of workers is
+     * matched against one consistent catalog.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     * @param worker   {@link Worker}
+     * @param limit    To restrict the result count.
+     * @return
+     */
+    public List<Job> findMatchingJobsForWorker(JobCatalogSnapshot snapshot, Worker worker, int limit) {
+        int[] ranked = findMatchingOrdinals(snapshot, worker, limit);
+        long materializeStart = System.nanoTime();
+        List<Job> result = new ArrayList<>(ranked.length);
+        for (int ordinal : ranked) {
+            result.add(snapshot.getJob(ordinal));
+        }
+        materializeTimer.record(System.nanoTime() - materializeStart, TimeUnit.NANOSECONDS);
+        return result;
+    }
 
-        List<Job> jobs = jobService.getJobs();
-        if (CollectionUtils.isEmpty(jobs)) {
+    /**
+     * Same as {@link #findMatchingJobsForWorker(JobCatalogSnapshot, Worker, int)}, returning the ordinals of the jobs in
+     * the snapshot instead of the jobs, so that callers can materialize them later.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     * @param worker   {@link Worker}
+     * @param limit    To restrict the result count.
+     * @return ranked ordinals, best first.
+     */
+    public int[] findMatchingOrdinals(JobCatalogSnapshot snapshot, Worker worker, int limit) {
+        if (worker == null) {
+            Logger.warn(getClass(), "Worker is null. Returning empty list.");
+            return new int[0];
+        }
+
+        if (snapshot.size() == 0) {
             Logger.warn(getClass(), "No active jobs found to perform the match for worker {}.", worker.getUserId());
-            return Collections.emptyList();
+            return new int[0];
         }
 
         // 1. Remove the jobs where workersRequired is 0.
         // 2. Compare the driver license requirement.
-        // 3. Perform the Geocode matching. Calculate the distance between job & worker coordinates and validate it against maxJobDistance.
-        List<Job> matchingJobs = jobs.stream()
-                .filter(j -> j.getWorkersRequired() > 0)
-                .filter(j -> !j.getDriverLicenseRequired() || Objects.equals(worker.getHasDriverLicense(), j.getDriverLicenseRequired()))
-                .filter(j -> matchJobSearchCriteria(j.getLocation(), worker.getJobSearchAddress()))
-                .collect(Collectors.toList());
-
-        Logger.debug(getClass(), "Found {} matching jobs after initial filtering for worker {}.", matchingJobs.size(), worker.getUserId());
-
-        // Match the required certificates.
-        if (!CollectionUtils.isEmpty(worker.getCertificates())) {
-            Logger.debug(getClass(), "Matching required certificates from worker certificates {}.", worker.getCertificates());
-            Map<Job, Double> jobCertificatesScore = matchingJobs.stream()
-                    .collect(Collectors.toMap(Function.identity(),
-                                              job -> getCertificateScore(job.getRequiredCertificates(), worker.getCertificates())));
-            matchingJobs = jobCertificatesScore.entrySet()
-                    .stream()
-                    .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+        // 3. Remove the jobs starting on a day the worker is not available.
+        // These filters, and the grid cells around the worker's preferred location, are posting lists of the snapshot: the
+        // candidates are their intersection, computed before any job is looked at.
+        long start = System.nanoTime();
+        boolean hasDriverLicense = Boolean.TRUE.equals(worker.getHasDriverLicense());
+        int availableDays = getAvailableDays(worker);
+        DistanceQuery distanceQuery = toDistanceQuery(worker.getJobSearchAddress());
+        RoaringBitmap candidates = snapshot.getCandidates(distanceQuery, hasDriverLicense, availableDays);
+        candidatesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        workersRequiredJobs.record(snapshot.countOpen(true));
+        driverLicenseJobs.record(snapshot.countOpen(hasDriverLicense));
+        availabilityJobs.record(snapshot.countOpen(hasDriverLicense, availableDays));
+        geoCellJobs.record(candidates.getCardinality());
+        Logger.debug(getClass(), "Found {} candidate jobs out of {} for worker {}.", candidates.getCardinality(), snapshot.size(), worker.getUserId());
+
+        // Only the best `limit` jobs are retained while scanning, ranked by score, then distance, then jobId.
+        JobTopK topK = new JobTopK(Math.min(limit, candidates.getCardinality()));
+        int matchingJobs = 0;
+        // Whether every candidate went through the distance filter, i.e. matchingJobs counts all the jobs in range.
+        boolean scannedAll = true;
+        ScoringPlan plan = scoringPlan;
+        ScoringRequest request = new ScoringRequest(worker, getCertificateBits(worker), distanceQuery, clock.instant(), snapshot.getMaxBillRateCents());
+        // 6. Remove the swiped jobs. Only the jobs that would be retained are looked up, so the other candidates cost nothing.
+        SeenJobs seenJobs = swipeStore != null && worker.getUserId() != null ? swipeStore.getSeenJobs(worker.getUserId()) : null;
+
+        // 5. Score the jobs. On certificates alone, only the jobs requiring one of the worker's certificates can score
+        // above 0, so they are ranked first. The remaining candidates all score 0 and are only scanned if the top jobs
+        // are not filled yet. Any other plan scores every candidate.
+        if (plan.isCertificatesOnly()) {
+            if (!CollectionUtils.isEmpty(worker.getCertificates())) {
+                Logger.debug(getClass(), "Matching required certificates from worker certificates {}.", worker.getCertificates());
+                long certificatesStart = System.nanoTime();
+                RoaringBitmap scored = RoaringBitmap.and(candidates, snapshot.getJobsRequiringAnyCertificate(request.getWorkerCertificates()));
+                matchingJobs += collect(snapshot, scored, distanceQuery, plan.prepare(request), seenJobs, topK);
+                candidates.andNot(scored);
+                certificatesTimer.record(System.nanoTime() - certificatesStart, TimeUnit.NANOSECONDS);
+            }
+            if (!topK.isFull()) {
+                long scanStart = System.nanoTime();
+                matchingJobs += collect(snapshot, candidates, distanceQuery, JobScorer.ZERO, seenJobs, topK);
+                scanTimer.record(System.nanoTime() - scanStart, TimeUnit.NANOSECONDS);
+            } else {
+                scannedAll = candidates.isEmpty();
+            }
+        } else {
+            long scanStart = System.nanoTime();
+            matchingJobs += collect(snapshot, candidates, distanceQuery, plan.prepare(request), seenJobs, topK);
+            scanTimer.record(System.nanoTime() - scanStart, TimeUnit.NANOSECONDS);
+        }
+        if (scannedAll) {
+            distanceJobs.record(matchingJobs);
+            Logger.info(getClass(), "Ranked {} matching jobs after all the filtering for worker {}.", matchingJobs, worker.getUserId());
+        } else {
+            Logger.info(getClass(), "Ranked {} matching jobs requiring the worker's certificates for worker {}. The other candidates were skipped.",
+                        matchingJobs, worker.getUserId());
         }
-        Logger.info(getClass(), "Total {} matching jobs after all the filtering for worker {}.", matchingJobs.size(), worker.getUserId());
 
-        return matchingJobs.stream().limit(limit).collect(Collectors.toList());
+        int[] ranked = topK.toRankedOrdinals();
+        resultJobs.record(ranked.length);
+        return ranked;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
     }
 
     /**
-     * Check the distance between Job & Worker preferred coordinates. Return TRUE only if the distance is within the range specified in Workers
-     * search preference.
+     * 4. Perform the Geocode matching on the candidates and offers the jobs in range to the top jobs.
      * <br>
-     * Assumption: if job search preference is not provided by a worker, this will return TRUE assuming worker has no address preference.
+     * Beyond {@code jobSearch.parallelThreshold} candidates, the scan is split into chunks of
+     * {@code jobSearch.parallelChunkSize} candidates, matched in parallel on a dedicated {@link ForkJoinPool} of
+     * {@code jobSearch.parallelism} threads. Each chunk keeps its own top jobs, which are merged at the end: the result
+     * is the same as the sequential scan.
+     *
+     * @param snapshot           Snapshot the candidates are ordinals of.
+     * @param candidates         Ordinals of the jobs to check.
+     * @param distanceQuery      {@link DistanceQuery} prepared from {@link Worker#jobSearchAddress}. Null if there is no preference.
+     * @param scorer             {@link JobScorer} of the search.
+     * @param seenJobs           Jobs the worker swiped, left out. Null if none.
+     * @param topK               Receives the matching jobs.
+     * @return number of matching jobs.
+     */
+    private int collect(JobCatalogSnapshot snapshot, RoaringBitmap candidates, DistanceQuery distanceQuery, JobScorer scorer, SeenJobs seenJobs, JobTopK topK) {
+        JobColumns jobs = snapshot.getColumns();
+        int cardinality = candidates.getCardinality();
+        int chunkSize = Math.max(parallelChunkSize, 1);
+        if (cardinality < parallelThreshold || cardinality <= chunkSize || getParallelism() < 2) {
+            return scan(jobs, candidates.getIntIterator(), cardinality, distanceQuery, scorer, seenJobs, topK);
+        }
+
+        int chunks = (cardinality + chunkSize - 1) / chunkSize;
+        JobTopK[] chunkTopK = new JobTopK[chunks];
+        int[] chunkMatchingJobs = new int[chunks];
+        getPool().submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * chunkSize;
+            PeekableIntIterator ordinals = candidates.getIntIterator();
+            ordinals.advanceIfNeeded(candidates.select(from));
+            chunkTopK[chunk] = new JobTopK(topK.capacity());
+            chunkMatchingJobs[chunk] = scan(jobs, ordinals, Math.min(chunkSize, cardinality - from), distanceQuery, scorer, seenJobs, chunkTopK[chunk]);
+        })).join();
+
+        int matchingJobs = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            topK.addAll(chunkTopK[chunk]);
+            matchingJobs += chunkMatchingJobs[chunk];
+        }
+        return matchingJobs;
+    }
+
+    private int scan(JobColumns jobs, IntIterator ordinals, int count, DistanceQuery distanceQuery, JobScorer scorer, SeenJobs seenJobs, JobTopK topK) {
+        // Only the matching columns are read here: jobs are materialized for the final top jobs only.
+        int matchingJobs = 0;
+        for (int i = 0; i < count && ordinals.hasNext(); i++) {
+            int ordinal = ordinals.next();
+            double distance = matchJobSearchCriteria(jobs, ordinal, distanceQuery);
+            if (Double.isNaN(distance)) {
+                continue;
+            }
+            matchingJobs++;
+            double score = scorer.score(jobs, ordinal, distance);
+            long jobId = jobs.getRankingJobId(ordinal);
+            if (seenJobs != null && topK.accepts(score, distance, jobId) && seenJobs.contains(jobId)) {
+                swipedJobs.increment();
+                continue;
+            }
+            topK.offer(ordinal, score, distance, jobId);
+        }
+        return matchingJobs;
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("job.search.stage")
+                .description("Time taken by a stage of the job search")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary stageJobs(MeterRegistry meterRegistry, String stage) {
+        return DistributionSummary.builder("job.search.jobs")
+                .description("Jobs left after a stage of the job search")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private int getParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private ForkJoinPool getPool() {
+        ForkJoinPool existing = pool;
+        if (existing == null) {
+            synchronized (this) {
+                existing = pool;
+                if (existing == null) {
+                    existing = new ForkJoinPool(getParallelism());
+                    pool = existing;
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Days the worker can start a job on, every day when availability matching is disabled.
      *
-     * @param jobCoordinates   {@link Coordinates}. Referring to {@link Job#location}
-     * @param workerPreference {@link Coordinates}. Referring to {@link Worker#jobSearchAddress}
+     * @param worker {@link Worker}
+     * @return {@link DayMask}
+     */
+    int getAvailableDays(Worker worker) {
+        return matchAvailability ? DayMask.of(worker.getAvailability()) : DayMask.ALL;
+    }
+
+    /**
+     * Prepares the distance check of the worker's preference: unit resolved once, coordinates converted to radians once
+     * and the formula selected from the radius. Returns null when the preference is incomplete, in which case no job is
+     * filtered out by distance.
+     *
+     * @param workerPreference {@link GeocodePreference}. Referring to {@link Worker#jobSearchAddress}
      * @return
      */
-    private boolean matchJobSearchCriteria(Coordinates jobCoordinates, GeocodePreference workerPreference) {
-        try {
-            double distance = ApplicationUtilities.distance(jobCoordinates, workerPreference, workerPreference.getUnit());
-            Logger.debug(getClass(), "Job coordinates {} & Worker preference {}. Distance {}.", jobCoordinates, workerPreference, distance);
-            return distance < workerPreference.getMaxJobDistance();
-
-        } catch (Exception e) {
-            Logger.error(getClass(),
-                         "Exception occurred while calculating distance between Job coordinates {} & Worker preference {}.",
-                         jobCoordinates,
-                         workerPreference,
-                         e);
+    DistanceQuery toDistanceQuery(GeocodePreference workerPreference) {
+        if (workerPreference == null || workerPreference.getMaxJobDistance() == null || workerPreference.getUnit() == null) {
+            return null;
         }
-        // TODO revisit...
-        return true;
+        DistanceUnit unit = DistanceUnit.of(workerPreference.getUnit());
+        double maxJobDistance = workerPreference.getMaxJobDistance();
+        DistanceFormula formula = distanceFormula == DistanceFormula.EQUIRECTANGULAR && unit.toKilometers(maxJobDistance) <= equirectangularMaxRadiusKm
+                ? DistanceFormula.EQUIRECTANGULAR
+                : DistanceFormula.HAVERSINE;
+        return DistanceQuery.of(workerPreference, maxJobDistance, unit, formula);
     }
 
     /**
-     * Compares the certificates details between the {@link Job} & {@link Worker}.
+     * Check the distance between Job & Worker preferred coordinates. Return the distance only if it is within the range specified in Workers
+     * search preference, NaN otherwise.
      * <br>
-     * Current implementation is based on scoring (0...1). Score is 1, only if Worker has all the required certificates for a particular Job.
+     * Assumption: if job search preference is not provided by a worker, this will return 0 assuming worker has no address preference. A job
+     * without location is kept, ranked as the farthest.
      *
-     * @param jobRequiredCerts List of String. Referring to {@link Job#requiredCertificates}
-     * @param workerCerts      List of String. Referring to {@link Worker#certificates}
+     * @param jobs          {@link JobColumns} holding {@link Job#location}.
+     * @param ordinal       Job ordinal.
+     * @param distanceQuery {@link DistanceQuery} prepared from {@link Worker#jobSearchAddress}. Null if there is no preference.
      * @return
      */
-    private double getCertificateScore(List<String> jobRequiredCerts, List<String> workerCerts) {
-        if (CollectionUtils.isEmpty(jobRequiredCerts) || CollectionUtils.isEmpty(workerCerts)) {
+    private double matchJobSearchCriteria(JobColumns jobs, int ordinal, DistanceQuery distanceQuery) {
+        if (distanceQuery == null) {
             return 0;
         }
-        return ((double) jobRequiredCerts.stream().filter(workerCerts::contains).count()) / (double) jobRequiredCerts.size();
+        if (!jobs.hasLocation(ordinal)) {
+            Logger.debug(getClass(), "Job {} has no coordinates. Ranked as the farthest.", ordinal);
+            jobsWithoutLocation.increment();
+            return Double.POSITIVE_INFINITY;
+        }
+        return distanceQuery.distanceIfContains(jobs.getLatitude(ordinal), jobs.getLongitude(ordinal));
+    }
+
+    /**
+     * Returns the certificate bitset of the worker, encoding it if the worker did not come through {@link WorkerStore}.
+     *
+     * @param worker {@link Worker}
+     * @return
+     */
+    private long[] getCertificateBits(Worker worker) {
+        long[] bits = worker.getCertificateBits();
+        return bits != null ? bits : CertificateDictionary.getInstance().encode(worker.getCertificates());
     }
 }
@@ -1,20 +1,39 @@
 package com.example.swipe.service;
 
 import com.example.swipe.domain.Job;
+import com.example.swipe.utility.CountingInputStream;
+import com.example.swipe.utility.JsonArrayReader;
 import com.example.swipe.utility.Logger;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service implementation to perform {@link Job} related operations.
+ * <br>
+ * The /jobs payload is streamed: each job is bound and handed over as soon as it is read, without buffering the
+ * response body. With {@code jobCatalog.skipAbout} the {@link Job#about} text, which the matching never uses, is skipped
+ * by the parser instead of being kept in memory.
+ * <br>
+ * Every fetch is recorded by {@link CoreFetchMetrics}.
  */
 @Service
 public class JobService {
@@ -22,22 +41,109 @@ public class JobService {
     private static final String JOB_ENDPOINT = "/jobs";
 
     private final RestTemplate restTemplate;
+    private final ObjectReader jobReader;
+    private final CoreFetchMetrics fetchMetrics;
 
     @Value("${swipeJobServer}")
     private String swipeJobServer;
 
-    public JobService(RestTemplate restTemplate) {
+    public JobService(RestTemplate restTemplate,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry,
+                      @Value("${jobCatalog.skipAbout:false}") boolean skipAbout) {
         this.restTemplate = restTemplate;
+        this.fetchMetrics = new CoreFetchMetrics(meterRegistry, JOB_ENDPOINT);
+        this.jobReader = (skipAbout ? objectMapper.copy().addMixIn(Job.class, SkipAboutMixIn.class) : objectMapper).readerFor(Job.class);
     }
 
     public List<Job> getJobs() {
-        ResponseEntity<Job[]> response = restTemplate.getForEntity(swipeJobServer + JOB_ENDPOINT, Job[].class);
+        List<Job> jobs = new ArrayList<>();
+        forEachJob(jobs::add);
+        return jobs.isEmpty() ? Collections.emptyList() : jobs;
+    }
+
+    /**
+     * Streams the jobs of the CORE system to the consumer, in payload order.
+     *
+     * @param consumer Receives each {@link Job} as soon as it is read.
+     * @return number of jobs read. 0 if the CORE system did not answer with 200.
+     */
+    public int forEachJob(Consumer<Job> consumer) {
+        return forEachJobIfModified(null, null, consumer).getCount();
+    }
+
+    /**
+     * Conditional variant of {@link #forEachJob(Consumer)}: the validators of the previous response are sent as
+     * If-None-Match and If-Modified-Since, and nothing is read if the CORE system answers 304 Not Modified.
+     *
+     * @param eTag         ETag of the previous response. Null if unknown.
+     * @param lastModified Last-Modified of the previous response. Null if unknown.
+     * @param consumer     Receives each {@link Job} as soon as it is read.
+     * @return {@link ConditionalFetch}
+     */
+    public ConditionalFetch forEachJobIfModified(String eTag, String lastModified, Consumer<Job> consumer) {
+        Timer.Sample sample = fetchMetrics.start();
+        ConditionalFetch fetch;
+        try {
+            fetch = restTemplate.execute(swipeJobServer + JOB_ENDPOINT,
+                                         HttpMethod.GET,
+                                         request -> {
+                                             HttpHeaders headers = request.getHeaders();
+                                             headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+                                             if (eTag != null) {
+                                                 headers.set(HttpHeaders.IF_NONE_MATCH, eTag);
+                                             }
+                                             if (lastModified != null) {
+                                                 headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+                                             }
+                                         },
+                                         response -> {
+                                             if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                                                 fetchMetrics.record(sample, CoreFetchMetrics.NOT_MODIFIED, 0, 0);
+                                                 return new ConditionalFetch(false, 0, eTag, lastModified);
+                                             }
+                                             if (response.getStatusCode() != HttpStatus.OK) {
+                                                 Logger.warn(getClass(), "GET /jobs API response code {}. No job read.", response.getStatusCode());
+                                                 fetchMetrics.record(sample, CoreFetchMetrics.HTTP_ERROR, 0, 0);
+                                                 return new ConditionalFetch(true, 0, null, null);
+                                             }
+                                             CountingInputStream body = new CountingInputStream(response.getBody());
+                                             int count = JsonArrayReader.forEach(jobReader, body, consumer);
+                                             fetchMetrics.record(sample, CoreFetchMetrics.OK, count, body.getCount());
+                                             HttpHeaders headers = response.getHeaders();
+                                             return new ConditionalFetch(true, count, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                                         });
+        } catch (RuntimeException e) {
+            fetchMetrics.record(sample, CoreFetchMetrics.EXCEPTION, 0, 0);
+            throw e;
+        }
+
+        Logger.debug(getClass(), "GET /jobs API returned {}.", fetch);
 
-        Logger.debug(getClass(), "GET /workers API response code {} w/ body {}.", response.getStatusCode(), response.getBody());
+        return fetch == null ? new ConditionalFetch(true, 0, null, null) : fetch;
+    }
+
+    /**
+     * Outcome of {@link #forEachJobIfModified(String, String, Consumer)}.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class ConditionalFetch {
+
+        /**
+         * False if the CORE system answered 304 Not Modified.
+         */
+        private final boolean modified;
+        private final int count;
+        /**
+         * Validators to send with the next request. Null if the CORE system does not provide them.
+         */
+        private final String eTag;
+        private final String lastModified;
+    }
 
-        return Optional.of(response)
-                .filter(res -> res.getStatusCode() == HttpStatus.OK && res.getBody() != null)
-                .map(res -> Arrays.asList(res.getBody()))
-                .orElse(Collections.emptyList());
+    @JsonIgnoreProperties(value = "about", ignoreUnknown = true)
+    private abstract static class SkipAboutMixIn {
     }
 }
@@ -0,0 +1,171 @@
+package com.example.swipe.service;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the K best ranked jobs seen so far, without collecting or sorting the other candidates.
+ * <br>
+ * Jobs rank by score (highest first), then distance to the worker (closest first), then jobId (lowest first), so the
+ * order is fully deterministic. Entries are held in parallel primitive arrays organised as a binary heap whose root is
+ * the worst retained job: offering a candidate is O(log K) and a candidate worse than the root is rejected in O(1).
+ */
+public final class JobTopK {
+
+    private final int capacity;
+    private final int[] ordinals;
+    private final double[] scores;
+    private final double[] distances;
+    private final long[] jobIds;
+    private int size;
+
+    /**
+     * @param capacity Number of jobs to keep. Zero or negative keeps nothing.
+     */
+    public JobTopK(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.ordinals = new int[this.capacity];
+        this.scores = new double[this.capacity];
+        this.distances = new double[this.capacity];
+        this.jobIds = new long[this.capacity];
+    }
+
+    /**
+     * Offers a candidate.
+     *
+     * @param ordinal  Position of the job in the catalog snapshot.
+     * @param score    Ranking score, higher is better.
+     * @param distance Distance to the worker, lower is better.
+     * @param jobId    Job id, lower wins the remaining ties.
+     * @return TRUE if the candidate is retained (for now).
+     */
+    public boolean offer(int ordinal, double score, double distance, long jobId) {
+        if (size < capacity) {
+            set(size, ordinal, score, distance, jobId);
+            siftUp(size++);
+            return true;
+        }
+        if (capacity == 0 || !isBetter(score, distance, jobId, 0)) {
+            return false;
+        }
+        set(0, ordinal, score, distance, jobId);
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Whether {@link #offer} would retain the candidate, without retaining it.
+     *
+     * @param score    Ranking score, higher is better.
+     * @param distance Distance to the worker, lower is better.
+     * @param jobId    Job id, lower wins the remaining ties.
+     * @return
+     */
+    public boolean accepts(double score, double distance, long jobId) {
+        return size < capacity || (capacity > 0 && isBetter(score, distance, jobId, 0));
+    }
+
+    /**
+     * Offers all the jobs retained by another selector, e.g. one filled by a different thread.
+     *
+     * @param other {@link JobTopK}
+     */
+    public void addAll(JobTopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ordinals[i], other.scores[i], other.distances[i], other.jobIds[i]);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Returns the ordinals of the retained jobs, best first.
+     *
+     * @return ordinals.
+     */
+    public int[] toRankedOrdinals() {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, (a, b) -> isBetter(scores[a], distances[a], jobIds[a], b) ? -1 : (isBetter(scores[b], distances[b], jobIds[b], a) ? 1 : 0));
+
+        int[] ranked = new int[size];
+        for (int i = 0; i < size; i++) {
+            ranked[i] = ordinals[slots[i]];
+        }
+        return ranked;
+    }
+
+    private boolean isBetter(double score, double distance, long jobId, int slot) {
+        int byScore = Double.compare(score, scores[slot]);
+        if (byScore != 0) {
+            return byScore > 0;
+        }
+        int byDistance = Double.compare(distance, distances[slot]);
+        if (byDistance != 0) {
+            return byDistance < 0;
+        }
+        return jobId < jobIds[slot];
+    }
+
+    private boolean isBetter(int slot, int other) {
+        return isBetter(scores[slot], distances[slot], jobIds[slot], other);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            // The worst job must stay at the root: stop once the parent is worse than the child.
+            if (!isBetter(parent, slot)) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int worst = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && isBetter(worst, left)) {
+                worst = left;
+            }
+            if (right < size && isBetter(worst, right)) {
+                worst = right;
+            }
+            if (worst == slot) {
+                return;
+            }
+            swap(slot, worst);
+            slot = worst;
+        }
+    }
+
+    private void set(int slot, int ordinal, double score, double distance, long jobId) {
+        ordinals[slot] = ordinal;
+        scores[slot] = score;
+        distances[slot] = distance;
+        jobIds[slot] = jobId;
+    }
+
+    private void swap(int a, int b) {
+        int ordinal = ordinals[a];
+        double score = scores[a];
+        double distance = distances[a];
+        long jobId = jobIds[a];
+        set(a, ordinals[b], scores[b], distances[b], jobIds[b]);
+        set(b, ordinal, score, distance, jobId);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.Worker.GeocodePreference;
+import com.example.swipe.service.index.DayMask;
+import com.example.swipe.service.index.SeenJobs;
+import com.example.swipe.service.scoring.ScoringPlan;
+import com.example.swipe.utility.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Caches the ranked result of {@link JobSearchEngine#findMatchingJobsForWorker} so that a worker refreshing the same
+ * screen does not rerun the search.
+ * <br>
+ * The key is a hash of the {@link Worker} fields the search depends on (driver license, job search address,
+ * availability, certificates and skills), the requested limit, the {@link ScoringPlan} in place and the version of the
+ * {@link JobCatalogSnapshot} it was computed against. Two workers with the same profile share an entry, unless they
+ * swiped jobs: their entries are then their own, keyed by the number of jobs they swiped so that a new swipe misses them.
+ * The cache is bounded by {@code recommendationCache.maximumSize}, with Caffeine's W-TinyLFU admission, and entries
+ * expire after {@code recommendationCache.expireAfterWriteMillis}. Since the key pins the catalog version, entries of
+ * older snapshots can never be hit again: they are dropped as soon as a new snapshot is installed.
+ */
+@Service
+public class RecommendationCache {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JobCatalog jobCatalog;
+    private final JobSearchEngine jobSearchEngine;
+    private final SwipeStore swipeStore;
+    private final Cache<Key, List<Job>> cache;
+
+    @Autowired
+    public RecommendationCache(JobCatalog jobCatalog,
+                               JobSearchEngine jobSearchEngine,
+                               SwipeStore swipeStore,
+                               MeterRegistry meterRegistry,
+                               @Value("${recommendationCache.maximumSize:100000}") long maximumSize,
+                               @Value("${recommendationCache.expireAfterWriteMillis:600000}") long expireAfterWriteMillis) {
+        this.jobCatalog = jobCatalog;
+        this.jobSearchEngine = jobSearchEngine;
+        this.swipeStore = swipeStore;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+        jobCatalog.addSnapshotListener(snapshot -> invalidateAll());
+    }
+
+    /**
+     * Returns the best matching {@link Job}s of the worker against the current snapshot, from the cache if the same
+     * profile was already searched with this snapshot.
+     *
+     * @param worker {@link Worker}
+     * @param limit  To restrict the result count.
+     * @return
+     */
+    public List<Job> findMatchingJobsForWorker(Worker worker, int limit) {
+        return findMatchingJobsForWorker(jobCatalog.getSnapshot(), worker, limit);
+    }
+
+    /**
+     * Same as {@link #findMatchingJobsForWorker(Worker, int)} against the given snapshot.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     * @param worker   {@link Worker}
+     * @param limit    To restrict the result count.
+     * @return
+     */
+    public List<Job> findMatchingJobsForWorker(JobCatalogSnapshot snapshot, Worker worker, int limit) {
+        if (worker == null) {
+            return jobSearchEngine.findMatchingJobsForWorker(snapshot, null, limit);
+        }
+        SeenJobs seenJobs = worker.getUserId() == null ? null : swipeStore.getSeenJobs(worker.getUserId());
+        Key key = seenJobs == null
+                ? new Key(snapshot.getVersion(), jobSearchEngine.getScoringPlan(), profileHash(worker), limit, null, 0)
+                : new Key(snapshot.getVersion(), jobSearchEngine.getScoringPlan(), profileHash(worker), limit, worker.getUserId(), seenJobs.size());
+        return cache.get(key, k -> Collections.unmodifiableList(new ArrayList<>(jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, limit))));
+    }
+
+    public void invalidateAll() {
+        Logger.debug(getClass(), "Invalidating {} cached recommendations.", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the fields {@link JobSearchEngine} matches on. Certificates and skills are hashed in sorted
+     * order since the score does not depend on it.
+     *
+     * @param worker {@link Worker}
+     * @return
+     */
+    static long profileHash(Worker worker) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, Boolean.TRUE.equals(worker.getHasDriverLicense()) ? 1 : 0);
+        hash = mix(hash, DayMask.of(worker.getAvailability()));
+
+        GeocodePreference address = worker.getJobSearchAddress();
+        if (address == null) {
+            hash = mix(hash, 0);
+        } else {
+            hash = mix(hash, 1);
+            hash = mix(hash, Double.doubleToLongBits(address.getLatitude()));
+            hash = mix(hash, Double.doubleToLongBits(address.getLongitude()));
+            hash = mix(hash, address.getMaxJobDistance() == null ? -1 : address.getMaxJobDistance());
+            hash = mix(hash, address.getUnit());
+        }
+
+        List<String> certificates = worker.getCertificates() == null ? Collections.emptyList() : new ArrayList<>(worker.getCertificates());
+        certificates.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        hash = mix(hash, certificates.size());
+        for (String certificate : certificates) {
+            hash = mix(hash, certificate);
+        }
+
+        List<String> skills = worker.getSkills() == null ? Collections.emptyList() : new ArrayList<>(worker.getSkills());
+        skills.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+        hash = mix(hash, skills.size());
+        for (String skill : skills) {
+            hash = mix(hash, skill);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1);
+        }
+        hash = mix(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @EqualsAndHashCode
+    @ToString
+    private static final class Key {
+
+        private final long catalogVersion;
+        // Compared by identity: replacing the plan misses every entry computed on the previous one.
+        private final ScoringPlan scoringPlan;
+        private final long profileHash;
+        private final int limit;
+        // Worker who swiped jobs, null if the entry is shared by the profile.
+        private final Long swipedBy;
+        private final int swipedJobs;
+
+        private Key(long catalogVersion, ScoringPlan scoringPlan, long profileHash, int limit, Long swipedBy, int swipedJobs) {
+            this.catalogVersion = catalogVersion;
+            this.scoringPlan = scoringPlan;
+            this.profileHash = profileHash;
+            this.limit = limit;
+            this.swipedBy = swipedBy;
+            this.swipedJobs = swipedJobs;
+        }
+    }
+}
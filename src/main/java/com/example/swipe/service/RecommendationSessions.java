@@ -0,0 +1,210 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.utility.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pages through the recommendations of a worker with an opaque cursor, without searching again for every page.
+ * <br>
+ * The first page ranks the best {@code recommendationSession.depth} jobs once and keeps their ordinals, with the
+ * version of the {@link JobCatalogSnapshot} they are ordinals of, in a session. The cursor of the next page names the
+ * session and the offset of the page, so every page is materialized in O(page) from the same snapshot: pages never mix
+ * catalog versions and a cursor can be retried. Sessions are bounded by {@code recommendationSession.maximumSize} and
+ * expire {@code recommendationSession.expireAfterAccessMillis} after their last page.
+ * <br>
+ * Only the {@code recommendationSession.maxSnapshots} snapshots most recently paged through are kept in memory. The
+ * sessions of an older snapshot have expired: their next page is not served.
+ */
+@Service
+public class RecommendationSessions {
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final JobSearchEngine jobSearchEngine;
+    private final Cache<Long, Session> sessions;
+    private final SecureRandom random = new SecureRandom();
+    // Snapshots of the sessions by version, least recently paged through first. Guarded by itself.
+    private final LinkedHashMap<Long, JobCatalogSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxSnapshots;
+
+    @Value("${recommendationSession.depth:100}")
+    private int depth;
+
+    @Autowired
+    public RecommendationSessions(JobSearchEngine jobSearchEngine,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${recommendationSession.maximumSize:100000}") long maximumSize,
+                                  @Value("${recommendationSession.expireAfterAccessMillis:900000}") long expireAfterAccessMillis,
+                                  @Value("${recommendationSession.maxSnapshots:2}") int maxSnapshots) {
+        this.jobSearchEngine = jobSearchEngine;
+        this.maxSnapshots = Math.max(maxSnapshots, 1);
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "recommendation_sessions");
+    }
+
+    /**
+     * Ranks the jobs of the worker against the snapshot and returns the first page. A session is only kept if there is a
+     * next page.
+     *
+     * @param snapshot {@link JobCatalogSnapshot}
+     * @param worker   {@link Worker}
+     * @param limit    Page size.
+     * @return
+     */
+    public Page firstPage(JobCatalogSnapshot snapshot, Worker worker, int limit) {
+        int pageSize = Math.max(limit, 0);
+        int[] ranked = jobSearchEngine.findMatchingOrdinals(snapshot, worker, Math.max(depth, pageSize));
+        Session session = new Session(worker.getUserId(), snapshot.getVersion(), ranked);
+        if (ranked.length <= pageSize) {
+            return session.page(snapshot, 0, pageSize, null);
+        }
+        retain(snapshot);
+        long sessionId = newSessionId();
+        sessions.put(sessionId, session);
+        Logger.debug(getClass(), "Started session of {} ranked jobs for worker {}.", ranked.length, worker.getUserId());
+        return session.page(snapshot, 0, pageSize, sessionId);
+    }
+
+    /**
+     * Returns the page the cursor points to.
+     *
+     * @param workerId Referring to {@link Worker#userId}. Must be the worker the cursor was returned to.
+     * @param cursor   {@link Cursor} of a previous page.
+     * @param limit    Page size. May differ from the size of the previous pages.
+     * @return null if the session expired, belongs to another worker or its snapshot is no longer kept.
+     */
+    public Page nextPage(long workerId, Cursor cursor, int limit) {
+        Session session = sessions.getIfPresent(cursor.getSessionId());
+        if (session == null || session.workerId == null || session.workerId != workerId) {
+            Logger.debug(getClass(), "No session {} for worker {}.", cursor.getSessionId(), workerId);
+            return null;
+        }
+        JobCatalogSnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(session.version);
+        }
+        if (snapshot == null) {
+            Logger.debug(getClass(), "Snapshot {} of session {} is no longer kept.", session.version, cursor.getSessionId());
+            sessions.invalidate(cursor.getSessionId());
+            return null;
+        }
+        return session.page(snapshot, cursor.getOffset(), Math.max(limit, 0), cursor.getSessionId());
+    }
+
+    /**
+     * @param cursor Cursor as returned by {@link Page#getNextCursor()}.
+     * @return null if it is not a cursor.
+     */
+    public static Cursor parseCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = CURSOR_DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length != CURSOR_BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long sessionId = buffer.getLong();
+        int offset = buffer.getInt();
+        return offset < 0 ? null : new Cursor(sessionId, offset);
+    }
+
+    public void invalidateAll() {
+        sessions.invalidateAll();
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    private void retain(JobCatalogSnapshot snapshot) {
+        synchronized (snapshots) {
+            // Moves a kept version last, as most recently paged through.
+            snapshots.putIfAbsent(snapshot.getVersion(), snapshot);
+            while (snapshots.size() > maxSnapshots) {
+                Map.Entry<Long, JobCatalogSnapshot> eldest = snapshots.entrySet().iterator().next();
+                Logger.info(getClass(), "Dropping snapshot {} of the pagination sessions.", eldest.getValue());
+                snapshots.remove(eldest.getKey());
+            }
+        }
+    }
+
+    private long newSessionId() {
+        long sessionId;
+        do {
+            sessionId = random.nextLong();
+        } while (sessions.getIfPresent(sessionId) != null);
+        return sessionId;
+    }
+
+    private static String formatCursor(long sessionId, int offset) {
+        return CURSOR_ENCODER.encodeToString(ByteBuffer.allocate(CURSOR_BYTES).putLong(sessionId).putInt(offset).array());
+    }
+
+    /**
+     * One page of recommendations.
+     */
+    @AllArgsConstructor
+    @Getter
+    @ToString
+    public static final class Page {
+
+        private final List<Job> jobs;
+        // Null on the last page.
+        private final String nextCursor;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    @ToString
+    public static final class Cursor {
+
+        private final long sessionId;
+        private final int offset;
+    }
+
+    @AllArgsConstructor
+    private static final class Session {
+
+        private final Long workerId;
+        private final long version;
+        private final int[] ranked;
+
+        private Page page(JobCatalogSnapshot snapshot, int offset, int limit, Long sessionId) {
+            int from = Math.min(offset, ranked.length);
+            int to = (int) Math.min((long) from + limit, ranked.length);
+            List<Job> jobs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                jobs.add(snapshot.getJob(ranked[i]));
+            }
+            return new Page(jobs, sessionId != null && to < ranked.length ? formatCursor(sessionId, to) : null);
+        }
+    }
+}
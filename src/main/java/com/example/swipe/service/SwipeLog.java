@@ -0,0 +1,241 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.utility.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only file of the swipes recorded by {@link SwipeStore}, replayed on startup so that they survive a restart.
+ * <br>
+ * The file is a fixed header (magic, format version) followed by one fixed size record per swipe: workerId, jobId and
+ * action. Records are written to the OS as they are recorded, without forcing them to the disk. A record cut short by a
+ * crash is dropped when the file is opened again; a file of another format is left untouched and the swipes are then
+ * only kept in memory.
+ * <br>
+ * A worker whose swipes are forgotten gets a marker record. The file is compacted when it is replayed: the swipes
+ * before the last marker of their worker, and the swipes the consumer did not keep, are left out of the new file.
+ */
+@Component
+public class SwipeLog {
+
+    private static final int MAGIC = 0x5357534c; // "SWSL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int RECORD_BYTES = Long.BYTES * 2 + Byte.BYTES;
+    private static final SwipeAction[] ACTIONS = SwipeAction.values();
+    private static final byte FORGET = -1;
+
+    private final Path path;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private FileChannel channel;
+
+    @Autowired
+    public SwipeLog(@Value("${swipeStore.logFile:}") String path) {
+        this(StringUtils.hasText(path) ? Paths.get(path) : null);
+    }
+
+    SwipeLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return a log that is never read nor written.
+     */
+    static SwipeLog disabled() {
+        return new SwipeLog((Path) null);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Reads the swipes of the file, oldest first, then compacts it and opens it for appending.
+     *
+     * @param consumer Receives each swipe not forgotten since.
+     * @return number of swipes read.
+     */
+    public synchronized int replay(SwipeConsumer consumer) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        int swipes = 0;
+        FileChannel file = null;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = file.size();
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION);
+                header.flip();
+                while (header.hasRemaining()) {
+                    file.write(header);
+                }
+            } else {
+                MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (size < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                    Logger.error(getClass(), "Not appending to {}: not a swipe log of format {}.", path, FORMAT_VERSION);
+                    file.close();
+                    return 0;
+                }
+                int records = (int) ((size - HEADER_BYTES) / RECORD_BYTES);
+                Map<Long, Integer> lastForgotten = new HashMap<>();
+                for (int record = 0; record < records; record++) {
+                    if (buffer.get(recordPosition(record) + Long.BYTES * 2) == FORGET) {
+                        lastForgotten.put(buffer.getLong(recordPosition(record)), record);
+                    }
+                }
+                BitSet kept = new BitSet(records);
+                for (int record = 0; record < records; record++) {
+                    int position = recordPosition(record);
+                    long workerId = buffer.getLong(position);
+                    long jobId = buffer.getLong(position + Long.BYTES);
+                    int action = buffer.get(position + Long.BYTES * 2);
+                    Integer forgotten = lastForgotten.get(workerId);
+                    if (action >= 0 && action < ACTIONS.length && (forgotten == null || record > forgotten)) {
+                        if (consumer.accept(workerId, jobId, ACTIONS[action])) {
+                            kept.set(record);
+                        }
+                        swipes++;
+                    }
+                }
+                long tail = size - recordPosition(records);
+                if (tail > 0) {
+                    Logger.warn(getClass(), "Dropping {} bytes of a swipe cut short at the end of {}.", tail, path);
+                    file.truncate(size - tail);
+                }
+                if (kept.cardinality() < records) {
+                    file.close();
+                    file = compact(buffer, kept);
+                    Logger.info(getClass(), "Compacted {} from {} to {} swipes.", path, records, kept.cardinality());
+                }
+            }
+            file.position(file.size());
+            channel = file;
+            Logger.info(getClass(), "Replayed {} swipes from {}.", swipes, path);
+        } catch (IOException | RuntimeException e) {
+            Logger.error(getClass(), "Could not open swipe log {}. Swipes are only kept in memory.", path, e);
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+        }
+        return swipes;
+    }
+
+    // Writes the kept records to a new file, moved in place of the current one, and returns it open for appending.
+    private FileChannel compact(MappedByteBuffer buffer, BitSet kept) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocate(Math.max(HEADER_BYTES, RECORD_BYTES) * 1024);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION);
+            for (int record = kept.nextSetBit(0); record >= 0; record = kept.nextSetBit(record + 1)) {
+                if (out.remaining() < RECORD_BYTES) {
+                    writeFully(compacted, out);
+                }
+                ByteBuffer source = buffer.duplicate();
+                source.position(recordPosition(record)).limit(recordPosition(record) + RECORD_BYTES);
+                out.put(source);
+            }
+            writeFully(compacted, out);
+            compacted.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static int recordPosition(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    /**
+     * Appends a swipe. Failures are logged, the swipe and the following ones are then only kept in memory.
+     *
+     * @param workerId Referring to {@link com.example.swipe.domain.Worker#userId}
+     * @param jobId    Referring to {@link com.example.swipe.domain.Job#jobId}
+     * @param action   {@link SwipeAction}
+     */
+    public void append(long workerId, long jobId, SwipeAction action) {
+        write(workerId, jobId, (byte) action.ordinal());
+    }
+
+    /**
+     * Appends a marker forgetting the swipes of the worker recorded so far. They are left out when the file is next
+     * replayed.
+     *
+     * @param workerId Referring to {@link com.example.swipe.domain.Worker#userId}
+     */
+    public void forget(long workerId) {
+        write(workerId, 0L, FORGET);
+    }
+
+    private synchronized void write(long workerId, long jobId, byte action) {
+        if (channel == null) {
+            return;
+        }
+        record.clear();
+        record.putLong(workerId).putLong(jobId).put(action).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            // A record may be written in part: stop appending, so that it can only be the last one of the file.
+            Logger.error(getClass(), "Could not append swipe of worker {} on job {} to {}. Swipes are only kept in memory from now on.", workerId, jobId, path, e);
+            close();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Logger.error(getClass(), "Could not close swipe log {}.", path, e);
+        }
+        channel = null;
+    }
+
+    @FunctionalInterface
+    public interface SwipeConsumer {
+
+        /**
+         * @return whether the swipe is kept when the file is compacted.
+         */
+        boolean accept(long workerId, long jobId, SwipeAction action);
+    }
+}
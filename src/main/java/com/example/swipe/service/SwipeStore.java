@@ -0,0 +1,122 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.service.index.SeenJobs;
+import com.example.swipe.utility.Logger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Jobs each worker already swiped, so that {@link JobSearchEngine} does not recommend them again.
+ * <br>
+ * Swipes are held per worker as {@link SeenJobs}: a sorted array of up to {@code swipeStore.maxExactJobs} jobIds,
+ * upgraded to a Bloom filter of {@code swipeStore.bloomCapacity} jobs beyond. They are appended to the
+ * {@link SwipeLog} as they are recorded and replayed from it on startup; a job swiped again is not appended.
+ * <br>
+ * Every time the {@link WorkerStore} is loaded, the swipes of the workers no longer in the CORE system are forgotten,
+ * in memory and in the log.
+ */
+@Service
+public class SwipeStore {
+
+    private final SwipeLog swipeLog;
+    private final int maxExactJobs;
+    private final int bloomCapacity;
+    private final Map<Long, SeenJobs> seenJobs = new ConcurrentHashMap<>();
+    private final Map<SwipeAction, Counter> swipes = new EnumMap<>(SwipeAction.class);
+
+    @Autowired
+    public SwipeStore(SwipeLog swipeLog,
+                      WorkerStore workerStore,
+                      MeterRegistry meterRegistry,
+                      @Value("${swipeStore.maxExactJobs:256}") int maxExactJobs,
+                      @Value("${swipeStore.bloomCapacity:4096}") int bloomCapacity) {
+        this(swipeLog, meterRegistry, maxExactJobs, bloomCapacity);
+        workerStore.addLoadListener(() -> forgetRemovedWorkers(workerStore));
+    }
+
+    /**
+     * Store whose workers are never forgotten. Mostly useful for tests.
+     */
+    public SwipeStore(SwipeLog swipeLog, MeterRegistry meterRegistry, int maxExactJobs, int bloomCapacity) {
+        this.swipeLog = swipeLog;
+        this.maxExactJobs = maxExactJobs;
+        this.bloomCapacity = bloomCapacity;
+        for (SwipeAction action : SwipeAction.values()) {
+            swipes.put(action, Counter.builder("swipe.store.swipes")
+                    .description("Swipes recorded")
+                    .tag("action", action.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("swipe.store.workers", seenJobs, Map::size)
+                .description("Number of workers with swiped jobs held in memory")
+                .register(meterRegistry);
+        swipeLog.replay((workerId, jobId, action) -> add(workerId, jobId));
+    }
+
+    /**
+     * Records a swipe: the job is no longer recommended to the worker.
+     *
+     * @param workerId Referring to {@link com.example.swipe.domain.Worker#userId}
+     * @param jobId    Referring to {@link com.example.swipe.domain.Job#jobId}
+     * @param action   {@link SwipeAction}
+     */
+    public void record(long workerId, long jobId, SwipeAction action) {
+        swipes.get(action).increment();
+        if (add(workerId, jobId)) {
+            swipeLog.append(workerId, jobId, action);
+            Logger.debug(getClass(), "Worker {} swiped job {} ({}).", workerId, jobId, action);
+        }
+    }
+
+    /**
+     * Forgets the swipes of the worker.
+     *
+     * @param workerId Referring to {@link com.example.swipe.domain.Worker#userId}
+     */
+    public void forget(long workerId) {
+        if (seenJobs.remove(workerId) != null) {
+            swipeLog.forget(workerId);
+        }
+    }
+
+    /**
+     * Returns the jobs the worker swiped.
+     *
+     * @param workerId Referring to {@link com.example.swipe.domain.Worker#userId}
+     * @return null if the worker never swiped.
+     */
+    public SeenJobs getSeenJobs(long workerId) {
+        return seenJobs.get(workerId);
+    }
+
+    private void forgetRemovedWorkers(WorkerStore workerStore) {
+        // An empty load is more likely a failure of the CORE system than the removal of every worker.
+        if (workerStore.size() == 0) {
+            return;
+        }
+        int forgotten = 0;
+        for (Long workerId : seenJobs.keySet()) {
+            if (workerStore.peekWorker(workerId, true) == null) {
+                forget(workerId);
+                forgotten++;
+            }
+        }
+        if (forgotten > 0) {
+            Logger.info(getClass(), "Forgot the swipes of {} workers no longer in the store.", forgotten);
+        }
+    }
+
+    private boolean add(long workerId, long jobId) {
+        return seenJobs.computeIfAbsent(workerId, id -> new SeenJobs(maxExactJobs, bloomCapacity)).add(jobId);
+    }
+}
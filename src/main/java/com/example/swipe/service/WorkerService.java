@@ -1,20 +1,30 @@
 package com.example.swipe.service;
 
 import com.example.swipe.domain.Worker;
+import com.example.swipe.utility.CountingInputStream;
+import com.example.swipe.utility.JsonArrayReader;
 import com.example.swipe.utility.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service implementation to perform {@link Worker} related operations.
+ * <br>
+ * The /workers payload is streamed: each worker is bound and handed over as soon as it is read, without buffering the
+ * response body. Every fetch is recorded by {@link CoreFetchMetrics}.
  */
 @Service
 public class WorkerService {
@@ -22,30 +32,55 @@ public class WorkerService {
     private static final String WORKER_ENDPOINT = "/workers";
 
     private final RestTemplate restTemplate;
+    private final ObjectReader workerReader;
+    private final CoreFetchMetrics fetchMetrics;
 
     @Value("${swipeJobServer}")
     private String swipeJobServer;
 
-    public WorkerService(RestTemplate restTemplate) {
+    public WorkerService(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.fetchMetrics = new CoreFetchMetrics(meterRegistry, WORKER_ENDPOINT);
+        this.workerReader = objectMapper.readerFor(Worker.class);
     }
 
     public List<Worker> getWorkers() {
-        ResponseEntity<Worker[]> response = restTemplate.getForEntity(swipeJobServer + WORKER_ENDPOINT, Worker[].class);
-
-        Logger.debug(getClass(), "GET /workers API response code {} w/ body {}.", response.getStatusCode(), response.getBody());
-
-        return Optional.of(response)
-                .filter(res -> res.getStatusCode() == HttpStatus.OK && res.getBody() != null)
-                .map(res -> Arrays.asList(res.getBody()))
-                .orElse(Collections.emptyList());
+        List<Worker> workers = new ArrayList<>();
+        forEachWorker(workers::add);
+        return workers.isEmpty() ? Collections.emptyList() : workers;
     }
 
-    public Worker getWorker(Long workerId) {
-        if (workerId == null) {
-            return null;
+    /**
+     * Streams the workers of the CORE system to the consumer, in payload order.
+     *
+     * @param consumer Receives each {@link Worker} as soon as it is read.
+     * @return number of workers read. 0 if the CORE system did not answer with 200.
+     */
+    public int forEachWorker(Consumer<Worker> consumer) {
+        Timer.Sample sample = fetchMetrics.start();
+        Integer count;
+        try {
+            count = restTemplate.execute(swipeJobServer + WORKER_ENDPOINT,
+                                         HttpMethod.GET,
+                                         request -> request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON)),
+                                         response -> {
+                                             if (response.getStatusCode() != HttpStatus.OK) {
+                                                 Logger.warn(getClass(), "GET /workers API response code {}. No worker read.", response.getStatusCode());
+                                                 fetchMetrics.record(sample, CoreFetchMetrics.HTTP_ERROR, 0, 0);
+                                                 return 0;
+                                             }
+                                             CountingInputStream body = new CountingInputStream(response.getBody());
+                                             int read = JsonArrayReader.forEach(workerReader, body, consumer);
+                                             fetchMetrics.record(sample, CoreFetchMetrics.OK, read, body.getCount());
+                                             return read;
+                                         });
+        } catch (RuntimeException e) {
+            fetchMetrics.record(sample, CoreFetchMetrics.EXCEPTION, 0, 0);
+            throw e;
         }
 
-        return getWorkers().stream().filter(w -> workerId.equals(w.getUserId())).findFirst().orElse(null);
+        Logger.debug(getClass(), "GET /workers API streamed {} workers.", count);
+
+        return count == null ? 0 : count;
     }
 }
@@ -0,0 +1,233 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Worker;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.utility.Logger;
+import com.example.swipe.utility.LongObjectHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory {@link Worker} store keyed by {@link Worker#getUserId()}.
+ * <br>
+ * The whole worker list is loaded from {@link WorkerService} in the background and published as a read-only
+ * {@link LongObjectHashMap}, so {@link #getWorker(long)} is a single in-memory lookup. A lookup that misses, or finds an
+ * entry older than {@code workerStore.entryTtlMillis}, reads through to the CORE system. Since the CORE system only
+ * exposes the full list, read-through reloads are throttled by {@code workerStore.missReloadMinIntervalMillis} so that
+ * unknown ids cannot hammer it.
+ */
+@Service
+public class WorkerStore {
+
+    private final WorkerService workerService;
+    private final Clock clock;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final List<Runnable> loadListeners = new CopyOnWriteArrayList<>();
+
+    private volatile LongObjectHashMap<Entry> workers = new LongObjectHashMap<>();
+    private volatile long lastLoadMillis;
+
+    @Value("${workerStore.entryTtlMillis:300000}")
+    private long entryTtlMillis;
+    @Value("${workerStore.missReloadMinIntervalMillis:5000}")
+    private long missReloadMinIntervalMillis;
+
+    @Autowired
+    public WorkerStore(WorkerService workerService, MeterRegistry meterRegistry) {
+        this(workerService, meterRegistry, Clock.systemUTC());
+    }
+
+    WorkerStore(WorkerService workerService, MeterRegistry meterRegistry, Clock clock) {
+        this.workerService = workerService;
+        this.clock = clock;
+        Gauge.builder("worker.store.size", this, store -> store.workers.size())
+                .description("Number of workers held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the {@link Worker} for given userId, or {@code null} if the CORE system does not know it.
+     *
+     * @param workerId Referring to {@link Worker#userId}
+     * @return Worker
+     */
+    public Worker getWorker(long workerId) {
+        LongObjectHashMap<Entry> current = workers;
+        Entry entry = current.get(workerId);
+        if (entry == null || isExpired(entry)) {
+            Logger.debug(getClass(), "Worker {} {} in store. Reading through.", workerId, entry == null ? "missing" : "expired");
+            entry = readThrough(workerId, current, entry);
+        }
+        return entry != null ? entry.worker : null;
+    }
+
+    /**
+     * In-memory lookup of the {@link Worker}, never reading through to the CORE system.
+     *
+     * @param workerId       Referring to {@link Worker#userId}
+     * @param includeExpired Whether an entry older than {@code workerStore.entryTtlMillis} is returned.
+     * @return Worker, or {@code null} if not in the store.
+     */
+    public Worker peekWorker(long workerId, boolean includeExpired) {
+        Entry entry = workers.get(workerId);
+        return entry != null && (includeExpired || !isExpired(entry)) ? entry.worker : null;
+    }
+
+    /**
+     * Claims a read-through reload for a caller loading the workers itself, e.g. through a non-blocking client. Subject
+     * to the same {@code workerStore.missReloadMinIntervalMillis} throttle as {@link #getWorker(long)}, and never waits
+     * for a reload in progress.
+     *
+     * @return true if the caller should load the workers and {@link #install(List)} them.
+     */
+    public boolean tryStartReadThrough() {
+        if (!reloadLock.tryLock()) {
+            return false;
+        }
+        try {
+            long now = clock.millis();
+            if (now - lastLoadMillis < missReloadMinIntervalMillis) {
+                return false;
+            }
+            lastLoadMillis = now;
+            return true;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the workers of the store with workers loaded by the caller.
+     *
+     * @param loaded All the workers of the CORE system.
+     */
+    public void install(List<Worker> loaded) {
+        workers = index(loaded::forEach, clock.millis());
+        Logger.info(getClass(), "Installed {} workers into the store.", workers.size());
+        notifyLoaded();
+    }
+
+    /**
+     * Registers a listener called, on the loading thread, every time the workers of the store are replaced.
+     *
+     * @param listener Called after the new workers are visible.
+     */
+    public void addLoadListener(Runnable listener) {
+        loadListeners.add(listener);
+    }
+
+    /**
+     * Background refresh of the store. Failures are logged and the previous workers stay in place.
+     */
+    @Scheduled(initialDelayString = "${workerStore.initialDelayMillis:0}", fixedDelayString = "${workerStore.refreshIntervalMillis:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            Logger.error(getClass(), "Scheduled worker store refresh failed. Keeping {} workers.", workers.size(), e);
+        }
+    }
+
+    /**
+     * Reloads all the workers from the CORE system.
+     */
+    public void refresh() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the workers currently in the store whose {@link Worker#isActive} flag is set. Entries are not read through.
+     *
+     * @return Workers in no particular order.
+     */
+    public List<Worker> getActiveWorkers() {
+        List<Worker> active = new ArrayList<>();
+        workers.forEachValue(entry -> {
+            if (Boolean.TRUE.equals(entry.worker.getIsActive())) {
+                active.add(entry.worker);
+            }
+        });
+        return active;
+    }
+
+    public int size() {
+        return workers.size();
+    }
+
+    private Entry readThrough(long workerId, LongObjectHashMap<Entry> observed, Entry stale) {
+        reloadLock.lock();
+        try {
+            // A reload may have completed while this thread was waiting for the lock.
+            if (workers == observed && clock.millis() - lastLoadMillis >= missReloadMinIntervalMillis) {
+                load();
+            }
+            return workers.get(workerId);
+        } catch (RuntimeException e) {
+            Logger.error(getClass(), "Read-through for worker {} failed. Serving the stale entry if any.", workerId, e);
+            return stale;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void load() {
+        long loadedAt = clock.millis();
+        lastLoadMillis = loadedAt;
+        workers = index(workerService::forEachWorker, loadedAt);
+        Logger.info(getClass(), "Loaded {} workers into the store.", workers.size());
+        notifyLoaded();
+    }
+
+    private void notifyLoaded() {
+        for (Runnable listener : loadListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Logger.error(getClass(), "Worker store load listener failed.", e);
+            }
+        }
+    }
+
+    private LongObjectHashMap<Entry> index(Consumer<Consumer<Worker>> source, long loadedAt) {
+        CertificateDictionary dictionary = CertificateDictionary.getInstance();
+        LongObjectHashMap<Entry> map = new LongObjectHashMap<>(Math.max(workers.size(), 16));
+        source.accept(worker -> {
+            if (worker != null && worker.getUserId() != null) {
+                worker.setCertificateBits(dictionary.encode(worker.getCertificates()));
+                map.put(worker.getUserId(), new Entry(worker, loadedAt));
+            }
+        });
+        return map;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return clock.millis() - entry.loadedAtMillis > entryTtlMillis;
+    }
+
+    private static final class Entry {
+
+        private final Worker worker;
+        private final long loadedAtMillis;
+
+        private Entry(Worker worker, long loadedAtMillis) {
+            this.worker = worker;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+}
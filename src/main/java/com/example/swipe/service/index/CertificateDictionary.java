@@ -0,0 +1,95 @@
+package com.example.swipe.service.index;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application wide dictionary interning every certificate name to a small dense int id.
+ * <br>
+ * Job and worker certificates are encoded once, when they are loaded, into {@code long[]} bitsets where bit {@code id}
+ * is set for each certificate held. Matching two certificate lists is then a word-wise AND plus a population count
+ * instead of string comparisons. Ids are never reassigned, so a bitset stays valid for the lifetime of the application.
+ */
+public final class CertificateDictionary {
+
+    private static final CertificateDictionary INSTANCE = new CertificateDictionary();
+    private static final long[] NO_CERTIFICATES = new long[0];
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private CertificateDictionary() {
+    }
+
+    public static CertificateDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the id of the certificate, assigning the next free one on first use.
+     *
+     * @param certificate Certificate name. Case sensitive, like the list based matching it replaces.
+     * @return id
+     */
+    public int intern(String certificate) {
+        Integer id = ids.get(certificate);
+        return id != null ? id : ids.computeIfAbsent(certificate, c -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Encodes the certificates as a bitset of their ids. {@code null} names are ignored.
+     *
+     * @param certificates Certificate names, may be null.
+     * @return bitset. Never null.
+     */
+    public long[] encode(Collection<String> certificates) {
+        if (certificates == null || certificates.isEmpty()) {
+            return NO_CERTIFICATES;
+        }
+        long[] bits = new long[0];
+        for (String certificate : certificates) {
+            if (certificate == null) {
+                continue;
+            }
+            int id = intern(certificate);
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                long[] grown = new long[word + 1];
+                System.arraycopy(bits, 0, grown, 0, bits.length);
+                bits = grown;
+            }
+            bits[word] |= 1L << id;
+        }
+        return bits;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Number of certificates in common between two bitsets.
+     *
+     * @param a bitset
+     * @param b bitset
+     * @return count of bits set in both.
+     */
+    public static int countCommon(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    public static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
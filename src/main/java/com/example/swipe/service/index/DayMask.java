@@ -0,0 +1,60 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Worker;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Days of the week as a 7 bit mask, bit {@code dayIndex - 1} for the ISO day index (1 = Monday ... 7 = Sunday) used by
+ * {@link Worker.DayOfWeek#dayIndex}.
+ * <br>
+ * A job starts on the day of its startTime in UTC, the zone of the CORE system timestamps.
+ */
+public final class DayMask {
+
+    /**
+     * Every day of the week, i.e. no availability restriction.
+     */
+    public static final int ALL = 0x7F;
+
+    private DayMask() {
+    }
+
+    /**
+     * Returns the days a worker is available on. Entries without a valid dayIndex are ignored, and a worker without
+     * any valid entry is available every day, like a worker without a complete search preference matches every location.
+     *
+     * @param availability {@link Worker#availability}
+     * @return mask, never 0.
+     */
+    public static int of(List<Worker.DayOfWeek> availability) {
+        int mask = 0;
+        if (availability != null) {
+            for (Worker.DayOfWeek day : availability) {
+                if (day != null && day.getDayIndex() != null && day.getDayIndex() >= 1 && day.getDayIndex() <= 7) {
+                    mask |= 1 << (day.getDayIndex() - 1);
+                }
+            }
+        }
+        return mask == 0 ? ALL : mask;
+    }
+
+    /**
+     * @param startTime Start of a job.
+     * @return ISO day index (1...7) of the start, 0 if unknown.
+     */
+    public static int dayIndex(Instant startTime) {
+        // 1970-01-01 was a Thursday (4).
+        return startTime == null ? 0 : (int) Math.floorMod(Math.floorDiv(startTime.getEpochSecond(), 86_400L) + 3, 7L) + 1;
+    }
+
+    /**
+     * @param mask     Day mask.
+     * @param dayIndex ISO day index (1...7), or 0 for an unknown day which every mask contains.
+     * @return whether the mask contains the day.
+     */
+    public static boolean contains(int mask, int dayIndex) {
+        return dayIndex == 0 || (mask & 1 << (dayIndex - 1)) != 0;
+    }
+}
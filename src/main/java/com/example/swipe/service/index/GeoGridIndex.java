@@ -0,0 +1,226 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial index over {@link Job#location} based on a fixed latitude/longitude grid.
+ * <br>
+ * Every job is assigned to the grid cell containing its location. Jobs are stored as ordinals (their position in the
+ * catalog) sorted by cell, so a cell is a contiguous run of ordinals. A radius query converts the circle into the
+ * range of cells covering its bounding box and returns the jobs of those cells only; callers are expected to apply the
+ * exact distance check on that small candidate set.
+ * <br>
+ * Jobs without a location cannot be placed in a cell. They are reported as candidates for every query, which keeps
+ * the behaviour of the linear scan where a job without location is never filtered out by distance.
+ */
+public final class GeoGridIndex {
+
+    /**
+     * Cell size of about 11 km in latitude. Small enough to prune most of the catalog for typical worker radii (20-50
+     * km), large enough to keep the number of cells per query low.
+     */
+    public static final double DEFAULT_CELL_DEGREES = 0.1;
+
+    private final double cellDegrees;
+    private final int lonCells;
+
+    // Distinct non-empty cells, sorted, and the start offset of each cell in cellOrdinals. cellStart has one extra
+    // element so that a cell spans [cellStart[i], cellStart[i + 1]).
+    private final int[] cellIds;
+    private final int[] cellStart;
+    private final int[] cellOrdinals;
+    private final int[] unlocatedOrdinals;
+
+    private GeoGridIndex(double cellDegrees, int[] cellIds, int[] cellStart, int[] cellOrdinals, int[] unlocatedOrdinals) {
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+        this.cellIds = cellIds;
+        this.cellStart = cellStart;
+        this.cellOrdinals = cellOrdinals;
+        this.unlocatedOrdinals = unlocatedOrdinals;
+    }
+
+    public static GeoGridIndex build(List<Job> jobs) {
+        return build(jobs, DEFAULT_CELL_DEGREES);
+    }
+
+    /**
+     * Indexes the location of each job by its position in the given list.
+     *
+     * @param jobs        Jobs of the catalog.
+     * @param cellDegrees Cell size in degrees. {@code 360 / cellDegrees * 180 / cellDegrees} must fit an int.
+     * @return GeoGridIndex
+     */
+    public static GeoGridIndex build(List<Job> jobs, double cellDegrees) {
+        return build(JobColumns.of(jobs), 0, jobs.size(), cellDegrees);
+    }
+
+    /**
+     * Indexes the jobs of a store with an ordinal in {@code [from, to)}, e.g. the jobs appended to a catalog.
+     *
+     * @param columns {@link JobColumns}
+     * @param from    First ordinal, inclusive.
+     * @param to      Last ordinal, exclusive.
+     * @return GeoGridIndex
+     */
+    public static GeoGridIndex build(JobColumns columns, int from, int to) {
+        return build(columns, from, to, DEFAULT_CELL_DEGREES);
+    }
+
+    private static GeoGridIndex build(JobColumns columns, int from, int to, double cellDegrees) {
+        if (!(cellDegrees > 0) || (360 / cellDegrees) * (180 / cellDegrees) >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid cell size " + cellDegrees);
+        }
+        int lonCells = (int) Math.ceil(360 / cellDegrees);
+
+        // Pack (cell, ordinal) into a long so that one primitive sort groups the ordinals by cell.
+        long[] packed = new long[to - from];
+        int located = 0;
+        int[] unlocated = new int[to - from];
+        int unlocatedCount = 0;
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            if (!columns.hasLocation(ordinal)) {
+                unlocated[unlocatedCount++] = ordinal;
+            } else {
+                int cell = cellId(latCell(columns.getLatitude(ordinal), cellDegrees), lonCell(columns.getLongitude(ordinal), cellDegrees), lonCells);
+                packed[located++] = ((long) cell << 32) | ordinal;
+            }
+        }
+        Arrays.sort(packed, 0, located);
+
+        int[] cellIds = new int[located];
+        int[] cellStart = new int[located + 1];
+        int[] cellOrdinals = new int[located];
+        int cells = 0;
+        for (int i = 0; i < located; i++) {
+            int cell = (int) (packed[i] >>> 32);
+            if (cells == 0 || cellIds[cells - 1] != cell) {
+                cellIds[cells] = cell;
+                cellStart[cells] = i;
+                cells++;
+            }
+            cellOrdinals[i] = (int) packed[i];
+        }
+        cellStart[cells] = located;
+
+        return new GeoGridIndex(cellDegrees,
+                                Arrays.copyOf(cellIds, cells),
+                                Arrays.copyOf(cellStart, cells + 1),
+                                cellOrdinals,
+                                Arrays.copyOf(unlocated, unlocatedCount));
+    }
+
+    /**
+     * Reports the ordinal of every job that may lie within the given angular radius of the point: all the jobs of the
+     * cells covering the bounding box of the circle, plus the jobs without location. No ordinal is reported twice, but
+     * the order is unspecified.
+     *
+     * @param latitude       Latitude of the centre, in degrees.
+     * @param longitude      Longitude of the centre, in degrees.
+     * @param radiusRadians  Radius of the circle as an angle at the centre of the earth (distance / earth radius).
+     * @param consumer       Receives the candidate ordinals.
+     */
+    public void query(double latitude, double longitude, double radiusRadians, IntConsumer consumer) {
+        query(latitude, longitude, radiusRadians, (ordinals, from, to) -> {
+            for (int i = from; i < to; i++) {
+                consumer.accept(ordinals[i]);
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #query(double, double, double, IntConsumer)}, collecting the candidates into a bitmap. Each cell is
+     * a sorted run of ordinals, which is added in bulk.
+     *
+     * @param latitude      Latitude of the centre, in degrees.
+     * @param longitude     Longitude of the centre, in degrees.
+     * @param radiusRadians Radius of the circle as an angle at the centre of the earth.
+     * @return candidate ordinals.
+     */
+    public RoaringBitmap queryBitmap(double latitude, double longitude, double radiusRadians) {
+        RoaringBitmap candidates = new RoaringBitmap();
+        query(latitude, longitude, radiusRadians, (ordinals, from, to) -> candidates.addN(ordinals, from, to - from));
+        return candidates;
+    }
+
+    private void query(double latitude, double longitude, double radiusRadians, RunConsumer consumer) {
+        consumer.accept(unlocatedOrdinals, 0, unlocatedOrdinals.length);
+
+        // Pad the radius so that rounding never drops a job lying right on the circle.
+        radiusRadians = radiusRadians * (1 + 1e-9) + 1e-12;
+        double radiusDegrees = Math.toDegrees(radiusRadians);
+        double minLat = latitude - radiusDegrees;
+        double maxLat = latitude + radiusDegrees;
+        int fromLatCell = latCell(Math.max(minLat, -90), cellDegrees);
+        int toLatCell = latCell(Math.min(maxLat, 90), cellDegrees);
+
+        if (minLat <= -90 || maxLat >= 90 || radiusDegrees >= 90) {
+            // The circle contains a pole: every longitude is in range.
+            scanRows(fromLatCell, toLatCell, 0, lonCells, consumer);
+            return;
+        }
+
+        // Widest longitude span of the circle, reached at the latitude where the circle touches its bounding meridians.
+        double lonDelta = Math.toDegrees(Math.asin(Math.min(1, Math.sin(radiusRadians) / Math.cos(Math.toRadians(latitude)))));
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+        if (maxLon - minLon >= 360) {
+            scanRows(fromLatCell, toLatCell, 0, lonCells, consumer);
+        } else if (minLon < -180) {
+            scanRows(fromLatCell, toLatCell, lonCell(minLon + 360, cellDegrees), lonCells, consumer);
+            scanRows(fromLatCell, toLatCell, 0, lonCell(maxLon, cellDegrees), consumer);
+        } else if (maxLon > 180) {
+            scanRows(fromLatCell, toLatCell, lonCell(minLon, cellDegrees), lonCells, consumer);
+            scanRows(fromLatCell, toLatCell, 0, lonCell(maxLon - 360, cellDegrees), consumer);
+        } else {
+            scanRows(fromLatCell, toLatCell, lonCell(minLon, cellDegrees), lonCell(maxLon, cellDegrees), consumer);
+        }
+    }
+
+    public int cellCount() {
+        return cellIds.length;
+    }
+
+    private void scanRows(int fromLatCell, int toLatCell, int fromLonCell, int toLonCell, RunConsumer consumer) {
+        for (int latCell = fromLatCell; latCell <= toLatCell; latCell++) {
+            int from = cellId(latCell, fromLonCell, lonCells);
+            int to = cellId(latCell, toLonCell, lonCells);
+            int index = Arrays.binarySearch(cellIds, from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            // Cells of one latitude row are contiguous ids, so the row is a single run in cellIds.
+            for (; index < cellIds.length && cellIds[index] <= to; index++) {
+                consumer.accept(cellOrdinals, cellStart[index], cellStart[index + 1]);
+            }
+        }
+    }
+
+    private static int latCell(double latitude, double cellDegrees) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+    }
+
+    private static int lonCell(double longitude, double cellDegrees) {
+        return (int) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / cellDegrees);
+    }
+
+    private static int cellId(int latCell, int lonCell, int lonCells) {
+        // A longitude of exactly 180 falls in cell lonCells, hence lonCells + 1 cells per row.
+        return latCell * (lonCells + 1) + lonCell;
+    }
+
+    /**
+     * Receives the ordinals {@code ordinals[from..to)}, sorted ascending.
+     */
+    @FunctionalInterface
+    private interface RunConsumer {
+
+        void accept(int[] ordinals, int from, int to);
+    }
+}
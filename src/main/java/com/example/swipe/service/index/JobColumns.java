@@ -0,0 +1,601 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.utility.ApplicationUtilities;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar store of the jobs of a catalog: one array per field, indexed by job ordinal.
+ * <br>
+ * The fields read while matching are primitive arrays (location, workers required, driver license, jobId) and the
+ * required certificates an interned set id, so scanning the candidates reads a few contiguous arrays instead of a
+ * {@link Job}, its boxed fields, its {@link Coordinates} and its certificate list per candidate. The display fields are
+ * stored apart and a {@link Job} is only materialized, by {@link #getJob(int)}, for the jobs returned to the caller.
+ * <br>
+ * Values repeated across jobs are stored once: company, job title, bill rate and certificate sets. The fields ranked on
+ * are also kept in primitive form, derived once when a job is added: bill rate in cents, start time in epoch seconds and
+ * a hash of the job title.
+ * <br>
+ * Immutable once built: {@link #append(List)} returns a new store.
+ */
+public final class JobColumns {
+
+    public static final JobColumns EMPTY = builder(0).build();
+
+    // Flags of the serialized form.
+    private static final int WITHOUT_JOB_ID = 1;
+    private static final int DRIVER_LICENSE_REQUIRED = 2;
+
+    private final int size;
+
+    // Matching columns.
+    private final long[] jobIds;
+    private final BitSet withoutJobId;
+    // NaN for a job without location.
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] workersRequired;
+    private final BitSet driverLicenseRequired;
+    // Index into certificateLists / certificateBits, -1 for a job without certificate list.
+    private final int[] certificateSets;
+    private final List<List<String>> certificateLists;
+    private final List<long[]> certificateBits;
+
+    // Ranking columns. -1 for a bill rate that is missing or not a price, Long.MIN_VALUE for an unknown start time.
+    private final int[] billRateCents;
+    private final int maxBillRateCents;
+    private final long[] startSeconds;
+    private final int[] titleHashes;
+
+    // Display columns.
+    private final String[] guids;
+    private final String[] companies;
+    private final String[] jobTitles;
+    private final String[] abouts;
+    private final Instant[] startTimes;
+    private final String[] billRates;
+
+    private JobColumns(Builder builder) {
+        this.size = builder.size;
+        this.jobIds = builder.jobIds;
+        this.withoutJobId = builder.withoutJobId;
+        this.latitudes = builder.latitudes;
+        this.longitudes = builder.longitudes;
+        this.workersRequired = builder.workersRequired;
+        this.driverLicenseRequired = builder.driverLicenseRequired;
+        this.certificateSets = builder.certificateSets;
+        this.certificateLists = builder.certificateLists;
+        this.certificateBits = builder.certificateBits;
+        this.billRateCents = builder.billRateCents;
+        this.startSeconds = builder.startSeconds;
+        this.titleHashes = builder.titleHashes;
+        int maxBillRateCents = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            maxBillRateCents = Math.max(maxBillRateCents, billRateCents[ordinal]);
+        }
+        this.maxBillRateCents = maxBillRateCents;
+        this.guids = builder.guids;
+        this.companies = builder.companies;
+        this.jobTitles = builder.jobTitles;
+        this.abouts = builder.abouts;
+        this.startTimes = builder.startTimes;
+        this.billRates = builder.billRates;
+    }
+
+    /**
+     * Stores the given jobs, the job at position {@code i} getting ordinal {@code i}.
+     *
+     * @param jobs Jobs of the catalog, not null.
+     * @return JobColumns
+     */
+    public static JobColumns of(List<Job> jobs) {
+        Builder builder = builder(jobs.size());
+        jobs.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Returns a copy of this store with the jobs appended, the first one getting ordinal {@link #size()}.
+     *
+     * @param jobs Jobs to append, not null.
+     * @return JobColumns
+     */
+    public JobColumns append(List<Job> jobs) {
+        Builder builder = new Builder(this, size + jobs.size());
+        jobs.forEach(builder::add);
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasJobId(int ordinal) {
+        return !withoutJobId.get(ordinal);
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return the jobId, or {@link Long#MAX_VALUE} for a job without one so that it ranks last.
+     */
+    public long getRankingJobId(int ordinal) {
+        return withoutJobId.get(ordinal) ? Long.MAX_VALUE : jobIds[ordinal];
+    }
+
+    public boolean hasLocation(int ordinal) {
+        return !Double.isNaN(latitudes[ordinal]);
+    }
+
+    public double getLatitude(int ordinal) {
+        return latitudes[ordinal];
+    }
+
+    public double getLongitude(int ordinal) {
+        return longitudes[ordinal];
+    }
+
+    public int getWorkersRequired(int ordinal) {
+        return workersRequired[ordinal];
+    }
+
+    public boolean isDriverLicenseRequired(int ordinal) {
+        return driverLicenseRequired.get(ordinal);
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return {@link DayMask#dayIndex(Instant) day index} of the start time, 0 if unknown.
+     */
+    public int getStartDayIndex(int ordinal) {
+        return DayMask.dayIndex(startTimes[ordinal]);
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return bill rate in cents, -1 if missing or not a price.
+     */
+    public int getBillRateCents(int ordinal) {
+        return billRateCents[ordinal];
+    }
+
+    /**
+     * @return highest bill rate of the store in cents, 0 if none. Includes the jobs a patched snapshot removed.
+     */
+    public int getMaxBillRateCents() {
+        return maxBillRateCents;
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return start time in epoch seconds, {@link Long#MIN_VALUE} if unknown.
+     */
+    public long getStartEpochSecond(int ordinal) {
+        return startSeconds[ordinal];
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return {@link #titleHash(String)} of the job title.
+     */
+    public int getTitleHash(int ordinal) {
+        return titleHashes[ordinal];
+    }
+
+    public String getJobTitle(int ordinal) {
+        return jobTitles[ordinal];
+    }
+
+    /**
+     * Case insensitive hash of a job title or skill, so that a skill only needs an exact comparison with the titles of the
+     * same hash.
+     *
+     * @param title Job title, may be null.
+     * @return hash, 0 for null.
+     */
+    public static int titleHash(String title) {
+        return title == null ? 0 : title.trim().toLowerCase(Locale.ROOT).hashCode();
+    }
+
+    /**
+     * @param ordinal Job ordinal.
+     * @return {@link CertificateDictionary} bitset of the required certificates, or null. Shared, must not be modified.
+     */
+    public long[] getRequiredCertificateBits(int ordinal) {
+        int set = certificateSets[ordinal];
+        return set < 0 ? null : certificateBits.get(set);
+    }
+
+    /**
+     * Materializes the job. Every call returns a new {@link Job}.
+     *
+     * @param ordinal Job ordinal.
+     * @return Job
+     */
+    public Job getJob(int ordinal) {
+        int set = certificateSets[ordinal];
+        Job job = Job.builder()
+                .jobId(withoutJobId.get(ordinal) ? null : jobIds[ordinal])
+                .guid(guids[ordinal])
+                .company(companies[ordinal])
+                .jobTitle(jobTitles[ordinal])
+                .about(abouts[ordinal])
+                .startTime(startTimes[ordinal])
+                .workersRequired(workersRequired[ordinal])
+                .billRate(billRates[ordinal])
+                .location(hasLocation(ordinal) ? new Coordinates(longitudes[ordinal], latitudes[ordinal]) : null)
+                .requiredCertificates(set < 0 ? null : certificateLists.get(set))
+                .driverLicenseRequired(driverLicenseRequired.get(ordinal))
+                .build();
+        job.setRequiredCertificateBits(getRequiredCertificateBits(ordinal));
+        return job;
+    }
+
+    /**
+     * Whether the job carries the same data as the stored one, i.e. every field read from the CORE system is equal.
+     *
+     * @param ordinal Job ordinal.
+     * @param job     {@link Job} read again.
+     * @return
+     */
+    public boolean sameContent(int ordinal, Job job) {
+        Long jobId = job.getJobId();
+        Coordinates location = job.getLocation();
+        int set = certificateSets[ordinal];
+        return (jobId == null ? withoutJobId.get(ordinal) : !withoutJobId.get(ordinal) && jobIds[ordinal] == jobId)
+                && workersRequired[ordinal] == job.getWorkersRequired()
+                && driverLicenseRequired.get(ordinal) == job.getDriverLicenseRequired()
+                && (location == null
+                        ? !hasLocation(ordinal)
+                        : Double.compare(latitudes[ordinal], location.getLatitude()) == 0 && Double.compare(longitudes[ordinal], location.getLongitude()) == 0)
+                && Objects.equals(set < 0 ? null : certificateLists.get(set), job.getRequiredCertificates())
+                && Objects.equals(startTimes[ordinal], job.getStartTime())
+                && Objects.equals(guids[ordinal], job.getGuid())
+                && Objects.equals(companies[ordinal], job.getCompany())
+                && Objects.equals(jobTitles[ordinal], job.getJobTitle())
+                && Objects.equals(billRates[ordinal], job.getBillRate())
+                && Objects.equals(abouts[ordinal], job.getAbout());
+    }
+
+    /**
+     * Writes the jobs at the given ordinals, column by column, in the format read by {@link #read(ByteBuffer)}.
+     * Certificates are written by name: {@link CertificateDictionary} ids are only valid within one process.
+     *
+     * @param out      Destination.
+     * @param ordinals Ordinals of the jobs to write, the first one being read back as ordinal 0.
+     * @throws IOException if the destination fails.
+     */
+    public void write(DataOutput out, int[] ordinals) throws IOException {
+        out.writeInt(ordinals.length);
+        for (int ordinal : ordinals) {
+            out.writeLong(jobIds[ordinal]);
+        }
+        for (int ordinal : ordinals) {
+            out.writeByte((withoutJobId.get(ordinal) ? WITHOUT_JOB_ID : 0) | (driverLicenseRequired.get(ordinal) ? DRIVER_LICENSE_REQUIRED : 0));
+        }
+        for (int ordinal : ordinals) {
+            out.writeDouble(latitudes[ordinal]);
+        }
+        for (int ordinal : ordinals) {
+            out.writeDouble(longitudes[ordinal]);
+        }
+        for (int ordinal : ordinals) {
+            out.writeInt(workersRequired[ordinal]);
+        }
+        for (int ordinal : ordinals) {
+            out.writeInt(certificateSets[ordinal]);
+        }
+        out.writeInt(certificateLists.size());
+        for (List<String> certificates : certificateLists) {
+            out.writeInt(certificates.size());
+            for (String certificate : certificates) {
+                writeString(out, certificate);
+            }
+        }
+        for (String[] column : Arrays.asList(guids, companies, jobTitles, abouts, billRates)) {
+            for (int ordinal : ordinals) {
+                writeString(out, column[ordinal]);
+            }
+        }
+        for (int ordinal : ordinals) {
+            Instant startTime = startTimes[ordinal];
+            out.writeLong(startTime == null ? Long.MIN_VALUE : startTime.getEpochSecond());
+            out.writeInt(startTime == null ? 0 : startTime.getNano());
+        }
+    }
+
+    /**
+     * Reads the columns written by {@link #write(DataOutput, int[])}. The primitive columns are bulk copied out of the
+     * buffer.
+     *
+     * @param buffer Source, positioned at the start of the columns. Left positioned after them.
+     * @return JobColumns
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the columns.
+     */
+    public static JobColumns read(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        Builder builder = new Builder(size);
+        byte[][] scratch = {new byte[256]};
+        builder.size = size;
+
+        buffer.asLongBuffer().get(builder.jobIds, 0, size);
+        buffer.position(buffer.position() + size * Long.BYTES);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            byte flags = buffer.get();
+            builder.withoutJobId.set(ordinal, (flags & WITHOUT_JOB_ID) != 0);
+            builder.driverLicenseRequired.set(ordinal, (flags & DRIVER_LICENSE_REQUIRED) != 0);
+        }
+        buffer.asDoubleBuffer().get(builder.latitudes, 0, size);
+        buffer.position(buffer.position() + size * Double.BYTES);
+        buffer.asDoubleBuffer().get(builder.longitudes, 0, size);
+        buffer.position(buffer.position() + size * Double.BYTES);
+        buffer.asIntBuffer().get(builder.workersRequired, 0, size);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        int[] sets = new int[size];
+        buffer.asIntBuffer().get(sets);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+
+        // Set ids are remapped: equal sets written separately are stored once.
+        int[] setIds = new int[buffer.getInt()];
+        for (int set = 0; set < setIds.length; set++) {
+            List<String> certificates = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                certificates.add(readString(buffer, scratch));
+            }
+            setIds[set] = builder.certificateSet(certificates);
+        }
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            builder.certificateSets[ordinal] = sets[ordinal] < 0 ? -1 : setIds[sets[ordinal]];
+        }
+
+        for (String[] column : Arrays.asList(builder.guids, builder.companies, builder.jobTitles, builder.abouts, builder.billRates)) {
+            boolean intern = column != builder.guids && column != builder.abouts;
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                String value = readString(buffer, scratch);
+                column[ordinal] = intern ? builder.intern(value) : value;
+            }
+        }
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            long seconds = buffer.getLong();
+            int nanos = buffer.getInt();
+            builder.startTimes[ordinal] = seconds == Long.MIN_VALUE ? null : Instant.ofEpochSecond(seconds, nanos);
+            builder.derive(ordinal);
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[][] scratch) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (scratch[0].length < length) {
+            scratch[0] = new byte[Math.max(length, scratch[0].length * 2)];
+        }
+        buffer.get(scratch[0], 0, length);
+        return new String(scratch[0], 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fills the columns one job at a time. Certificates are encoded with {@link CertificateDictionary} once per distinct
+     * set.
+     */
+    public static final class Builder {
+
+        private final CertificateDictionary dictionary = CertificateDictionary.getInstance();
+        private final Map<List<String>, Integer> certificateSetIds = new HashMap<>();
+        private final Map<String, String> strings = new HashMap<>();
+
+        private int size;
+        private long[] jobIds;
+        private final BitSet withoutJobId;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int[] workersRequired;
+        private final BitSet driverLicenseRequired;
+        private int[] certificateSets;
+        private final List<List<String>> certificateLists;
+        private final List<long[]> certificateBits;
+        private int[] billRateCents;
+        private long[] startSeconds;
+        private int[] titleHashes;
+        private String[] guids;
+        private String[] companies;
+        private String[] jobTitles;
+        private String[] abouts;
+        private Instant[] startTimes;
+        private String[] billRates;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            jobIds = new long[capacity];
+            withoutJobId = new BitSet();
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            workersRequired = new int[capacity];
+            driverLicenseRequired = new BitSet();
+            certificateSets = new int[capacity];
+            certificateLists = new ArrayList<>();
+            certificateBits = new ArrayList<>();
+            billRateCents = new int[capacity];
+            startSeconds = new long[capacity];
+            titleHashes = new int[capacity];
+            guids = new String[capacity];
+            companies = new String[capacity];
+            jobTitles = new String[capacity];
+            abouts = new String[capacity];
+            startTimes = new Instant[capacity];
+            billRates = new String[capacity];
+        }
+
+        // Starts from a copy of the base columns, which stays unchanged.
+        private Builder(JobColumns base, int expectedSize) {
+            int capacity = Math.max(expectedSize, base.size);
+            size = base.size;
+            jobIds = Arrays.copyOf(base.jobIds, capacity);
+            withoutJobId = (BitSet) base.withoutJobId.clone();
+            latitudes = Arrays.copyOf(base.latitudes, capacity);
+            longitudes = Arrays.copyOf(base.longitudes, capacity);
+            workersRequired = Arrays.copyOf(base.workersRequired, capacity);
+            driverLicenseRequired = (BitSet) base.driverLicenseRequired.clone();
+            certificateSets = Arrays.copyOf(base.certificateSets, capacity);
+            certificateLists = new ArrayList<>(base.certificateLists);
+            certificateBits = new ArrayList<>(base.certificateBits);
+            for (int set = 0; set < certificateLists.size(); set++) {
+                certificateSetIds.put(certificateLists.get(set), set);
+            }
+            billRateCents = Arrays.copyOf(base.billRateCents, capacity);
+            startSeconds = Arrays.copyOf(base.startSeconds, capacity);
+            titleHashes = Arrays.copyOf(base.titleHashes, capacity);
+            guids = Arrays.copyOf(base.guids, capacity);
+            companies = Arrays.copyOf(base.companies, capacity);
+            jobTitles = Arrays.copyOf(base.jobTitles, capacity);
+            abouts = Arrays.copyOf(base.abouts, capacity);
+            startTimes = Arrays.copyOf(base.startTimes, capacity);
+            billRates = Arrays.copyOf(base.billRates, capacity);
+        }
+
+        /**
+         * Adds the job with the next ordinal. The job itself is not retained.
+         *
+         * @param job {@link Job}, not null.
+         */
+        public void add(Job job) {
+            if (size == jobIds.length) {
+                resize(jobIds.length + (jobIds.length >> 1));
+            }
+            int ordinal = size++;
+            if (job.getJobId() == null) {
+                withoutJobId.set(ordinal);
+            } else {
+                jobIds[ordinal] = job.getJobId();
+            }
+            Coordinates location = job.getLocation();
+            latitudes[ordinal] = location == null ? Double.NaN : location.getLatitude();
+            longitudes[ordinal] = location == null ? Double.NaN : location.getLongitude();
+            workersRequired[ordinal] = job.getWorkersRequired();
+            driverLicenseRequired.set(ordinal, job.getDriverLicenseRequired());
+            certificateSets[ordinal] = certificateSet(job.getRequiredCertificates());
+            guids[ordinal] = job.getGuid();
+            companies[ordinal] = intern(job.getCompany());
+            jobTitles[ordinal] = intern(job.getJobTitle());
+            abouts[ordinal] = job.getAbout();
+            startTimes[ordinal] = job.getStartTime();
+            billRates[ordinal] = intern(job.getBillRate());
+            derive(ordinal);
+        }
+
+        /**
+         * Adds the job stored at the ordinal of another store with the next ordinal, without materializing it.
+         *
+         * @param source  Store holding the job.
+         * @param ordinal Ordinal of the job in the source.
+         */
+        public void add(JobColumns source, int ordinal) {
+            if (size == jobIds.length) {
+                resize(jobIds.length + (jobIds.length >> 1));
+            }
+            int target = size++;
+            withoutJobId.set(target, source.withoutJobId.get(ordinal));
+            jobIds[target] = source.jobIds[ordinal];
+            latitudes[target] = source.latitudes[ordinal];
+            longitudes[target] = source.longitudes[ordinal];
+            workersRequired[target] = source.workersRequired[ordinal];
+            driverLicenseRequired.set(target, source.driverLicenseRequired.get(ordinal));
+            int set = source.certificateSets[ordinal];
+            certificateSets[target] = set < 0 ? -1 : certificateSet(source.certificateLists.get(set));
+            guids[target] = source.guids[ordinal];
+            companies[target] = source.companies[ordinal];
+            jobTitles[target] = source.jobTitles[ordinal];
+            abouts[target] = source.abouts[ordinal];
+            startTimes[target] = source.startTimes[ordinal];
+            billRates[target] = source.billRates[ordinal];
+            billRateCents[target] = source.billRateCents[ordinal];
+            startSeconds[target] = source.startSeconds[ordinal];
+            titleHashes[target] = source.titleHashes[ordinal];
+        }
+
+        /**
+         * Builds the store. The builder must not be used afterwards.
+         *
+         * @return JobColumns
+         */
+        public JobColumns build() {
+            if (jobIds.length != size) {
+                resize(size);
+            }
+            return new JobColumns(this);
+        }
+
+        private int certificateSet(List<String> certificates) {
+            if (certificates == null) {
+                return -1;
+            }
+            Integer set = certificateSetIds.get(certificates);
+            if (set == null) {
+                List<String> copy = Collections.unmodifiableList(new ArrayList<>(certificates));
+                set = certificateLists.size();
+                certificateLists.add(copy);
+                certificateBits.add(dictionary.encode(copy));
+                certificateSetIds.put(copy, set);
+            }
+            return set;
+        }
+
+        // Fills the ranking columns from the display columns of the ordinal.
+        private void derive(int ordinal) {
+            billRateCents[ordinal] = ApplicationUtilities.parseCents(billRates[ordinal]);
+            startSeconds[ordinal] = startTimes[ordinal] == null ? Long.MIN_VALUE : startTimes[ordinal].getEpochSecond();
+            titleHashes[ordinal] = titleHash(jobTitles[ordinal]);
+        }
+
+        private String intern(String value) {
+            return value == null ? null : strings.computeIfAbsent(value, v -> v);
+        }
+
+        private void resize(int capacity) {
+            jobIds = Arrays.copyOf(jobIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            workersRequired = Arrays.copyOf(workersRequired, capacity);
+            certificateSets = Arrays.copyOf(certificateSets, capacity);
+            billRateCents = Arrays.copyOf(billRateCents, capacity);
+            startSeconds = Arrays.copyOf(startSeconds, capacity);
+            titleHashes = Arrays.copyOf(titleHashes, capacity);
+            guids = Arrays.copyOf(guids, capacity);
+            companies = Arrays.copyOf(companies, capacity);
+            jobTitles = Arrays.copyOf(jobTitles, capacity);
+            abouts = Arrays.copyOf(abouts, capacity);
+            startTimes = Arrays.copyOf(startTimes, capacity);
+            billRates = Arrays.copyOf(billRates, capacity);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Inverted index of a job catalog: for each filterable attribute, the compressed set ({@link RoaringBitmap}) of job
+ * ordinals (positions in the {@link JobColumns}) having it.
+ * <br>
+ * Candidate generation intersects these posting lists, so the per-job objects are only touched for jobs that already
+ * passed every attribute filter. Posting lists are immutable once built: callers combine them with the static
+ * {@link RoaringBitmap} operations which return new bitmaps.
+ */
+public final class JobPostingIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final RoaringBitmap open;
+    private final RoaringBitmap noLicenseRequired;
+    private final RoaringBitmap[] byCertificate;
+    // Jobs by {@link DayMask#dayIndex(java.time.Instant) day index} of their start, 0 for the jobs without start time.
+    private final RoaringBitmap[] byStartDay;
+    // Open jobs a worker available on the days of a mask can take, by mask. Computed on first use: workers share few masks.
+    private final AtomicReferenceArray<RoaringBitmap> openByAvailableDays = new AtomicReferenceArray<>(DayMask.ALL + 1);
+
+    private JobPostingIndex(RoaringBitmap open, RoaringBitmap noLicenseRequired, RoaringBitmap[] byCertificate, RoaringBitmap[] byStartDay) {
+        this.open = open;
+        this.noLicenseRequired = noLicenseRequired;
+        this.byCertificate = byCertificate;
+        this.byStartDay = byStartDay;
+    }
+
+    /**
+     * Builds the posting lists of the jobs, by position in the list.
+     *
+     * @param jobs Jobs of the catalog.
+     * @return JobPostingIndex
+     */
+    public static JobPostingIndex build(List<Job> jobs) {
+        return build(JobColumns.of(jobs), 0, jobs.size());
+    }
+
+    /**
+     * Builds the posting lists of the jobs of a store with an ordinal in {@code [from, to)}.
+     *
+     * @param columns {@link JobColumns}
+     * @param from    First ordinal, inclusive.
+     * @param to      Last ordinal, exclusive.
+     * @return JobPostingIndex
+     */
+    public static JobPostingIndex build(JobColumns columns, int from, int to) {
+        RoaringBitmap open = new RoaringBitmap();
+        RoaringBitmap noLicenseRequired = new RoaringBitmap();
+        List<RoaringBitmap> byCertificate = new ArrayList<>();
+        RoaringBitmap[] byStartDay = new RoaringBitmap[8];
+        Arrays.setAll(byStartDay, day -> new RoaringBitmap());
+
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            if (columns.getWorkersRequired(ordinal) > 0) {
+                open.add(ordinal);
+            }
+            if (!columns.isDriverLicenseRequired(ordinal)) {
+                noLicenseRequired.add(ordinal);
+            }
+            byStartDay[columns.getStartDayIndex(ordinal)].add(ordinal);
+            long[] certificates = columns.getRequiredCertificateBits(ordinal);
+            for (int word = 0; certificates != null && word < certificates.length; word++) {
+                for (long bits = certificates[word]; bits != 0; bits &= bits - 1) {
+                    int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    while (byCertificate.size() <= id) {
+                        byCertificate.add(null);
+                    }
+                    if (byCertificate.get(id) == null) {
+                        byCertificate.set(id, new RoaringBitmap());
+                    }
+                    byCertificate.get(id).add(ordinal);
+                }
+            }
+        }
+
+        open.runOptimize();
+        noLicenseRequired.runOptimize();
+        byCertificate.forEach(postings -> {
+            if (postings != null) {
+                postings.runOptimize();
+            }
+        });
+        for (RoaringBitmap postings : byStartDay) {
+            postings.runOptimize();
+        }
+        return new JobPostingIndex(open, noLicenseRequired, byCertificate.toArray(new RoaringBitmap[0]), byStartDay);
+    }
+
+    /**
+     * Returns a copy of this index with the removed ordinals dropped from every posting list and the appended jobs
+     * indexed. Only the posting lists the patch touches are copied, the others are shared with this index.
+     *
+     * @param removed      Ordinals no longer in the catalog.
+     * @param columns      {@link JobColumns} of the patched catalog.
+     * @param firstOrdinal Ordinal of the first appended job, the last one being {@code columns.size() - 1}.
+     * @return JobPostingIndex
+     */
+    public JobPostingIndex patch(RoaringBitmap removed, JobColumns columns, int firstOrdinal) {
+        JobPostingIndex additions = build(columns, firstOrdinal, columns.size());
+        RoaringBitmap open = patch(this.open, removed, additions.open);
+        RoaringBitmap noLicenseRequired = patch(this.noLicenseRequired, removed, additions.noLicenseRequired);
+
+        RoaringBitmap[] byCertificate = Arrays.copyOf(this.byCertificate, Math.max(this.byCertificate.length, additions.byCertificate.length));
+        for (int id = 0; id < byCertificate.length; id++) {
+            RoaringBitmap postings = byCertificate[id] != null ? byCertificate[id] : EMPTY;
+            RoaringBitmap added = id < additions.byCertificate.length && additions.byCertificate[id] != null ? additions.byCertificate[id] : EMPTY;
+            if (added.isEmpty() && !RoaringBitmap.intersects(postings, removed)) {
+                continue;
+            }
+            byCertificate[id] = patch(postings, removed, added);
+        }
+
+        RoaringBitmap[] byStartDay = this.byStartDay.clone();
+        for (int day = 0; day < byStartDay.length; day++) {
+            if (!additions.byStartDay[day].isEmpty() || RoaringBitmap.intersects(byStartDay[day], removed)) {
+                byStartDay[day] = patch(byStartDay[day], removed, additions.byStartDay[day]);
+            }
+        }
+        return new JobPostingIndex(open, noLicenseRequired, byCertificate, byStartDay);
+    }
+
+    private static RoaringBitmap patch(RoaringBitmap postings, RoaringBitmap removed, RoaringBitmap added) {
+        RoaringBitmap patched = RoaringBitmap.andNot(postings, removed);
+        patched.or(added);
+        patched.runOptimize();
+        return patched;
+    }
+
+    /**
+     * Jobs with workersRequired greater than 0.
+     *
+     * @return posting list. Must not be modified.
+     */
+    public RoaringBitmap getOpen() {
+        return open;
+    }
+
+    /**
+     * Jobs which do not require a driver license.
+     *
+     * @return posting list. Must not be modified.
+     */
+    public RoaringBitmap getNoLicenseRequired() {
+        return noLicenseRequired;
+    }
+
+    /**
+     * Open jobs a worker available on the days of the mask can take: those starting on one of the days, and those without
+     * start time.
+     *
+     * @param availableDays {@link DayMask}
+     * @return posting list. Must not be modified.
+     */
+    public RoaringBitmap getOpenStartingOnAnyDay(int availableDays) {
+        if (availableDays == DayMask.ALL) {
+            return open;
+        }
+        RoaringBitmap postings = openByAvailableDays.get(availableDays);
+        if (postings == null) {
+            List<RoaringBitmap> days = new ArrayList<>(8);
+            days.add(byStartDay[0]);
+            for (int day = 1; day < byStartDay.length; day++) {
+                if (DayMask.contains(availableDays, day)) {
+                    days.add(byStartDay[day]);
+                }
+            }
+            postings = FastAggregation.or(days.iterator());
+            postings.and(open);
+            postings.runOptimize();
+            // Racing threads compute equal bitmaps, the first one is kept.
+            if (!openByAvailableDays.compareAndSet(availableDays, null, postings)) {
+                postings = openByAvailableDays.get(availableDays);
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Jobs requiring the certificate.
+     *
+     * @param certificateId {@link CertificateDictionary} id.
+     * @return posting list, empty if no job requires it. Must not be modified.
+     */
+    public RoaringBitmap getRequiringCertificate(int certificateId) {
+        RoaringBitmap postings = certificateId < byCertificate.length ? byCertificate[certificateId] : null;
+        return postings != null ? postings : EMPTY;
+    }
+
+    /**
+     * Jobs requiring at least one of the certificates, i.e. the jobs with a certificate score above 0.
+     *
+     * @param certificateBits {@link CertificateDictionary} bitset.
+     * @return new bitmap.
+     */
+    public RoaringBitmap getRequiringAnyCertificate(long[] certificateBits) {
+        List<RoaringBitmap> postings = new ArrayList<>();
+        for (int word = 0; word < certificateBits.length; word++) {
+            for (long bits = certificateBits[word]; bits != 0; bits &= bits - 1) {
+                RoaringBitmap list = getRequiringCertificate((word << 6) + Long.numberOfTrailingZeros(bits));
+                if (!list.isEmpty()) {
+                    postings.add(list);
+                }
+            }
+        }
+        return postings.isEmpty() ? new RoaringBitmap() : FastAggregation.or(postings.iterator());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.swipe.service.index;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Jobs a worker already swiped, by jobId.
+ * <br>
+ * Up to {@code maxExactJobs} jobs are kept as a sorted array, binary searched. Beyond that the set upgrades to a
+ * scalable Bloom filter: a chain of filters of about 1% false positives each, a new filter of twice the capacity being
+ * started when the current one is full. A false positive only hides a job the worker has not swiped.
+ * <br>
+ * Writers must not run concurrently (see {@link #add(long)}); readers never lock and may run alongside a writer.
+ */
+public final class SeenJobs {
+
+    // -ln(0.01) / ln(2)^2 bits per job and ln(2) * bits per job hashes give about 1% false positives.
+    private static final int BITS_PER_JOB = 10;
+    private static final int HASHES = 7;
+
+    private final int maxExactJobs;
+    private final int bloomCapacity;
+    // Replaced on every add while exact, null once upgraded.
+    private volatile long[] sorted = new long[0];
+    private volatile BloomFilter bloom;
+    private volatile int size;
+
+    /**
+     * @param maxExactJobs  Jobs kept exactly before upgrading to a Bloom filter.
+     * @param bloomCapacity Jobs of the first Bloom filter. Raised to twice maxExactJobs if lower.
+     */
+    public SeenJobs(int maxExactJobs, int bloomCapacity) {
+        this.maxExactJobs = Math.max(maxExactJobs, 0);
+        this.bloomCapacity = Math.max(Math.max(bloomCapacity, 2 * this.maxExactJobs), 64);
+    }
+
+    /**
+     * Adds a job. Synchronized, so that swipes of one worker recorded concurrently are all kept.
+     *
+     * @param jobId Referring to {@link com.example.swipe.domain.Job#jobId}
+     * @return true if the job was not in the set (or a false positive of the Bloom filter).
+     */
+    public synchronized boolean add(long jobId) {
+        long[] exact = sorted;
+        if (exact != null) {
+            int slot = Arrays.binarySearch(exact, jobId);
+            if (slot >= 0) {
+                return false;
+            }
+            if (exact.length < maxExactJobs) {
+                int insertion = -slot - 1;
+                long[] grown = new long[exact.length + 1];
+                System.arraycopy(exact, 0, grown, 0, insertion);
+                grown[insertion] = jobId;
+                System.arraycopy(exact, insertion, grown, insertion + 1, exact.length - insertion);
+                sorted = grown;
+                size = grown.length;
+                return true;
+            }
+            BloomFilter upgraded = new BloomFilter(bloomCapacity, null);
+            for (long seen : exact) {
+                upgraded.add(seen);
+            }
+            bloom = upgraded;
+            sorted = null;
+        }
+        if (bloom.contains(jobId)) {
+            return false;
+        }
+        if (bloom.count == bloom.capacity) {
+            bloom = new BloomFilter(bloom.capacity * 2, bloom);
+        }
+        bloom.add(jobId);
+        size++;
+        return true;
+    }
+
+    /**
+     * @param jobId Referring to {@link com.example.swipe.domain.Job#jobId}
+     * @return true if the job was added, or is a false positive of the Bloom filter.
+     */
+    public boolean contains(long jobId) {
+        long[] exact = sorted;
+        return exact != null ? Arrays.binarySearch(exact, jobId) >= 0 : bloom.contains(jobId);
+    }
+
+    /**
+     * @return number of jobs added, without the false positives of the Bloom filter.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isExact() {
+        return sorted != null;
+    }
+
+    private static final class BloomFilter {
+
+        private final int capacity;
+        private final long bits;
+        private final AtomicLongArray words;
+        private final BloomFilter previous;
+        private int count;
+
+        private BloomFilter(int capacity, BloomFilter previous) {
+            this.capacity = capacity;
+            this.words = new AtomicLongArray((int) (((long) capacity * BITS_PER_JOB + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.previous = previous;
+        }
+
+        private void add(long jobId) {
+            long hash = mix(jobId);
+            long first = hash;
+            long second = (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(first + i * second, bits);
+                int word = (int) (bit >>> 6);
+                // Only one writer at a time: the array only publishes the bits to the readers.
+                words.set(word, words.get(word) | (1L << bit));
+            }
+            count++;
+        }
+
+        private boolean contains(long jobId) {
+            long hash = mix(jobId);
+            long first = hash;
+            long second = (hash >>> 32) | 1;
+            for (BloomFilter filter = this; filter != null; filter = filter.previous) {
+                if (filter.containsHash(first, second)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean containsHash(long first, long second) {
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(first + i * second, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Finalizer of MurmurHash3: consecutive jobIds spread over the whole filter.
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb93fe53ae63bL;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
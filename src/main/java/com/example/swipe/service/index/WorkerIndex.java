@@ -0,0 +1,282 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.utility.DistanceQuery;
+import com.example.swipe.utility.IntArrayList;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Worker side index, answering the inverse of the job search: which workers a job should be pushed to.
+ * <br>
+ * Each worker's search area (the circle of {@link Worker#jobSearchAddress} and its maxJobDistance) is registered in
+ * every cell of a coarse latitude/longitude grid its bounding box overlaps. A job then only looks up the single cell of
+ * its location, and the exact distance is checked against the workers registered there. Driver licenses, available
+ * days and certificates are posting lists of worker ordinals, intersected before any worker is looked at.
+ * <br>
+ * The index mirrors the filters of the job search, so a job is matched to a worker exactly when the search of that
+ * worker would return it given a large enough limit: a job without open positions matches nobody, a job without
+ * location matches every worker, and a worker without a complete search preference matches every location. A job
+ * without start time matches workers of any availability.
+ */
+public final class WorkerIndex {
+
+    /**
+     * Cell size of about 111 km in latitude. Worker radii are typically 20-50 km, so an area spans a few cells only.
+     */
+    public static final double DEFAULT_CELL_DEGREES = 1.0;
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final double cellDegrees;
+    private final int lonCells;
+    // Workers by ordinal, sorted by userId.
+    private final long[] userIds;
+    // Search area of each worker, null if the worker accepts any location.
+    private final DistanceQuery[] areas;
+    private final long[][] certificateBits;
+    private final RoaringBitmap all;
+    private final RoaringBitmap anywhere;
+    private final RoaringBitmap licensed;
+    // Workers available on a day, by ISO day index (1...7).
+    private final RoaringBitmap[] byAvailableDay;
+    // Workers whose area overlaps a cell, by cell id. Null for a cell no area overlaps.
+    private final RoaringBitmap[] byCell;
+    private final RoaringBitmap[] byCertificate;
+
+    private WorkerIndex(double cellDegrees, long[] userIds, DistanceQuery[] areas, long[][] certificateBits,
+                        RoaringBitmap anywhere, RoaringBitmap licensed, RoaringBitmap[] byAvailableDay, RoaringBitmap[] byCell,
+                        RoaringBitmap[] byCertificate) {
+        this.cellDegrees = cellDegrees;
+        this.lonCells = lonCells(cellDegrees);
+        this.userIds = userIds;
+        this.areas = areas;
+        this.certificateBits = certificateBits;
+        this.all = RoaringBitmap.bitmapOfRange(0, userIds.length);
+        this.anywhere = anywhere;
+        this.licensed = licensed;
+        this.byAvailableDay = byAvailableDay;
+        this.byCell = byCell;
+        this.byCertificate = byCertificate;
+    }
+
+    public static WorkerIndex build(List<Worker> workers, Function<Worker, DistanceQuery> areaOf, ToIntFunction<Worker> availableDaysOf) {
+        return build(workers, areaOf, availableDaysOf, DEFAULT_CELL_DEGREES);
+    }
+
+    /**
+     * Indexes the workers. Workers without userId are ignored.
+     *
+     * @param workers         Workers to push jobs to.
+     * @param areaOf          Search area of a worker, null if the worker accepts any location. Expected to be the query
+     *                        the job search prepares for that worker.
+     * @param availableDaysOf {@link DayMask} of the days a worker can start a job on, as applied by the job search.
+     * @param cellDegrees     Cell size in degrees.
+     * @return WorkerIndex
+     */
+    public static WorkerIndex build(List<Worker> workers, Function<Worker, DistanceQuery> areaOf, ToIntFunction<Worker> availableDaysOf,
+                                    double cellDegrees) {
+        if (!(cellDegrees > 0) || (360 / cellDegrees + 1) * (180 / cellDegrees + 1) >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid cell size " + cellDegrees);
+        }
+        List<Worker> sorted = new ArrayList<>(workers.size());
+        for (Worker worker : workers) {
+            if (worker != null && worker.getUserId() != null) {
+                sorted.add(worker);
+            }
+        }
+        sorted.sort(Comparator.comparing(Worker::getUserId));
+
+        int size = sorted.size();
+        int lonCells = lonCells(cellDegrees);
+        long[] userIds = new long[size];
+        DistanceQuery[] areas = new DistanceQuery[size];
+        long[][] certificateBits = new long[size][];
+        RoaringBitmap anywhere = new RoaringBitmap();
+        RoaringBitmap licensed = new RoaringBitmap();
+        RoaringBitmap[] byAvailableDay = new RoaringBitmap[8];
+        Arrays.setAll(byAvailableDay, day -> new RoaringBitmap());
+        IntArrayList[] cellWorkers = new IntArrayList[(latCell(90, cellDegrees) + 1) * (lonCells + 1)];
+        List<RoaringBitmap> byCertificate = new ArrayList<>();
+        CertificateDictionary dictionary = CertificateDictionary.getInstance();
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Worker worker = sorted.get(ordinal);
+            userIds[ordinal] = worker.getUserId();
+            if (Boolean.TRUE.equals(worker.getHasDriverLicense())) {
+                licensed.add(ordinal);
+            }
+            int availableDays = availableDaysOf.applyAsInt(worker);
+            for (int day = 1; day < byAvailableDay.length; day++) {
+                if (DayMask.contains(availableDays, day)) {
+                    byAvailableDay[day].add(ordinal);
+                }
+            }
+
+            long[] bits = worker.getCertificateBits() != null ? worker.getCertificateBits() : dictionary.encode(worker.getCertificates());
+            certificateBits[ordinal] = bits;
+            for (int word = 0; word < bits.length; word++) {
+                for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+                    int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                    while (byCertificate.size() <= id) {
+                        byCertificate.add(new RoaringBitmap());
+                    }
+                    byCertificate.get(id).add(ordinal);
+                }
+            }
+
+            DistanceQuery area = areaOf.apply(worker);
+            areas[ordinal] = area;
+            if (area == null) {
+                anywhere.add(ordinal);
+            } else {
+                register(area, ordinal, cellWorkers, cellDegrees, lonCells);
+            }
+        }
+
+        RoaringBitmap[] byCell = new RoaringBitmap[cellWorkers.length];
+        for (int cell = 0; cell < cellWorkers.length; cell++) {
+            if (cellWorkers[cell] != null) {
+                byCell[cell] = RoaringBitmap.bitmapOf(cellWorkers[cell].toArray());
+                byCell[cell].runOptimize();
+            }
+        }
+        return new WorkerIndex(cellDegrees, userIds, areas, certificateBits, anywhere, licensed, byAvailableDay, byCell,
+                               byCertificate.toArray(new RoaringBitmap[0]));
+    }
+
+    /**
+     * Returns the workers the job matches, i.e. whose search would return it.
+     *
+     * @param job                 {@link Job}
+     * @param minCertificateScore Share (0...1) of the job's required certificates a worker must hold. A job requiring no
+     *                            certificate is met by every worker. 0 to ignore certificates, like the search.
+     * @return userIds of the matching workers, ascending.
+     */
+    public long[] match(Job job, double minCertificateScore) {
+        if (job.getWorkersRequired() <= 0 || userIds.length == 0) {
+            return new long[0];
+        }
+
+        Coordinates location = job.getLocation();
+        RoaringBitmap candidates;
+        if (location == null) {
+            candidates = all.clone();
+        } else {
+            RoaringBitmap cell = byCell[cellId(latCell(location.getLatitude(), cellDegrees), lonCell(location.getLongitude(), cellDegrees), lonCells)];
+            candidates = cell == null ? anywhere.clone() : RoaringBitmap.or(cell, anywhere);
+        }
+        if (job.getDriverLicenseRequired()) {
+            candidates.and(licensed);
+        }
+        int startDay = DayMask.dayIndex(job.getStartTime());
+        if (startDay != 0) {
+            candidates.and(byAvailableDay[startDay]);
+        }
+
+        long[] required = job.getRequiredCertificateBits() != null
+                ? job.getRequiredCertificateBits()
+                : CertificateDictionary.getInstance().encode(job.getRequiredCertificates());
+        int requiredCount = CertificateDictionary.count(required);
+        boolean checkCertificates = minCertificateScore > 0 && requiredCount > 0;
+        if (checkCertificates) {
+            candidates.and(getHoldingAnyCertificate(required));
+        }
+
+        IntArrayList matching = new IntArrayList(Math.max(candidates.getCardinality(), 1));
+        IntIterator ordinals = candidates.getIntIterator();
+        while (ordinals.hasNext()) {
+            int ordinal = ordinals.next();
+            DistanceQuery area = areas[ordinal];
+            if (location != null && area != null && !area.contains(location)) {
+                continue;
+            }
+            if (checkCertificates && (double) CertificateDictionary.countCommon(required, certificateBits[ordinal]) / requiredCount < minCertificateScore) {
+                continue;
+            }
+            matching.add(ordinal);
+        }
+
+        long[] matched = new long[matching.size()];
+        for (int i = 0; i < matched.length; i++) {
+            matched[i] = userIds[matching.get(i)];
+        }
+        return matched;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+
+    private RoaringBitmap getHoldingAnyCertificate(long[] certificateBits) {
+        List<RoaringBitmap> lists = new ArrayList<>();
+        for (int word = 0; word < certificateBits.length; word++) {
+            for (long remaining = certificateBits[word]; remaining != 0; remaining &= remaining - 1) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                lists.add(id < byCertificate.length ? byCertificate[id] : EMPTY);
+            }
+        }
+        return FastAggregation.or(lists.iterator());
+    }
+
+    /**
+     * Registers the worker in every cell overlapped by the bounding box of its area, splitting the longitude range where
+     * it crosses the antimeridian.
+     */
+    private static void register(DistanceQuery area, int ordinal, IntArrayList[] cellWorkers, double cellDegrees, int lonCells) {
+        int fromLatCell = latCell(area.getLatitude() - area.getLatitudeDelta(), cellDegrees);
+        int toLatCell = latCell(area.getLatitude() + area.getLatitudeDelta(), cellDegrees);
+        double minLon = area.getLongitude() - area.getLongitudeDelta();
+        double maxLon = area.getLongitude() + area.getLongitudeDelta();
+        if (area.getLongitudeDelta() >= 180 || maxLon - minLon >= 360) {
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, 0, lonCells, lonCells);
+        } else if (minLon < -180) {
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, lonCell(minLon + 360, cellDegrees), lonCells, lonCells);
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, 0, lonCell(maxLon, cellDegrees), lonCells);
+        } else if (maxLon > 180) {
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, lonCell(minLon, cellDegrees), lonCells, lonCells);
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, 0, lonCell(maxLon - 360, cellDegrees), lonCells);
+        } else {
+            registerRows(ordinal, cellWorkers, fromLatCell, toLatCell, lonCell(minLon, cellDegrees), lonCell(maxLon, cellDegrees), lonCells);
+        }
+    }
+
+    private static void registerRows(int ordinal, IntArrayList[] cellWorkers, int fromLatCell, int toLatCell, int fromLonCell, int toLonCell, int lonCells) {
+        for (int latCell = fromLatCell; latCell <= toLatCell; latCell++) {
+            for (int lonCell = fromLonCell; lonCell <= toLonCell; lonCell++) {
+                int cell = cellId(latCell, lonCell, lonCells);
+                if (cellWorkers[cell] == null) {
+                    cellWorkers[cell] = new IntArrayList(4);
+                }
+                cellWorkers[cell].add(ordinal);
+            }
+        }
+    }
+
+    private static int lonCells(double cellDegrees) {
+        return (int) Math.ceil(360 / cellDegrees);
+    }
+
+    private static int latCell(double latitude, double cellDegrees) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+    }
+
+    private static int lonCell(double longitude, double cellDegrees) {
+        return (int) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / cellDegrees);
+    }
+
+    private static int cellId(int latCell, int lonCell, int lonCells) {
+        // A longitude of exactly 180 falls in cell lonCells, hence lonCells + 1 cells per row.
+        return latCell * (lonCells + 1) + lonCell;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.swipe.service.reactive;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking client of the CORE system, used in reactive mode instead of {@link org.springframework.web.client.RestTemplate}.
+ * <br>
+ * The JSON arrays are decoded element by element, so each {@link Job}/{@link Worker} is emitted as soon as it is read.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCoreClient {
+
+    private static final String JOB_ENDPOINT = "/jobs";
+    private static final String WORKER_ENDPOINT = "/workers";
+
+    private final WebClient webClient;
+
+    public ReactiveCoreClient(WebClient.Builder webClientBuilder, @Value("${swipeJobServer}") String swipeJobServer) {
+        this.webClient = webClientBuilder.baseUrl(swipeJobServer).build();
+    }
+
+    public Flux<Job> getJobs() {
+        return webClient.get().uri(JOB_ENDPOINT).accept(MediaType.APPLICATION_JSON).retrieve().bodyToFlux(Job.class);
+    }
+
+    public Flux<Worker> getWorkers() {
+        return webClient.get().uri(WORKER_ENDPOINT).accept(MediaType.APPLICATION_JSON).retrieve().bodyToFlux(Worker.class);
+    }
+}
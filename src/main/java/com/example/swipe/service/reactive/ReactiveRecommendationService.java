@@ -0,0 +1,155 @@
+package com.example.swipe.service.reactive;
+
+import com.example.swipe.domain.BatchRecommendationRequest;
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.WorkerRecommendation;
+import com.example.swipe.service.BatchRecommendationService;
+import com.example.swipe.service.JobCatalog;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.RecommendationCache;
+import com.example.swipe.service.RecommendationSessions;
+import com.example.swipe.service.WorkerStore;
+import com.example.swipe.utility.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recommendation pipeline of the reactive mode.
+ * <br>
+ * The worker and the job catalog are served from {@link WorkerStore} and {@link JobCatalog} when they are fresh. When
+ * either has to be fetched from the CORE system, it is fetched through {@link ReactiveCoreClient} and both fetches run
+ * concurrently; no thread waits for them. Installing what was fetched (hashing the workers, building the snapshot and
+ * its indexes) runs on the bounded elastic scheduler, off the event loop that received the response. The same
+ * staleness and throttling rules as the blocking mode apply, and a failed fetch falls back to the stale data.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRecommendationService {
+
+    private final ReactiveCoreClient coreClient;
+    private final WorkerStore workerStore;
+    private final JobCatalog jobCatalog;
+    private final RecommendationCache recommendationCache;
+    private final RecommendationSessions recommendationSessions;
+    private final BatchRecommendationService batchRecommendationService;
+    private final AtomicBoolean catalogLoading = new AtomicBoolean();
+
+    public ReactiveRecommendationService(ReactiveCoreClient coreClient,
+                                         WorkerStore workerStore,
+                                         JobCatalog jobCatalog,
+                                         RecommendationCache recommendationCache,
+                                         RecommendationSessions recommendationSessions,
+                                         BatchRecommendationService batchRecommendationService) {
+        this.coreClient = coreClient;
+        this.workerStore = workerStore;
+        this.jobCatalog = jobCatalog;
+        this.recommendationCache = recommendationCache;
+        this.recommendationSessions = recommendationSessions;
+        this.batchRecommendationService = batchRecommendationService;
+    }
+
+    /**
+     * Returns the best matching {@link Job}s for given worker.
+     *
+     * @param workerId Referring to {@link Worker#userId}
+     * @param limit    To restrict the result count.
+     * @return empty if the worker is not known by the CORE system.
+     */
+    public Mono<List<Job>> recommendJobs(long workerId, int limit) {
+        return Mono.zip(getWorker(workerId), getSnapshot())
+                .map(workerAndSnapshot -> recommendationCache.findMatchingJobsForWorker(workerAndSnapshot.getT2(), workerAndSnapshot.getT1(), limit));
+    }
+
+    /**
+     * Returns the first page of the best matching {@link Job}s for given worker, see
+     * {@link RecommendationSessions#firstPage}.
+     *
+     * @param workerId Referring to {@link Worker#userId}
+     * @param limit    Page size.
+     * @return empty if the worker is not known by the CORE system.
+     */
+    public Mono<RecommendationSessions.Page> recommendJobsPage(long workerId, int limit) {
+        return Mono.zip(getWorker(workerId), getSnapshot())
+                .map(workerAndSnapshot -> recommendationSessions.firstPage(workerAndSnapshot.getT2(), workerAndSnapshot.getT1(), limit));
+    }
+
+    /**
+     * Runs a batch on a worker thread of the bounded elastic scheduler and emits the recommendations as they are
+     * produced, see {@link BatchRecommendationService#recommend}.
+     *
+     * @param request {@link BatchRecommendationRequest}
+     * @param limit   Maximum number of jobs per worker.
+     * @return one {@link WorkerRecommendation} per worker.
+     */
+    public Flux<WorkerRecommendation> recommendJobsBatch(BatchRecommendationRequest request, int limit) {
+        return Flux.<WorkerRecommendation>create(sink -> {
+            try {
+                batchRecommendationService.recommend(request, limit, sink::next);
+                sink.complete();
+            } catch (RuntimeException e) {
+                sink.error(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Returns the worker, read through from the CORE system if it is missing or expired.
+     *
+     * @param workerId Referring to {@link Worker#userId}
+     * @return empty if the worker is not known by the CORE system.
+     */
+    public Mono<Worker> getWorker(long workerId) {
+        return Mono.defer(() -> {
+            Worker worker = workerStore.peekWorker(workerId, false);
+            if (worker != null) {
+                return Mono.just(worker);
+            }
+            if (!workerStore.tryStartReadThrough()) {
+                return Mono.justOrEmpty(workerStore.peekWorker(workerId, true));
+            }
+            Logger.debug(getClass(), "Worker {} missing or expired in store. Reading through.", workerId);
+            return coreClient.getWorkers()
+                    .collectList()
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(workerStore::install)
+                    .flatMap(workers -> Mono.justOrEmpty(workerStore.peekWorker(workerId, true)))
+                    .onErrorResume(e -> {
+                        Logger.error(getClass(), "Read-through for worker {} failed. Serving the stale entry if any.", workerId, e);
+                        return Mono.justOrEmpty(workerStore.peekWorker(workerId, true));
+                    });
+        });
+    }
+
+    /**
+     * Returns the current job catalog snapshot, loaded from the CORE system if it is stale.
+     *
+     * @return JobCatalogSnapshot
+     */
+    public Mono<JobCatalogSnapshot> getSnapshot() {
+        return Mono.defer(() -> {
+            JobCatalogSnapshot snapshot = jobCatalog.peekSnapshot();
+            if (!jobCatalog.isStale(snapshot) || !catalogLoading.compareAndSet(false, true)) {
+                return Mono.just(snapshot);
+            }
+            Logger.warn(getClass(), "Job catalog snapshot {} is stale. Loading it.", snapshot);
+            Instant loadedAt = Instant.now();
+            return coreClient.getJobs()
+                    .collect(JobCatalogSnapshot::builder, JobCatalogSnapshot.Builder::add)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(builder -> jobCatalog.install(builder, loadedAt))
+                    .onErrorResume(e -> {
+                        Logger.error(getClass(), "Load of the job catalog failed. Serving snapshot {}.", jobCatalog.peekSnapshot(), e);
+                        return Mono.just(jobCatalog.peekSnapshot());
+                    })
+                    .doFinally(signal -> catalogLoading.set(false));
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.swipe.service.scoring;
+
+import com.example.swipe.service.index.JobColumns;
+
+/**
+ * Scores the candidate jobs of one search. Prepared once per search by a {@link JobSignal}, with everything that only
+ * depends on the worker already computed, then called for each candidate in range.
+ */
+@FunctionalInterface
+public interface JobScorer {
+
+    JobScorer ZERO = (jobs, ordinal, distance) -> 0;
+
+    /**
+     * @param jobs     Columns of the catalog snapshot.
+     * @param ordinal  Job ordinal.
+     * @param distance Distance to the worker in the unit of the worker's preference, {@link Double#POSITIVE_INFINITY}
+     *                 for a job without location, 0 when the worker has no preference.
+     * @return score, 0...1 for the built-in signals. Higher is better.
+     */
+    double score(JobColumns jobs, int ordinal, double distance);
+}
@@ -0,0 +1,21 @@
+package com.example.swipe.service.scoring;
+
+/**
+ * One ranking signal of a {@link ScoringPlan}, e.g. certificate overlap or distance. See {@link JobSignals} for the
+ * built-in ones; any other implementation can be added to a plan.
+ */
+public interface JobSignal {
+
+    /**
+     * @return name of the signal, used in logs.
+     */
+    String name();
+
+    /**
+     * Prepares the scorer of one search.
+     *
+     * @param request {@link ScoringRequest}
+     * @return JobScorer. {@link JobScorer#ZERO} when the signal cannot tell the jobs apart for this worker.
+     */
+    JobScorer prepare(ScoringRequest request);
+}
@@ -0,0 +1,172 @@
+package com.example.swipe.service.scoring;
+
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.JobColumns;
+import com.example.swipe.utility.DistanceQuery;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Built-in {@link JobSignal}s. Each scores a job between 0 and 1 from the primitive columns of the catalog.
+ */
+public final class JobSignals {
+
+    private static final JobSignal CERTIFICATES = new Signal("certificates") {
+        @Override
+        public JobScorer prepare(ScoringRequest request) {
+            long[] workerCertificates = request.getWorkerCertificates();
+            if (CertificateDictionary.count(workerCertificates) == 0) {
+                return JobScorer.ZERO;
+            }
+            return (jobs, ordinal, distance) -> {
+                long[] required = jobs.getRequiredCertificateBits(ordinal);
+                if (required == null) {
+                    return 0;
+                }
+                int count = CertificateDictionary.count(required);
+                return count == 0 ? 0 : (double) CertificateDictionary.countCommon(required, workerCertificates) / count;
+            };
+        }
+    };
+
+    private static final JobSignal DISTANCE = new Signal("distance") {
+        @Override
+        public JobScorer prepare(ScoringRequest request) {
+            DistanceQuery query = request.getDistanceQuery();
+            if (query == null || !(query.getMaxDistance() > 0)) {
+                return JobScorer.ZERO;
+            }
+            double maxDistance = query.getMaxDistance();
+            return (jobs, ordinal, distance) -> distance >= maxDistance ? 0 : 1 - distance / maxDistance;
+        }
+    };
+
+    private static final JobSignal BILL_RATE = new Signal("billRate") {
+        @Override
+        public JobScorer prepare(ScoringRequest request) {
+            int maxBillRateCents = request.getMaxBillRateCents();
+            if (maxBillRateCents <= 0) {
+                return JobScorer.ZERO;
+            }
+            return (jobs, ordinal, distance) -> {
+                int cents = jobs.getBillRateCents(ordinal);
+                return cents <= 0 ? 0 : (double) cents / maxBillRateCents;
+            };
+        }
+    };
+
+    private static final JobSignal SKILLS = new Signal("skills") {
+        @Override
+        public JobScorer prepare(ScoringRequest request) {
+            List<String> skills = request.getWorker().getSkills();
+            Set<String> names = new LinkedHashSet<>();
+            if (skills != null) {
+                for (String skill : skills) {
+                    if (skill != null && !skill.trim().isEmpty()) {
+                        names.add(skill.trim().toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            if (names.isEmpty()) {
+                return JobScorer.ZERO;
+            }
+            String[] skillNames = names.toArray(new String[0]);
+            int[] skillHashes = new int[skillNames.length];
+            for (int i = 0; i < skillNames.length; i++) {
+                skillHashes[i] = JobColumns.titleHash(skillNames[i]);
+            }
+            return (jobs, ordinal, distance) -> {
+                int titleHash = jobs.getTitleHash(ordinal);
+                for (int i = 0; i < skillHashes.length; i++) {
+                    if (skillHashes[i] == titleHash) {
+                        String title = jobs.getJobTitle(ordinal);
+                        if (title != null && title.trim().equalsIgnoreCase(skillNames[i])) {
+                            return 1;
+                        }
+                    }
+                }
+                return 0;
+            };
+        }
+    };
+
+    private JobSignals() {
+    }
+
+    /**
+     * @return share of the job's required certificates the worker holds. 0 for a job requiring none.
+     */
+    public static JobSignal certificates() {
+        return CERTIFICATES;
+    }
+
+    /**
+     * @return 1 at the worker's location, down to 0 at maxJobDistance. 0 for every job if the worker has no preference.
+     */
+    public static JobSignal distance() {
+        return DISTANCE;
+    }
+
+    /**
+     * @return bill rate relative to the highest one of the catalog. 0 for a job without a bill rate.
+     */
+    public static JobSignal billRate() {
+        return BILL_RATE;
+    }
+
+    /**
+     * @return 1 if the job title is one of the worker's skills (case insensitive), 0 otherwise.
+     */
+    public static JobSignal skills() {
+        return SKILLS;
+    }
+
+    /**
+     * @param horizon Gap between the search and the start of a job beyond which the job scores 0.
+     * @return 1 for a job starting now, down to 0 for a job starting (or started) horizon away. 0 for a job without
+     * start time.
+     */
+    public static JobSignal startTime(Duration horizon) {
+        long horizonSeconds = horizon.getSeconds();
+        if (horizonSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid start time horizon " + horizon);
+        }
+        return new Signal("startTime") {
+            @Override
+            public JobScorer prepare(ScoringRequest request) {
+                long now = request.getNow().getEpochSecond();
+                return (jobs, ordinal, distance) -> {
+                    long start = jobs.getStartEpochSecond(ordinal);
+                    if (start == Long.MIN_VALUE) {
+                        return 0;
+                    }
+                    double gap = Math.abs((double) start - now);
+                    return gap >= horizonSeconds ? 0 : 1 - gap / horizonSeconds;
+                };
+            }
+        };
+    }
+
+    private abstract static class Signal implements JobSignal {
+
+        private final String name;
+
+        private Signal(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
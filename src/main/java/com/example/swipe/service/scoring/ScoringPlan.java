@@ -0,0 +1,138 @@
+package com.example.swipe.service.scoring;
+
+import com.example.swipe.service.index.JobColumns;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weighted combination of {@link JobSignal}s a job search ranks on: the score of a job is the sum of its signal scores
+ * times their weights.
+ * <br>
+ * A plan is compiled once from the configuration into flat arrays of signals and weights. Each search then prepares one
+ * {@link JobScorer} per signal (signals that cannot tell the jobs apart for the worker are dropped) and scores every
+ * candidate with a plain loop over them, without building any per-candidate object.
+ */
+public final class ScoringPlan {
+
+    private static final ScoringPlan CERTIFICATES_ONLY = builder().add(JobSignals.certificates(), 1).build();
+
+    private final JobSignal[] signals;
+    private final double[] weights;
+
+    private ScoringPlan(JobSignal[] signals, double[] weights) {
+        this.signals = signals;
+        this.weights = weights;
+    }
+
+    /**
+     * @return plan ranking on the certificate score alone.
+     */
+    public static ScoringPlan certificatesOnly() {
+        return CERTIFICATES_ONLY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether the plan ranks on the certificate score alone. Only the jobs requiring one of the worker's certificates
+     * can then score above 0, which the search uses to skip the other candidates once it has enough jobs.
+     *
+     * @return
+     */
+    public boolean isCertificatesOnly() {
+        return signals.length == 1 && signals[0] == JobSignals.certificates() && weights[0] > 0;
+    }
+
+    /**
+     * Prepares the scorer of one search.
+     *
+     * @param request {@link ScoringRequest}
+     * @return JobScorer
+     */
+    public JobScorer prepare(ScoringRequest request) {
+        JobScorer[] scorers = new JobScorer[signals.length];
+        double[] scorerWeights = new double[signals.length];
+        int count = 0;
+        for (int i = 0; i < signals.length; i++) {
+            JobScorer scorer = signals[i].prepare(request);
+            if (scorer != JobScorer.ZERO) {
+                scorers[count] = scorer;
+                scorerWeights[count++] = weights[i];
+            }
+        }
+        if (count == 0) {
+            return JobScorer.ZERO;
+        }
+        if (count == 1) {
+            JobScorer scorer = scorers[0];
+            double weight = scorerWeights[0];
+            return (jobs, ordinal, distance) -> weight * scorer.score(jobs, ordinal, distance);
+        }
+        return new CompiledScorer(scorers, scorerWeights, count);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder plan = new StringBuilder();
+        for (int i = 0; i < signals.length; i++) {
+            plan.append(i == 0 ? "" : " + ").append(weights[i]).append(" * ").append(signals[i].name());
+        }
+        return plan.length() == 0 ? "0" : plan.toString();
+    }
+
+    private static final class CompiledScorer implements JobScorer {
+
+        private final JobScorer[] scorers;
+        private final double[] weights;
+        private final int count;
+
+        private CompiledScorer(JobScorer[] scorers, double[] weights, int count) {
+            this.scorers = scorers;
+            this.weights = weights;
+            this.count = count;
+        }
+
+        @Override
+        public double score(JobColumns jobs, int ordinal, double distance) {
+            double score = 0;
+            for (int i = 0; i < count; i++) {
+                score += weights[i] * scorers[i].score(jobs, ordinal, distance);
+            }
+            return score;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<JobSignal> signals = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a signal. A signal of weight 0 is left out of the plan.
+         *
+         * @param signal {@link JobSignal}
+         * @param weight Finite weight. A negative weight ranks the jobs scoring high on the signal last.
+         * @return this builder.
+         */
+        public Builder add(JobSignal signal, double weight) {
+            if (!Double.isFinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight + " of signal " + signal.name());
+            }
+            if (weight != 0) {
+                signals.add(signal);
+                weights.add(weight);
+            }
+            return this;
+        }
+
+        public ScoringPlan build() {
+            return new ScoringPlan(signals.toArray(new JobSignal[0]), weights.stream().mapToDouble(Double::doubleValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.swipe.service.scoring;
+
+import com.example.swipe.domain.Worker;
+import com.example.swipe.utility.DistanceQuery;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * What a {@link JobSignal} may prepare its scorer from: the worker of the search and the state the search already
+ * computed for it.
+ */
+@Getter
+@AllArgsConstructor
+public final class ScoringRequest {
+
+    private final Worker worker;
+    // CertificateDictionary bitset of the worker's certificates, never null.
+    private final long[] workerCertificates;
+    // Null if the worker has no complete search preference.
+    private final DistanceQuery distanceQuery;
+    private final Instant now;
+    // Highest bill rate of the live jobs of the catalog in cents, 0 if none.
+    private final int maxBillRateCents;
+}
@@ -2,6 +2,9 @@ package com.example.swipe.utility;
 
 import com.example.swipe.domain.common.Coordinates;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 /**
  * Application utility class.
  */
@@ -13,6 +16,9 @@ public class ApplicationUtilities {
 
     /**
      * Calculates the distance given {@link Coordinates}.
+     * <br>
+     * Resolves the unit and converts both points to radians on every call. Prefer a {@link DistanceQuery} when the same
+     * point is compared against many others.
      *
      * @param coordinates1 first {@link Coordinates}
      * @param coordinates2 second {@link Coordinates}
@@ -39,4 +45,26 @@ public class ApplicationUtilities {
             return (dist);
         }
     }
+
+    /**
+     * Parses a bill rate as sent by the CORE system, e.g. "$5.44", into cents.
+     *
+     * @param billRate Amount, with an optional leading currency sign and thousands separators.
+     * @return amount in cents, rounded half up. -1 if the value is missing, negative or not a number.
+     */
+    public static int parseCents(String billRate) {
+        if (billRate == null) {
+            return -1;
+        }
+        String amount = billRate.trim().replace(",", "");
+        if (amount.startsWith("$")) {
+            amount = amount.substring(1).trim();
+        }
+        try {
+            BigDecimal cents = new BigDecimal(amount).movePointRight(2).setScale(0, RoundingMode.HALF_UP);
+            return cents.signum() < 0 || cents.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0 ? -1 : cents.intValue();
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.swipe.utility;
+
+/**
+ * Formula used by {@link DistanceQuery} once a location passed the bounding box check.
+ */
+public enum DistanceFormula {
+
+    /**
+     * Great-circle distance. Accurate at any range, including the short ranges where the law of cosines loses
+     * precision.
+     */
+    HAVERSINE,
+
+    /**
+     * Flat projection scaled by the cosine of the mean latitude, itself expanded around the centre so that no
+     * trigonometry is needed per location. Within 0.1% of the great-circle distance for radii up to about 100 km away
+     * from the poles. Meant for short radii only.
+     */
+    EQUIRECTANGULAR
+}
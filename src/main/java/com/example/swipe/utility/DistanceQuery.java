@@ -0,0 +1,158 @@
+package com.example.swipe.utility;
+
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * "Within maxDistance of a centre" predicate, prepared once per request and then evaluated against many locations.
+ * <br>
+ * Everything that depends only on the centre is computed up front: the centre in radians with its sine and cosine, the
+ * radius as an angle, and a latitude/longitude bounding box of the circle. {@link #contains(double, double)} rejects
+ * locations outside the box with plain comparisons and only then runs the selected {@link DistanceFormula}.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class DistanceQuery {
+
+    @ToString.Include
+    private final double latitude;
+    @ToString.Include
+    private final double longitude;
+    @ToString.Include
+    private final double maxDistance;
+    @ToString.Include
+    private final DistanceUnit unit;
+    @ToString.Include
+    private final DistanceFormula formula;
+    private final double radiusRadians;
+
+    private final double latitudeRadians;
+    private final double longitudeRadians;
+    private final double cosLatitude;
+    private final double sinLatitude;
+
+    // Bounding box, as maximum differences in degrees from the centre. The longitude delta is 180 when the circle
+    // contains a pole.
+    private final double latitudeDelta;
+    private final double longitudeDelta;
+
+    // sin^2(radius / 2): a haversine value below it is within the radius, so the check needs neither asin nor sqrt.
+    private final double haversineThreshold;
+    private final double radiusRadiansSquared;
+
+    private DistanceQuery(Coordinates centre, double maxDistance, DistanceUnit unit, DistanceFormula formula) {
+        this.latitude = centre.getLatitude();
+        this.longitude = centre.getLongitude();
+        this.maxDistance = maxDistance;
+        this.unit = unit;
+        this.formula = formula;
+        this.radiusRadians = maxDistance / unit.earthRadius();
+
+        this.latitudeRadians = Math.toRadians(latitude);
+        this.longitudeRadians = Math.toRadians(longitude);
+        this.cosLatitude = Math.cos(latitudeRadians);
+        this.sinLatitude = Math.sin(latitudeRadians);
+
+        // Pad the box so that rounding never rejects a location the formula would accept.
+        double paddedRadius = radiusRadians * (1 + 1e-9) + 1e-12;
+        this.latitudeDelta = Math.toDegrees(paddedRadius);
+        if (Math.abs(latitude) + latitudeDelta >= 90 || paddedRadius >= Math.PI / 2) {
+            this.longitudeDelta = 180;
+        } else {
+            this.longitudeDelta = Math.toDegrees(Math.asin(Math.min(1, Math.sin(paddedRadius) / cosLatitude)));
+        }
+
+        double halfSin = Math.sin(Math.min(radiusRadians, Math.PI) / 2);
+        this.haversineThreshold = halfSin * halfSin;
+        this.radiusRadiansSquared = radiusRadians * radiusRadians;
+    }
+
+    /**
+     * Prepares the query.
+     *
+     * @param centre      Centre of the circle.
+     * @param maxDistance Radius of the circle, in {@code unit}. A location exactly at that distance is outside.
+     * @param unit        {@link DistanceUnit} of maxDistance and of {@link #distance(double, double)}.
+     * @param formula     {@link DistanceFormula} applied after the bounding box check.
+     * @return DistanceQuery
+     */
+    public static DistanceQuery of(Coordinates centre, double maxDistance, DistanceUnit unit, DistanceFormula formula) {
+        return new DistanceQuery(centre, maxDistance, unit, formula);
+    }
+
+    /**
+     * Returns TRUE if the location is closer to the centre than maxDistance.
+     *
+     * @param latitude  Latitude of the location, in degrees.
+     * @param longitude Longitude of the location, in degrees.
+     * @return
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (Math.abs(latitude - this.latitude) > latitudeDelta || longitudeDifference(longitude) > longitudeDelta) {
+            return false;
+        }
+        if (formula == DistanceFormula.EQUIRECTANGULAR) {
+            return equirectangularSquared(latitude, longitude) < radiusRadiansSquared;
+        }
+        return haversine(latitude, longitude) < haversineThreshold;
+    }
+
+    public boolean contains(Coordinates coordinates) {
+        return contains(coordinates.getLatitude(), coordinates.getLongitude());
+    }
+
+    /**
+     * Combines {@link #contains(double, double)} and {@link #distance(double, double)}: the distance is only computed for
+     * locations within range.
+     *
+     * @param coordinates Location.
+     * @return the distance in the query unit, or {@link Double#NaN} if the location is not closer than maxDistance.
+     */
+    public double distanceIfContains(Coordinates coordinates) {
+        return contains(coordinates) ? distance(coordinates) : Double.NaN;
+    }
+
+    public double distanceIfContains(double latitude, double longitude) {
+        return contains(latitude, longitude) ? distance(latitude, longitude) : Double.NaN;
+    }
+
+    /**
+     * Distance between the centre and the location in the query unit, computed with the query formula.
+     *
+     * @param latitude  Latitude of the location, in degrees.
+     * @param longitude Longitude of the location, in degrees.
+     * @return
+     */
+    public double distance(double latitude, double longitude) {
+        double angle = formula == DistanceFormula.EQUIRECTANGULAR
+                ? Math.sqrt(equirectangularSquared(latitude, longitude))
+                : 2 * Math.asin(Math.min(1, Math.sqrt(haversine(latitude, longitude))));
+        return angle * unit.earthRadius();
+    }
+
+    public double distance(Coordinates coordinates) {
+        return distance(coordinates.getLatitude(), coordinates.getLongitude());
+    }
+
+    private double haversine(double latitude, double longitude) {
+        double latitudeRadians = Math.toRadians(latitude);
+        double sinHalfLatitude = Math.sin((latitudeRadians - this.latitudeRadians) / 2);
+        double sinHalfLongitude = Math.sin((Math.toRadians(longitude) - longitudeRadians) / 2);
+        return sinHalfLatitude * sinHalfLatitude + cosLatitude * Math.cos(latitudeRadians) * sinHalfLongitude * sinHalfLongitude;
+    }
+
+    private double equirectangularSquared(double latitude, double longitude) {
+        double deltaLatitude = Math.toRadians(latitude) - latitudeRadians;
+        // cos(centre + delta / 2) expanded to first order, which keeps the projection trigonometry-free.
+        double cosMeanLatitude = cosLatitude - sinLatitude * deltaLatitude / 2;
+        double x = Math.toRadians(longitudeDifference(longitude)) * cosMeanLatitude;
+        return x * x + deltaLatitude * deltaLatitude;
+    }
+
+    private double longitudeDifference(double longitude) {
+        double difference = Math.abs(longitude - this.longitude);
+        return difference > 180 ? 360 - difference : difference;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.swipe.utility;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a top level JSON array element by element with the token-level {@link JsonParser}.
+ * <br>
+ * Only the element being read is held in memory: neither the response body nor an array of all the elements is ever
+ * materialized, so peak memory does not depend on the size of the payload.
+ */
+public final class JsonArrayReader {
+
+    private JsonArrayReader() {
+    }
+
+    /**
+     * Binds each element of the array with the reader and passes it to the consumer as soon as it is read. {@code null}
+     * elements are skipped, and so is a {@code null} or empty document.
+     *
+     * @param reader   {@link ObjectReader} bound to the element type.
+     * @param input    JSON document. Closed once read.
+     * @param consumer Receives the elements, in document order.
+     * @param <T>      element type.
+     * @return number of elements passed to the consumer.
+     * @throws IOException if the document is not a JSON array of the element type.
+     */
+    public static <T> int forEach(ObjectReader reader, InputStream input, Consumer<? super T> consumer) throws IOException {
+        try (JsonParser parser = reader.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return 0;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array but found " + token);
+            }
+
+            int count = 0;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of the JSON array");
+                }
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                T element = reader.readValue(parser);
+                consumer.accept(element);
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -4,13 +4,19 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
+/**
+ * Static logging facade over SLF4J, with the {@link org.slf4j.Logger} of each class cached.
+ * <br>
+ * Calls of up to three parameters resolve to fixed-arity overloads that check the level before anything else, so a
+ * disabled call allocates no parameter array. Parameters costly to compute go through the {@link Supplier} overloads.
+ */
 public class Logger {
 
-    private static final Map<String, org.slf4j.Logger> LOG_MAP = new HashMap<>();
+    private static final ConcurrentMap<Class<?>, org.slf4j.Logger> LOG_MAP = new ConcurrentHashMap<>();
 
     private Logger() {
     }
@@ -34,7 +40,58 @@ public class Logger {
      *                the message pattern, it will be logged, including its stack trace!
      */
     public static void debug(Class<?> clazz, String message, Object... params) {
-        computeAndGetLogger(clazz).debug(message, params);
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, params);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter at the {@link Level#DEBUG DEBUG} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param   parameter to the message.
+     */
+    public static void debug(Class<?> clazz, String message, Object param) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, param);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the {@link Level#DEBUG DEBUG} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     */
+    public static void debug(Class<?> clazz, String message, Object param1, Object param2) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, param1, param2);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters at the {@link Level#DEBUG DEBUG} level. The parameter array is only built
+     * when the level is enabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     * @param param3  third parameter to the message.
+     */
+    public static void debug(Class<?> clazz, String message, Object param1, Object param2, Object param3) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isDebugEnabled()) {
+            logger.debug(message, param1, param2, param3);
+        }
     }
 
     /**
@@ -83,7 +140,58 @@ public class Logger {
      *                the message pattern, it will be logged, including its stack trace!
      */
     public static void info(Class<?> clazz, String message, Object... params) {
-        computeAndGetLogger(clazz).info(message, params);
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isInfoEnabled()) {
+            logger.info(message, params);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter at the {@link Level#INFO INFO} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param   parameter to the message.
+     */
+    public static void info(Class<?> clazz, String message, Object param) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isInfoEnabled()) {
+            logger.info(message, param);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the {@link Level#INFO INFO} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     */
+    public static void info(Class<?> clazz, String message, Object param1, Object param2) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isInfoEnabled()) {
+            logger.info(message, param1, param2);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters at the {@link Level#INFO INFO} level. The parameter array is only built
+     * when the level is enabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     * @param param3  third parameter to the message.
+     */
+    public static void info(Class<?> clazz, String message, Object param1, Object param2, Object param3) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isInfoEnabled()) {
+            logger.info(message, param1, param2, param3);
+        }
     }
 
     /**
@@ -117,7 +225,58 @@ public class Logger {
      *                the message pattern, it will be logged, including its stack trace!
      */
     public static void warn(Class<?> clazz, String message, Object... params) {
-        computeAndGetLogger(clazz).warn(message, params);
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isWarnEnabled()) {
+            logger.warn(message, params);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter at the {@link Level#WARN WARN} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param   parameter to the message.
+     */
+    public static void warn(Class<?> clazz, String message, Object param) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isWarnEnabled()) {
+            logger.warn(message, param);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the {@link Level#WARN WARN} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     */
+    public static void warn(Class<?> clazz, String message, Object param1, Object param2) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isWarnEnabled()) {
+            logger.warn(message, param1, param2);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters at the {@link Level#WARN WARN} level. The parameter array is only built
+     * when the level is enabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     * @param param3  third parameter to the message.
+     */
+    public static void warn(Class<?> clazz, String message, Object param1, Object param2, Object param3) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isWarnEnabled()) {
+            logger.warn(message, param1, param2, param3);
+        }
     }
 
     /**
@@ -151,7 +310,58 @@ public class Logger {
      *                the message pattern, it will be logged, including its stack trace!
      */
     public static void error(Class<?> clazz, String message, Object... params) {
-        computeAndGetLogger(clazz).error(message, params);
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isErrorEnabled()) {
+            logger.error(message, params);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter at the {@link Level#ERROR ERROR} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param   parameter to the message.
+     */
+    public static void error(Class<?> clazz, String message, Object param) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isErrorEnabled()) {
+            logger.error(message, param);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters at the {@link Level#ERROR ERROR} level. Nothing is allocated when the level is
+     * disabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     */
+    public static void error(Class<?> clazz, String message, Object param1, Object param2) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isErrorEnabled()) {
+            logger.error(message, param1, param2);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters at the {@link Level#ERROR ERROR} level. The parameter array is only built
+     * when the level is enabled.
+     *
+     * @param clazz   Class on which this message will be logged.
+     * @param message the message to log; the format depends on the message factory.
+     * @param param1  first parameter to the message.
+     * @param param2  second parameter to the message.
+     * @param param3  third parameter to the message.
+     */
+    public static void error(Class<?> clazz, String message, Object param1, Object param2, Object param3) {
+        org.slf4j.Logger logger = computeAndGetLogger(clazz);
+        if (logger.isErrorEnabled()) {
+            logger.error(message, param1, param2, param3);
+        }
     }
 
     /**
@@ -167,20 +377,15 @@ public class Logger {
     }
 
     /**
-     * Gets the {@link org.slf4j.Logger} from cached data for given class.
+     * Gets the {@link org.slf4j.Logger} from cached data for given class. A cached logger is returned by a single,
+     * lock-free lookup.
      *
      * @param clazz {@link Class}
      * @return Logger
      */
     private static org.slf4j.Logger computeAndGetLogger(Class<?> clazz) {
-        if (!LOG_MAP.containsKey(clazz.getName())) {
-            synchronized (Logger.class) {
-                if (!LOG_MAP.containsKey(clazz.getName())) {
-                    LOG_MAP.put(clazz.getName(), LoggerFactory.getLogger(clazz));
-                }
-            }
-        }
-        return LOG_MAP.get(clazz.getName());
+        org.slf4j.Logger logger = LOG_MAP.get(clazz);
+        return logger != null ? logger : LOG_MAP.computeIfAbsent(clazz, LoggerFactory::getLogger);
     }
 
 }
@@ -0,0 +1,171 @@
+package com.example.swipe.utility;
+
+import java.util.function.Consumer;
+
+/**
+ * Open addressing hash map keyed by primitive {@code long}, so lookups neither box the key nor walk bucket chains.
+ * <br>
+ * Not thread-safe. Callers either confine an instance to one thread or build it once and publish it read-only.
+ *
+ * @param <V> value type. {@code null} values are not supported.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long EMPTY_KEY = 0L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    // Zero is used to mark empty slots, so a zero key is stored on the side.
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public V get(long key) {
+        if (key == EMPTY_KEY) {
+            return zeroValue;
+        }
+        int slot = slot(key);
+        long existing;
+        while ((existing = keys[slot]) != EMPTY_KEY) {
+            if (existing == key) {
+                return value(slot);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   key.
+     * @param value non null value.
+     * @return the previous value or {@code null}.
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported.");
+        }
+        if (key == EMPTY_KEY) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        int slot = slot(key);
+        long existing;
+        while ((existing = keys[slot]) != EMPTY_KEY) {
+            if (existing == key) {
+                V previous = value(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies the table, for a caller extending a map that is already published read-only. The values are shared.
+     *
+     * @return independent copy of this map.
+     */
+    public LongObjectHashMap<V> copy() {
+        LongObjectHashMap<V> copy = new LongObjectHashMap<>(1);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.mask = mask;
+        copy.size = size;
+        copy.resizeAt = resizeAt;
+        copy.zeroValue = zeroValue;
+        return copy;
+    }
+
+    public void forEachValue(Consumer<? super V> action) {
+        if (zeroValue != null) {
+            action.accept(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                action.accept(value(i));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private int slot(long key) {
+        // Fibonacci hashing spreads sequential ids across the table.
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long capacity = Math.max(2L, (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) (capacity - 1)) << 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LongObjectHashMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.swipe.configuration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ExecutionConfigurationTest {
+
+    @Test
+    public void platformThreadsAreBoundedAndOverflowRunsOnTheCaller() throws InterruptedException {
+        ThreadPoolExecutor executor = ExecutionConfiguration.newPlatformThreadExecutor(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> fetches = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                fetches.add(CompletableFuture.supplyAsync(() -> {
+                    await(release);
+                    return Thread.currentThread().getName();
+                }, executor));
+            }
+
+            String overflow = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor).join();
+
+            Assertions.assertEquals(Thread.currentThread().getName(), overflow);
+            Assertions.assertEquals(2, executor.getPoolSize());
+            release.countDown();
+            fetches.forEach(fetch -> Assertions.assertTrue(fetch.join().startsWith("upstream-")));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.swipe.controller;
+
+import com.example.swipe.Application;
+import com.example.swipe.domain.BatchRecommendationRequest;
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.SwipeRequest;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.service.reactive.ReactiveCoreClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Profile("integration")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                classes = Application.class,
+                properties = {"spring.main.web-application-type=reactive",
+                              "jobCatalog.initialDelayMillis=3600000",
+                              "workerStore.initialDelayMillis=3600000"})
+public class ReactiveWorkerJobControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @MockBean
+    private ReactiveCoreClient coreClient;
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Job[] jobs = objectMapper.readValue(resourceLoader.getResource("classpath:data/jobs.json").getInputStream(), Job[].class);
+        Worker[] workers = objectMapper.readValue(resourceLoader.getResource("classpath:data/workers.json").getInputStream(), Worker[].class);
+        Mockito.when(coreClient.getJobs()).thenReturn(Flux.fromArray(jobs));
+        Mockito.when(coreClient.getWorkers()).thenReturn(Flux.fromArray(workers));
+    }
+
+    @Test
+    public void recommendJobsWithoutWorkerIdReturnException() {
+        webTestClient.get().uri("/jobs/recommend/ab123")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("WorkerId is numeric value and it's mandatory.");
+    }
+
+    @Test
+    public void recommendJobsForWorkerIdMatchingJobResponse() {
+        webTestClient.get().uri("/jobs/recommend/7?limit=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).hasSize(5);
+        webTestClient.get().uri("/jobs/recommend/0?limit=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).hasSize(3);
+
+        // Both lists are fetched at most once, concurrently, and are then served from memory.
+        Mockito.verify(coreClient, Mockito.atMost(1)).getJobs();
+        Mockito.verify(coreClient, Mockito.atMost(1)).getWorkers();
+    }
+
+    @Test
+    public void recommendJobsPagesFollowTheRanking() {
+        List<Job> expected = webTestClient.get().uri("/jobs/recommend/7?limit=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).returnResult().getResponseBody();
+
+        EntityExchangeResult<List<Job>> first = webTestClient.get().uri("/jobs/recommend/7?limit=3&paginate=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).hasSize(3).returnResult();
+        String cursor = first.getResponseHeaders().getFirst(WorkerJobController.NEXT_CURSOR_HEADER);
+        EntityExchangeResult<List<Job>> second = webTestClient.get().uri("/jobs/recommend/7?limit=3&cursor=" + cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(WorkerJobController.NEXT_CURSOR_HEADER)
+                .expectBodyList(Job.class).hasSize(2).returnResult();
+
+        List<Job> paged = new ArrayList<>(first.getResponseBody());
+        paged.addAll(second.getResponseBody());
+        assertThat(paged).extracting(Job::getJobId).isEqualTo(expected.stream().map(Job::getJobId).collect(Collectors.toList()));
+        webTestClient.get().uri("/jobs/recommend/0?cursor=" + cursor)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    public void swipedJobsAreNoLongerRecommended() {
+        // Worker 12 is not used by the other tests, which share the swipes of this context.
+        List<Job> before = webTestClient.get().uri("/jobs/recommend/12?limit=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).hasSize(12).returnResult().getResponseBody();
+
+        webTestClient.post().uri("/jobs/" + before.get(0).getJobId() + "/swipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(SwipeRequest.builder().workerId(12L).action(SwipeAction.ACCEPT).build())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<Job> after = webTestClient.get().uri("/jobs/recommend/12?limit=20")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Job.class).hasSize(11).returnResult().getResponseBody();
+        assertThat(after).extracting(Job::getJobId).doesNotContain(before.get(0).getJobId());
+
+        webTestClient.post().uri("/jobs/" + before.get(0).getJobId() + "/swipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(SwipeRequest.builder().workerId(123L).action(SwipeAction.DECLINE).build())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Invalid workerId. Record not found.");
+        webTestClient.post().uri("/jobs/999999/swipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(SwipeRequest.builder().workerId(12L).action(SwipeAction.DECLINE).build())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Invalid jobId. Record not found.");
+    }
+
+    @Test
+    public void recommendJobsForWorkerIdNotExistReturnException() {
+        webTestClient.get().uri("/jobs/recommend/123")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Invalid workerId. Record not found.");
+    }
+
+    @Test
+    public void recommendJobsBatchStreamsOneLinePerWorker() {
+        // Load the workers into the store.
+        webTestClient.get().uri("/jobs/recommend/0").exchange().expectStatus().isOk();
+
+        List<String> lines = Arrays.asList(webTestClient.post().uri("/jobs/recommend/batch")
+                                                   .contentType(MediaType.APPLICATION_JSON)
+                                                   .bodyValue(BatchRecommendationRequest.builder().workerIds(Arrays.asList(7L, 123L)).limit(20).build())
+                                                   .exchange()
+                                                   .expectStatus().isOk()
+                                                   .expectBody(String.class).returnResult().getResponseBody().split("\n"));
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{\"workerId\":7,\"jobs\":[");
+        assertThat(lines.get(1)).isEqualTo("{\"workerId\":123,\"error\":\"Invalid workerId. Record not found.\"}");
+    }
+}
@@ -1,27 +1,42 @@
 package com.example.swipe.controller;
 
 import com.example.swipe.Application;
-import com.example.swipe.domain.Job;
+import com.example.swipe.domain.BatchRecommendationRequest;
+import com.example.swipe.domain.SwipeRequest;
 import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.service.JobCatalog;
 import com.example.swipe.service.WorkerService;
+import com.example.swipe.service.WorkerStore;
 import com.example.swipe.utility.Logger;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,9 +44,13 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @Profile("integration")
+@AutoConfigureMetrics
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = Application.class)
 public class WorkerJobControllerIT {
 
+    private static final String WORKERS_JSON = "classpath:data/workers.json";
+    private static final String JOBS_JSON = "classpath:data/jobs.json";
+
     @Autowired
     private TestRestTemplate testRestTemplate;
     @Autowired
@@ -41,6 +60,12 @@ public class WorkerJobControllerIT {
 
     @Autowired
     private WorkerService workerService;
+    @Autowired
+    private JobCatalog jobCatalog;
+    @Autowired
+    private WorkerStore workerStore;
+    @Autowired
+    private WorkerJobController workerJobController;
     @MockBean
     private RestTemplate restTemplate;
 
@@ -62,7 +87,8 @@ public class WorkerJobControllerIT {
     public void recommendJobsForWorkerIdNotExistReturnException() throws JsonProcessingException {
         String invalidWorkerId = "123";
 
-        Mockito.when(restTemplate.getForEntity(Mockito.anyString(), Mockito.eq(Worker[].class))).thenReturn(ResponseEntity.ok(new Worker[]{}));
+        givenCoreResponse("/workers", "[]".getBytes());
+        workerStore.refresh();
 
         ResponseEntity<String> response = testRestTemplate.getForEntity("/jobs/recommend/" + invalidWorkerId, String.class);
 
@@ -73,8 +99,10 @@ public class WorkerJobControllerIT {
     @Test
     public void recommendJobsForWorkerIdNoJobReturnEmptyResponse() throws IOException {
 
-        Mockito.when(restTemplate.getForEntity(Mockito.anyString(), Mockito.eq(Worker[].class))).thenReturn(ResponseEntity.ok(loadWorkers()));
-        Mockito.when(restTemplate.getForEntity(Mockito.anyString(), Mockito.eq(Job[].class))).thenReturn(ResponseEntity.ok(new Job[]{}));
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", "[]".getBytes());
+        jobCatalog.refresh();
+        workerStore.refresh();
 
         List<Worker> workers = workerService.getWorkers();
 
@@ -95,8 +123,10 @@ public class WorkerJobControllerIT {
     @Test
     public void recommendJobsForWorkerIdMatchingJobResponse() throws IOException {
 
-        Mockito.when(restTemplate.getForEntity(Mockito.anyString(), Mockito.eq(Worker[].class))).thenReturn(ResponseEntity.ok(loadWorkers()));
-        Mockito.when(restTemplate.getForEntity(Mockito.anyString(), Mockito.eq(Job[].class))).thenReturn(ResponseEntity.ok(loadJobs()));
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
 
         List<Worker> workers = workerService.getWorkers();
 
@@ -107,12 +137,12 @@ public class WorkerJobControllerIT {
 
         Map<Long, Integer> testWorkerWithExpectedResultCount = new HashMap<>();
         testWorkerWithExpectedResultCount.put(0L, 3);
-        testWorkerWithExpectedResultCount.put(7L, 11);
+        testWorkerWithExpectedResultCount.put(7L, 5);
         testWorkerWithExpectedResultCount.put(10L, 0);
-        testWorkerWithExpectedResultCount.put(12L, 14);
+        testWorkerWithExpectedResultCount.put(12L, 12);
         testWorkerWithExpectedResultCount.put(24L, 0);
-        testWorkerWithExpectedResultCount.put(37L, 8);
-        testWorkerWithExpectedResultCount.put(46L, 4);
+        testWorkerWithExpectedResultCount.put(37L, 1);
+        testWorkerWithExpectedResultCount.put(46L, 0);
 
         //Worker worker = workers.get(0);
         workers.stream().filter(w -> testWorkerWithExpectedResultCount.containsKey(w.getUserId())).forEach(worker -> {
@@ -125,15 +155,184 @@ public class WorkerJobControllerIT {
         //assertThat(response.getBody().size()).isNotZero();
     }
 
-    private Worker[] loadWorkers() throws IOException {
+    @Test
+    public void recommendJobsPagesFollowTheRanking() throws IOException {
+
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
+
+        List<Object> expected = jobIds(testRestTemplate.getForEntity("/jobs/recommend/12?limit=20", List.class).getBody());
+        List<Object> paged = new ArrayList<>();
+        ResponseEntity<List> page = testRestTemplate.getForEntity("/jobs/recommend/12?limit=5&paginate=true", List.class);
+        List<Integer> pageSizes = new ArrayList<>();
+        while (true) {
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            pageSizes.add(page.getBody().size());
+            paged.addAll(jobIds(page.getBody()));
+            String cursor = page.getHeaders().getFirst(WorkerJobController.NEXT_CURSOR_HEADER);
+            if (cursor == null) {
+                break;
+            }
+            page = testRestTemplate.getForEntity("/jobs/recommend/12?limit=5&cursor=" + cursor, List.class);
+        }
+
+        assertThat(pageSizes).containsExactly(5, 5, 2);
+        assertThat(paged).isEqualTo(expected);
 
-        Resource workerJsonResource = resourceLoader.getResource("classpath:data/workers.json");
-        return objectMapper.readValue(workerJsonResource.getInputStream(), Worker[].class);
+        String cursor = testRestTemplate.getForEntity("/jobs/recommend/12?limit=5&paginate=true", List.class).getHeaders().getFirst(WorkerJobController.NEXT_CURSOR_HEADER);
+        ResponseEntity<String> otherWorker = testRestTemplate.getForEntity("/jobs/recommend/7?cursor=" + cursor, String.class);
+        assertThat(otherWorker.getStatusCode()).isEqualTo(HttpStatus.GONE);
+        assertThat(otherWorker.getBody()).isEqualTo("Cursor expired. Request the first page again.");
+        ResponseEntity<String> invalid = testRestTemplate.getForEntity("/jobs/recommend/12?cursor=abc", String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(invalid.getBody()).isEqualTo("Invalid cursor.");
     }
 
-    private Job[] loadJobs() throws IOException {
+    @Test
+    public void swipedJobsAreNoLongerRecommended() throws IOException {
+
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
+
+        // Worker 3 is not used by the other tests, which share the swipes of this context.
+        List<Object> before = jobIds(testRestTemplate.getForEntity("/jobs/recommend/3?limit=20", List.class).getBody());
+        assertThat(before).isNotEmpty();
+
+        ResponseEntity<String> swipe = testRestTemplate.postForEntity("/jobs/" + before.get(0) + "/swipes",
+                                                                      SwipeRequest.builder().workerId(3L).action(SwipeAction.DECLINE).build(), String.class);
+        assertThat(swipe.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        List<Object> after = jobIds(testRestTemplate.getForEntity("/jobs/recommend/3?limit=20", List.class).getBody());
+        assertThat(after).isEqualTo(before.subList(1, before.size()));
+
+        ResponseEntity<String> invalid = testRestTemplate.postForEntity("/jobs/1/swipes", SwipeRequest.builder().workerId(3L).build(), String.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(invalid.getBody()).isEqualTo("WorkerId and action are mandatory.");
+
+        ResponseEntity<String> unknownWorker = testRestTemplate.postForEntity("/jobs/" + before.get(0) + "/swipes",
+                                                                              SwipeRequest.builder().workerId(999_999L).action(SwipeAction.DECLINE).build(), String.class);
+        assertThat(unknownWorker.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(unknownWorker.getBody()).isEqualTo("Invalid workerId. Record not found.");
+
+        ResponseEntity<String> unknownJob = testRestTemplate.postForEntity("/jobs/999999/swipes",
+                                                                           SwipeRequest.builder().workerId(3L).action(SwipeAction.DECLINE).build(), String.class);
+        assertThat(unknownJob.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(unknownJob.getBody()).isEqualTo("Invalid jobId. Record not found.");
+    }
+
+    @Test
+    public void recommendJobsBatchStreamsOneLinePerWorker() throws IOException {
+
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
+
+        BatchRecommendationRequest request = BatchRecommendationRequest.builder().workerIds(Arrays.asList(7L, 123L, 0L)).limit(20).build();
+        ResponseEntity<String> response = testRestTemplate.postForEntity("/jobs/recommend/batch", request, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] lines = response.getBody().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("workerId").asLong()).isEqualTo(7L);
+        assertThat(objectMapper.readTree(lines[0]).get("jobs").size()).isEqualTo(5);
+        assertThat(objectMapper.readTree(lines[1]).get("workerId").asLong()).isEqualTo(123L);
+        assertThat(objectMapper.readTree(lines[1]).get("error").asText()).isEqualTo("Invalid workerId. Record not found.");
+        assertThat(objectMapper.readTree(lines[2]).get("jobs").size()).isEqualTo(3);
+
+        long activeWorkers = Arrays.stream(loadWorkers()).filter(w -> Boolean.TRUE.equals(w.getIsActive())).count();
+        request = BatchRecommendationRequest.builder().allActive(true).build();
+        response = testRestTemplate.postForEntity("/jobs/recommend/batch", request, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().split("\n")).hasSize((int) activeWorkers);
+    }
+
+    @Test
+    public void recommendJobsBatchStreamsWithItsOwnTimeout() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        WebAsyncTask<Void> task = workerJobController.recommendJobsBatch(BatchRecommendationRequest.builder().allActive(true).build(), response);
+
+        assertThat(task.getTimeout()).isEqualTo(600000L);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @Test
+    public void eligibleWorkersOfRecommendedJobsContainTheWorker() throws IOException {
+
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
+
+        ResponseEntity<List> recommended = testRestTemplate.getForEntity("/jobs/recommend/7?limit=20", List.class);
+        assertThat(recommended.getBody()).hasSize(5);
+        for (Object job : recommended.getBody()) {
+            Object jobId = ((Map<?, ?>) job).get("jobId");
+            ResponseEntity<long[]> response = testRestTemplate.getForEntity("/jobs/" + jobId + "/workers", long[].class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains(7L);
+        }
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/jobs/999999/workers", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo("Invalid jobId. Record not found.");
+    }
+
+    @Test
+    public void prometheusEndpointServesStageHistograms() throws IOException {
+
+        givenCoreResponse("/workers", readResource(WORKERS_JSON));
+        givenCoreResponse("/jobs", readResource(JOBS_JSON));
+        jobCatalog.refresh();
+        workerStore.refresh();
+        testRestTemplate.getForEntity("/jobs/recommend/7", List.class);
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("core_fetch_seconds_bucket{endpoint=\"/jobs\",outcome=\"ok\"")
+                .contains("core_fetch_payload_bytes_count{endpoint=\"/workers\",}")
+                .contains("job_search_stage_seconds_bucket{stage=\"candidates\"")
+                .contains("job_search_jobs_count{stage=\"results\",}")
+                .doesNotContain("core_fetch_payload_bytes_bucket")
+                .contains("http_server_requests_seconds_count{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/jobs/recommend/{workerId}\",}");
+    }
+
+    @Test
+    public void recommendJobsBatchWithoutWorkersReturnException() {
+        ResponseEntity<String> response = testRestTemplate.postForEntity("/jobs/recommend/batch", new BatchRecommendationRequest(), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Either workerIds or allActive is mandatory.");
+    }
+
+    private void givenCoreResponse(String endpoint, byte[] body) {
+        Mockito.when(restTemplate.execute(Mockito.endsWith(endpoint), Mockito.eq(HttpMethod.GET), Mockito.any(RequestCallback.class), Mockito.<ResponseExtractor<Integer>>any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<Integer>>getArgument(3).extractData(new MockClientHttpResponse(body, HttpStatus.OK)));
+    }
+
+    private List<Object> jobIds(List<?> jobs) {
+        List<Object> jobIds = new ArrayList<>();
+        for (Object job : jobs) {
+            jobIds.add(((Map<?, ?>) job).get("jobId"));
+        }
+        return jobIds;
+    }
+
+    private Worker[] loadWorkers() throws IOException {
+        return objectMapper.readValue(readResource(WORKERS_JSON), Worker[].class);
+    }
 
-        Resource jobJsonResource = resourceLoader.getResource("classpath:data/jobs.json");
-        return objectMapper.readValue(jobJsonResource.getInputStream(), Job[].class);
+    private byte[] readResource(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        return StreamUtils.copyToByteArray(resource.getInputStream());
     }
 }
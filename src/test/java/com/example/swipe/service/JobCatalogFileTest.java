@@ -0,0 +1,121 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.service.index.DayMask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JobCatalogFileTest {
+
+    private static final Instant LOADED_AT = Instant.parse("2022-03-01T10:00:00.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void writtenSnapshotIsReadBack() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(3L, LOADED_AT, Arrays.asList(job(1L, "File Forklift"), job(2L), job(3L, "File Forklift", "File Crane")));
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(1L, "File Forklift"), job(3L, "File Forklift", "File Crane"), job(4L)).forEach(patch::add);
+        JobCatalogSnapshot patched = patch.build(4L, LOADED_AT, 1.0);
+        JobCatalogFile file = file(Duration.ofDays(1));
+
+        file.write(patched);
+        JobCatalogSnapshot read = file.read().orElseThrow(AssertionError::new);
+
+        Assertions.assertEquals(4L, read.getVersion());
+        Assertions.assertEquals(LOADED_AT, read.getLoadedAt());
+        Assertions.assertEquals(describe(patched.getJobs()), describe(read.getJobs()));
+        Assertions.assertEquals(3, read.getCandidates(null, true, DayMask.ALL).getCardinality());
+    }
+
+    @Test
+    public void corruptedFileIsIgnored() throws IOException {
+        JobCatalogFile file = file(Duration.ofDays(1));
+        file.write(JobCatalogSnapshot.of(1L, LOADED_AT, Arrays.asList(job(1L), job(2L))));
+
+        try (RandomAccessFile raw = new RandomAccessFile(directory.resolve("catalog.bin").toFile(), "rw")) {
+            raw.seek(raw.length() - 3);
+            int value = raw.read();
+            raw.seek(raw.length() - 3);
+            raw.write(value ^ 0xFF);
+        }
+
+        Assertions.assertFalse(file.read().isPresent());
+    }
+
+    @Test
+    public void truncatedFileIsIgnored() throws IOException {
+        JobCatalogFile file = file(Duration.ofDays(1));
+        file.write(JobCatalogSnapshot.of(1L, LOADED_AT, Arrays.asList(job(1L), job(2L))));
+
+        try (RandomAccessFile raw = new RandomAccessFile(directory.resolve("catalog.bin").toFile(), "rw")) {
+            raw.setLength(raw.length() - 1);
+        }
+
+        Assertions.assertFalse(file.read().isPresent());
+    }
+
+    @Test
+    public void staleOrMissingFileIsIgnored() {
+        JobCatalogFile file = file(Duration.ofMinutes(5));
+        Assertions.assertFalse(file.read().isPresent());
+
+        file.write(JobCatalogSnapshot.of(1L, LOADED_AT.minus(Duration.ofMinutes(6)), Arrays.asList(job(1L), job(2L))));
+
+        Assertions.assertTrue(Files.exists(directory.resolve("catalog.bin")));
+        Assertions.assertFalse(file.read().isPresent());
+    }
+
+    @Test
+    public void onlyLatestPendingSnapshotIsWritten() {
+        List<Runnable> tasks = new ArrayList<>();
+        JobCatalogFile file = new JobCatalogFile(directory.resolve("catalog.bin"), Duration.ofDays(1), Clock.fixed(LOADED_AT, ZoneOffset.UTC), tasks::add);
+
+        file.writeLater(JobCatalogSnapshot.of(1L, LOADED_AT, Arrays.asList(job(1L))));
+        file.writeLater(JobCatalogSnapshot.of(2L, LOADED_AT, Arrays.asList(job(1L), job(2L))));
+
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertFalse(Files.exists(directory.resolve("catalog.bin")));
+        tasks.get(0).run();
+        Assertions.assertEquals(2L, file.read().orElseThrow(AssertionError::new).getVersion());
+    }
+
+    private JobCatalogFile file(Duration maxAge) {
+        return new JobCatalogFile(directory.resolve("catalog.bin"), maxAge, Clock.fixed(LOADED_AT, ZoneOffset.UTC));
+    }
+
+    private List<String> describe(List<Job> jobs) {
+        return jobs.stream().map(Job::toString).sorted().collect(Collectors.toList());
+    }
+
+    private Job job(Long jobId, String... certificates) {
+        return Job.builder()
+                .jobId(jobId)
+                .guid("guid-" + jobId)
+                .company("Company")
+                .about(jobId % 2 == 0 ? null : "About é中")
+                .startTime(LOADED_AT.plusSeconds(jobId))
+                .workersRequired(jobId.intValue())
+                .billRate("$9.50")
+                .location(jobId == 2L ? null : new Coordinates(13.0 + jobId, 49.0))
+                .requiredCertificates(Arrays.asList(certificates))
+                .driverLicenseRequired(jobId == 3L)
+                .build();
+    }
+}
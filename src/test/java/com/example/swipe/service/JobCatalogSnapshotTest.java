@@ -0,0 +1,216 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.DayMask;
+import com.example.swipe.utility.DistanceFormula;
+import com.example.swipe.utility.DistanceQuery;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class JobCatalogSnapshotTest {
+
+    private static final List<String> CERTIFICATES = Arrays.asList("Snapshot Forklift", "Snapshot Welding", "Snapshot Crane", "Snapshot First Aid");
+
+    private final Random random = new Random(42);
+    private long nextJobId;
+
+    @Test
+    public void patchedSnapshotMatchesSnapshotBuiltFromScratch() {
+        List<Job> payload = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            payload.add(randomJob(nextJobId++));
+        }
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, copy(payload));
+
+        for (int round = 2; round <= 5; round++) {
+            payload = mutate(payload);
+            JobCatalogSnapshot.Patch patch = snapshot.patch();
+            copy(payload).forEach(patch::add);
+            snapshot = patch.build(round, Instant.now(), 1.0);
+
+            assertSameSearch(JobCatalogSnapshot.of(round, copy(payload)), snapshot);
+        }
+    }
+
+    @Test
+    public void patchCountsChangesAndReusesUnchangedJobs() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, 1), job(2L, 1), job(3L, 1)));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(1L, 1), job(2L, 2), job(4L, 1)).forEach(patch::add);
+        JobCatalogSnapshot patched = patch.build(2L, Instant.now(), 1.0);
+
+        Assertions.assertEquals(1, patch.getInserted());
+        Assertions.assertEquals(1, patch.getUpdated());
+        Assertions.assertEquals(1, patch.getRemoved());
+        Assertions.assertFalse(patch.isUnchanged());
+        Assertions.assertEquals(3, patched.size());
+        Assertions.assertSame(base.getColumns().getRequiredCertificateBits(0), patched.getColumns().getRequiredCertificateBits(0));
+        Assertions.assertEquals(1L, patched.getJob(0).getJobId());
+        Assertions.assertEquals(Integer.valueOf(2), patched.getJobs().stream().filter(job -> job.getJobId() == 2L).findFirst().get().getWorkersRequired());
+    }
+
+    @Test
+    public void patchWithSameJobsIsUnchanged() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, 1), job(2L, 1)));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(2L, 1), job(1L, 1)).forEach(patch::add);
+
+        Assertions.assertTrue(patch.isUnchanged());
+    }
+
+    @Test
+    public void patchBeyondCompactionRatioIsBuiltFromScratch() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, 1), job(2L, 1), job(3L, 1)));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(1L, 1), job(2L, 1)).forEach(patch::add);
+        JobCatalogSnapshot compacted = patch.build(2L, Instant.now(), 0.0);
+
+        Assertions.assertEquals(2, compacted.size());
+        Assertions.assertEquals(2, compacted.getJobs().size());
+        Assertions.assertEquals(new RoaringBitmap(), RoaringBitmap.andNot(compacted.getCandidates(null, true, DayMask.ALL), RoaringBitmap.bitmapOfRange(0, 2)));
+    }
+
+    @Test
+    public void patchWithDuplicateKeysKeepsEveryJob() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, 1), job(2L, 1)));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(1L, 1), job(2L, 1), job(2L, 3)).forEach(patch::add);
+        JobCatalogSnapshot patched = patch.build(2L, Instant.now(), 1.0);
+
+        Assertions.assertEquals(3, patched.size());
+        Assertions.assertEquals(3, patched.getCandidates(null, true, DayMask.ALL).getCardinality());
+    }
+
+    @Test
+    public void findJobLooksJobsUpByJobId() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, 1), job(2L, 1), job(2L, 3)));
+
+        Assertions.assertEquals(Integer.valueOf(1), base.findJob(2L).getWorkersRequired());
+        Assertions.assertNull(base.findJob(3L));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(2L, 4), job(3L, 1)).forEach(patch::add);
+        JobCatalogSnapshot patched = patch.build(2L, Instant.now(), 1.0);
+
+        Assertions.assertNull(patched.findJob(1L));
+        Assertions.assertEquals(Integer.valueOf(4), patched.findJob(2L).getWorkersRequired());
+        Assertions.assertEquals(3L, patched.findJob(3L).getJobId());
+    }
+
+    @Test
+    public void maxBillRateLeavesRemovedJobsOut() {
+        JobCatalogSnapshot base = JobCatalogSnapshot.of(1L, Arrays.asList(job(1L, "$50.00"), job(2L, "$20.00"), job(3L, "$10.00")));
+
+        JobCatalogSnapshot.Patch patch = base.patch();
+        Arrays.asList(job(2L, "$30.00"), job(3L, "$10.00")).forEach(patch::add);
+        JobCatalogSnapshot patched = patch.build(2L, Instant.now(), 10.0);
+
+        Assertions.assertEquals(5000, base.getMaxBillRateCents());
+        Assertions.assertEquals(4, patched.getColumns().size());
+        Assertions.assertEquals(3000, patched.getMaxBillRateCents());
+        Assertions.assertEquals(3000, patched.withLoadedAt(Instant.now()).getMaxBillRateCents());
+    }
+
+    private void assertSameSearch(JobCatalogSnapshot expected, JobCatalogSnapshot actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(jobIds(expected, RoaringBitmap.bitmapOfRange(0, expected.getJobs().size())),
+                                new TreeSet<>(actual.getJobs().stream().map(Job::getJobId).collect(Collectors.toList())));
+        for (int i = 0; i < 20; i++) {
+            DistanceQuery query = i == 0 ? null : DistanceQuery.of(randomLocation(), 5 + random.nextInt(100), DistanceUnit.KILOMETERS, DistanceFormula.HAVERSINE);
+            boolean hasDriverLicense = random.nextBoolean();
+            int availableDays = i % 2 == 0 ? DayMask.ALL : 1 + random.nextInt(DayMask.ALL);
+            Assertions.assertEquals(jobIds(expected, expected.getCandidates(query, hasDriverLicense, availableDays)), jobIds(actual, actual.getCandidates(query, hasDriverLicense, availableDays)));
+
+            long[] certificates = CertificateDictionary.getInstance().encode(randomCertificates());
+            Assertions.assertEquals(jobIds(expected, RoaringBitmap.and(expected.getCandidates(query, hasDriverLicense, availableDays), expected.getJobsRequiringAnyCertificate(certificates))),
+                                    jobIds(actual, RoaringBitmap.and(actual.getCandidates(query, hasDriverLicense, availableDays), actual.getJobsRequiringAnyCertificate(certificates))));
+        }
+    }
+
+    private Set<Long> jobIds(JobCatalogSnapshot snapshot, RoaringBitmap ordinals) {
+        Set<Long> jobIds = new TreeSet<>();
+        ordinals.forEach((int ordinal) -> jobIds.add(snapshot.getJob(ordinal).getJobId()));
+        return jobIds;
+    }
+
+    private List<Job> mutate(List<Job> payload) {
+        List<Job> mutated = new ArrayList<>();
+        for (Job job : payload) {
+            int change = random.nextInt(20);
+            if (change == 0) {
+                continue;
+            }
+            mutated.add(change == 1 ? randomJob(job.getJobId()) : job);
+        }
+        for (int i = 0; i < payload.size() / 20; i++) {
+            mutated.add(randomJob(nextJobId++));
+        }
+        Collections.shuffle(mutated, random);
+        return mutated;
+    }
+
+    private List<Job> copy(List<Job> jobs) {
+        List<Job> copy = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            copy.add(Job.builder()
+                             .jobId(job.getJobId())
+                             .workersRequired(job.getWorkersRequired())
+                             .driverLicenseRequired(job.getDriverLicenseRequired())
+                             .location(job.getLocation())
+                             .requiredCertificates(job.getRequiredCertificates())
+                             .build());
+        }
+        return copy;
+    }
+
+    private Job randomJob(long jobId) {
+        return Job.builder()
+                .jobId(jobId)
+                .workersRequired(random.nextInt(4))
+                .driverLicenseRequired(random.nextBoolean())
+                .location(random.nextInt(50) == 0 ? null : randomLocation())
+                .requiredCertificates(randomCertificates())
+                .startTime(random.nextInt(10) == 0 ? null : Instant.ofEpochSecond(1_446_000_000L + random.nextInt(30 * 86_400)))
+                .build();
+    }
+
+    private Coordinates randomLocation() {
+        return new Coordinates(13.0 + random.nextDouble() * 2, 49.0 + random.nextDouble() * 2);
+    }
+
+    private List<String> randomCertificates() {
+        List<String> certificates = new ArrayList<>();
+        for (String certificate : CERTIFICATES) {
+            if (random.nextInt(3) == 0) {
+                certificates.add(certificate);
+            }
+        }
+        return certificates;
+    }
+
+    private Job job(Long jobId, int workersRequired) {
+        return Job.builder().jobId(jobId).workersRequired(workersRequired).build();
+    }
+
+    private Job job(Long jobId, String billRate) {
+        return Job.builder().jobId(jobId).workersRequired(1).billRate(billRate).build();
+    }
+}
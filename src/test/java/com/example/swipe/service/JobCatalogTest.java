@@ -0,0 +1,242 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class JobCatalogTest {
+
+    private final JobService jobService = Mockito.mock(JobService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private JobCatalog jobCatalog;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2022-03-01T10:00:00Z"));
+        jobCatalog = new JobCatalog(jobService, meterRegistry, clock);
+        ReflectionTestUtils.setField(jobCatalog, "maxStalenessMillis", 60_000L);
+    }
+
+    @Test
+    public void getSnapshotLoadsCatalogWhenNothingLoadedYet() {
+        Mockito.when(jobService.forEachJob(Mockito.any())).thenAnswer(streaming(job(1L), job(2L)));
+
+        JobCatalogSnapshot snapshot = jobCatalog.getSnapshot();
+
+        Assertions.assertEquals(1L, snapshot.getVersion());
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertEquals(2.0, meterRegistry.get("job.catalog.snapshot.size").gauge().value());
+    }
+
+    @Test
+    public void getSnapshotServesFreshSnapshotWithoutCallingUpstream() {
+        Mockito.when(jobService.forEachJob(Mockito.any())).thenAnswer(streaming(job(1L)));
+        jobCatalog.refresh();
+
+        clock.advanceMillis(30_000L);
+        JobCatalogSnapshot snapshot = jobCatalog.getSnapshot();
+
+        Assertions.assertEquals(1L, snapshot.getVersion());
+        Mockito.verify(jobService, Mockito.times(1)).forEachJob(Mockito.any());
+        Assertions.assertEquals(30.0, meterRegistry.get("job.catalog.snapshot.age").timeGauge().value(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void getSnapshotFallsBackToLoadWhenStale() {
+        Mockito.when(jobService.forEachJob(Mockito.any())).thenAnswer(streaming(job(1L)));
+        jobCatalog.refresh();
+
+        clock.advanceMillis(60_001L);
+        JobCatalogSnapshot snapshot = jobCatalog.getSnapshot();
+
+        Assertions.assertEquals(2L, snapshot.getVersion());
+        Mockito.verify(jobService, Mockito.times(2)).forEachJob(Mockito.any());
+    }
+
+    @Test
+    public void failedRefreshKeepsPreviousSnapshot() {
+        Mockito.when(jobService.forEachJob(Mockito.any())).thenAnswer(streaming(job(1L))).thenThrow(new ResourceAccessException("timeout"));
+        JobCatalogSnapshot loaded = jobCatalog.refresh();
+
+        jobCatalog.scheduledRefresh();
+        clock.advanceMillis(60_001L);
+
+        Assertions.assertSame(loaded, jobCatalog.getSnapshot());
+    }
+
+    @Test
+    public void deltaSyncAppliesOnlyChangedJobs() {
+        ReflectionTestUtils.setField(jobCatalog, "deltaSync", true);
+        ReflectionTestUtils.setField(jobCatalog, "deltaCompactionRatio", 1.0);
+        Mockito.when(jobService.forEachJobIfModified(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(conditional("\"v1\"", job(1L), job(2L), job(3L)))
+                .thenAnswer(conditional("\"v2\"", job(1L), job(2L, 5), job(4L)));
+        JobCatalogSnapshot first = jobCatalog.refresh();
+
+        JobCatalogSnapshot second = jobCatalog.refresh();
+
+        Assertions.assertEquals(2L, second.getVersion());
+        Assertions.assertEquals(3, second.size());
+        Assertions.assertEquals(first.getJob(0).getJobId(), second.getJob(0).getJobId());
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 4L), second.getJobs().stream().map(Job::getJobId).sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(1.0, meterRegistry.get("job.catalog.delta.jobs").tag("change", "inserted").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("job.catalog.delta.jobs").tag("change", "updated").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("job.catalog.delta.jobs").tag("change", "removed").counter().count());
+        Mockito.verify(jobService).forEachJobIfModified(Mockito.eq("\"v1\""), Mockito.isNull(), Mockito.any());
+    }
+
+    @Test
+    public void deltaSyncNotifiesInsertedJobsOnly() {
+        ReflectionTestUtils.setField(jobCatalog, "deltaSync", true);
+        Mockito.when(jobService.forEachJobIfModified(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(conditional("\"v1\"", job(1L), job(2L)))
+                .thenAnswer(conditional("\"v2\"", job(1L), job(2L, 5), job(3L)));
+        List<Long> inserted = new ArrayList<>();
+        jobCatalog.addInsertListener((snapshot, jobs) -> jobs.forEach(job -> inserted.add(job.getJobId())));
+
+        jobCatalog.refresh();
+        Assertions.assertEquals(Collections.emptyList(), inserted);
+
+        jobCatalog.refresh();
+        Assertions.assertEquals(Collections.singletonList(3L), inserted);
+    }
+
+    @Test
+    public void deltaSyncKeepsVersionWhenNotModified() {
+        ReflectionTestUtils.setField(jobCatalog, "deltaSync", true);
+        Mockito.when(jobService.forEachJobIfModified(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(conditional("\"v1\"", job(1L)))
+                .thenReturn(notModified("\"v1\""))
+                .thenAnswer(conditional(null, job(1L)));
+        jobCatalog.refresh();
+
+        clock.advanceMillis(60_001L);
+        JobCatalogSnapshot notModified = jobCatalog.getSnapshot();
+        clock.advanceMillis(60_001L);
+        JobCatalogSnapshot unchanged = jobCatalog.getSnapshot();
+
+        Assertions.assertEquals(1L, notModified.getVersion());
+        Assertions.assertEquals(1L, unchanged.getVersion());
+        Assertions.assertEquals(clock.instant(), unchanged.getLoadedAt());
+        Mockito.verify(jobService, Mockito.times(3)).forEachJobIfModified(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    private Answer<JobService.ConditionalFetch> conditional(String eTag, Job... jobs) {
+        return invocation -> {
+            Consumer<Job> consumer = invocation.getArgument(2);
+            Arrays.stream(jobs).forEach(consumer);
+            return fetch(true, jobs.length, eTag);
+        };
+    }
+
+    private JobService.ConditionalFetch notModified(String eTag) {
+        return fetch(false, 0, eTag);
+    }
+
+    private JobService.ConditionalFetch fetch(boolean modified, int count, String eTag) {
+        return new JobService.ConditionalFetch(modified, count, eTag, null);
+    }
+
+    @Test
+    public void restartServesSnapshotFileUntilFirstLoad(@TempDir Path directory) {
+        JobCatalogFile file = new JobCatalogFile(directory.resolve("catalog.bin"), Duration.ofDays(1), clock);
+        JobCatalog first = new JobCatalog(jobService, meterRegistry, file, clock);
+        Mockito.when(jobService.forEachJob(Mockito.any())).thenAnswer(streaming(job(1L), job(2L)));
+        first.refresh();
+
+        JobCatalog restarted = new JobCatalog(jobService, new SimpleMeterRegistry(), file, clock);
+
+        Assertions.assertEquals(1L, restarted.peekSnapshot().getVersion());
+        Assertions.assertEquals(2, restarted.peekSnapshot().size());
+        Assertions.assertEquals(2L, restarted.refresh().getVersion());
+    }
+
+    @Test
+    public void unchangedCatalogKeepsSnapshotFileFresh(@TempDir Path directory) {
+        JobCatalogFile file = new JobCatalogFile(directory.resolve("catalog.bin"), Duration.ofMinutes(5), clock);
+        JobCatalog catalog = new JobCatalog(jobService, meterRegistry, file, clock);
+        ReflectionTestUtils.setField(catalog, "deltaSync", true);
+        Mockito.when(jobService.forEachJobIfModified(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(conditional("\"v1\"", job(1L)))
+                .thenReturn(notModified("\"v1\""));
+        catalog.refresh();
+
+        clock.advanceMillis(TimeUnit.MINUTES.toMillis(2));
+        catalog.refresh();
+        Assertions.assertEquals(Instant.parse("2022-03-01T10:00:00Z"), file.read().orElseThrow(AssertionError::new).getLoadedAt());
+
+        clock.advanceMillis(TimeUnit.MINUTES.toMillis(2));
+        catalog.refresh();
+        clock.advanceMillis(TimeUnit.MINUTES.toMillis(2));
+        JobCatalogSnapshot restored = file.read().orElseThrow(AssertionError::new);
+
+        Assertions.assertEquals(1L, restored.getVersion());
+        Assertions.assertEquals(Instant.parse("2022-03-01T10:04:00Z"), restored.getLoadedAt());
+    }
+
+    private Answer<Integer> streaming(Job... jobs) {
+        return invocation -> {
+            Consumer<Job> consumer = invocation.getArgument(0);
+            Arrays.stream(jobs).forEach(consumer);
+            return jobs.length;
+        };
+    }
+
+    private Job job(Long jobId) {
+        return job(jobId, 1);
+    }
+
+    private Job job(Long jobId, int workersRequired) {
+        return Job.builder().jobId(jobId).workersRequired(workersRequired).build();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceMillis(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
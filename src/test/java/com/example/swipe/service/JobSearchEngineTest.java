@@ -4,6 +4,10 @@ import com.example.swipe.domain.Job;
 import com.example.swipe.domain.Worker;
 import com.example.swipe.domain.Worker.GeocodePreference;
 import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.SwipeAction;
+import com.example.swipe.service.scoring.JobSignals;
+import com.example.swipe.service.scoring.ScoringPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +18,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 @Profile("test")
 @ExtendWith(SpringExtension.class)
@@ -28,7 +40,7 @@ public class JobSearchEngineTest {
 
         @Bean
         public JobSearchEngine jobSearchEngine() {
-            return new JobSearchEngine();
+            return new JobSearchEngine(new SimpleMeterRegistry());
         }
     }
 
@@ -36,7 +48,7 @@ public class JobSearchEngineTest {
     private JobSearchEngine jobSearchEngine;
 
     @MockBean
-    private JobService jobService;
+    private JobCatalog jobCatalog;
 
     @Test
     public void findMatchingJobsForNoWorkerReturnEmptyCollection() {
@@ -47,7 +59,7 @@ public class JobSearchEngineTest {
 
     @Test
     public void findMatchingJobsForWorkerWithNoJobsAvailableReturnEmptyCollection() {
-        Mockito.when(jobService.getJobs()).thenReturn(Collections.emptyList());
+        Mockito.when(jobCatalog.getSnapshot()).thenReturn(JobCatalogSnapshot.of(1L, Collections.emptyList()));
 
         List<Job> result = jobSearchEngine.findMatchingJobsForWorker(getWorker(), 0);
         Assertions.assertNotNull(result);
@@ -56,7 +68,7 @@ public class JobSearchEngineTest {
 
     @Test
     public void findMatchingJobsForWorkerReturnMatchingResult() {
-        Mockito.when(jobService.getJobs()).thenReturn(getJobs());
+        Mockito.when(jobCatalog.getSnapshot()).thenReturn(JobCatalogSnapshot.of(1L, getJobs()));
 
         List<Job> result = jobSearchEngine.findMatchingJobsForWorker(getWorker(), 3);
         Assertions.assertNotNull(result);
@@ -66,6 +78,173 @@ public class JobSearchEngineTest {
 
     }
 
+    @Test
+    public void findMatchingJobsForWorkerBreaksTiesByDistanceThenJobId() {
+        Worker worker = getWorker();
+        worker.setCertificates(Collections.emptyList());
+        Job far = Job.builder().jobId(1L).workersRequired(1).location(new Coordinates(15.067608, 50.101925)).build();
+        Job nearHighId = Job.builder().jobId(9L).workersRequired(1).location(new Coordinates(15.067608, 50.091925)).build();
+        Job nearLowId = Job.builder().jobId(5L).workersRequired(1).location(new Coordinates(15.067608, 50.091925)).build();
+        Mockito.when(jobCatalog.getSnapshot()).thenReturn(JobCatalogSnapshot.of(1L, Arrays.asList(far, nearHighId, nearLowId)));
+
+        List<Job> result = jobSearchEngine.findMatchingJobsForWorker(worker, 2);
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals((Long) 5L, result.get(0).getJobId());
+        Assertions.assertEquals((Long) 9L, result.get(1).getJobId());
+    }
+
+    @Test
+    public void parallelScanReturnsSameJobsAsSequentialScan() {
+        Random random = new Random(7);
+        List<String> certificates = Arrays.asList("AA", "CC", "PP", "XX", "YY");
+        List<Job> jobs = new ArrayList<>();
+        for (long jobId = 0; jobId < 2_000; jobId++) {
+            jobs.add(Job.builder()
+                             .jobId(jobId)
+                             .workersRequired(random.nextInt(3))
+                             .driverLicenseRequired(random.nextBoolean())
+                             .location(random.nextInt(20) == 0 ? null : new Coordinates(15.0 + random.nextDouble() / 5, 50.0 + random.nextDouble() / 5))
+                             .requiredCertificates(certificates.subList(0, random.nextInt(certificates.size())))
+                             .build());
+        }
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, jobs);
+        Worker worker = getWorker();
+
+        ReflectionTestUtils.setField(jobSearchEngine, "parallelThreshold", Integer.MAX_VALUE);
+        List<Long> sequential = jobIds(jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, 25));
+        ReflectionTestUtils.setField(jobSearchEngine, "parallelThreshold", 0);
+        ReflectionTestUtils.setField(jobSearchEngine, "parallelChunkSize", 37);
+        ReflectionTestUtils.setField(jobSearchEngine, "parallelism", 4);
+        List<Long> parallel = jobIds(jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, 25));
+
+        Assertions.assertEquals(25, sequential.size());
+        Assertions.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void findMatchingJobsForWorkerSkipsJobsStartingOnUnavailableDays() {
+        Worker worker = getWorker();
+        worker.setAvailability(Arrays.asList(day(1), null, day(3)));
+        // 2015-11-02 is a Monday.
+        Instant monday = Instant.parse("2015-11-02T09:00:00Z");
+        List<Job> jobs = new ArrayList<>();
+        for (int day = 0; day < 7; day++) {
+            jobs.add(Job.builder().jobId(100L + day).workersRequired(1).startTime(monday.plus(day, ChronoUnit.DAYS))
+                             .location(new Coordinates(15.067608, 50.081925)).build());
+        }
+        jobs.add(Job.builder().jobId(200L).workersRequired(1).location(new Coordinates(15.067608, 50.081925)).build());
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, jobs);
+
+        ReflectionTestUtils.setField(jobSearchEngine, "matchAvailability", true);
+        Assertions.assertEquals(Arrays.asList(100L, 102L, 200L), jobIds(jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, 10)));
+        worker.setAvailability(null);
+        Assertions.assertEquals(8, jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, 10).size());
+        worker.setAvailability(Collections.singletonList(day(6)));
+        ReflectionTestUtils.setField(jobSearchEngine, "matchAvailability", false);
+        Assertions.assertEquals(8, jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, 10).size());
+    }
+
+    @Test
+    public void searchRecordsTheJobsLeftAfterEachStage() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobSearchEngine engine = new JobSearchEngine(meterRegistry);
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+        List<Job> jobs = new ArrayList<>(getJobs());
+        jobs.add(Job.builder().jobId(401L).workersRequired(0).location(new Coordinates(15.067608, 50.081925)).build());
+        jobs.add(Job.builder().jobId(501L).workersRequired(1).build());
+        Worker worker = getWorker();
+        worker.setHasDriverLicense(false);
+
+        List<Job> result = engine.findMatchingJobsForWorker(JobCatalogSnapshot.of(1L, jobs), worker, 3);
+
+        Assertions.assertEquals(Arrays.asList(101L, 501L), jobIds(result));
+        Assertions.assertEquals(4, meterRegistry.get("job.search.jobs").tag("stage", "workers_required").summary().totalAmount());
+        Assertions.assertEquals(2, meterRegistry.get("job.search.jobs").tag("stage", "driver_license").summary().totalAmount());
+        Assertions.assertEquals(2, meterRegistry.get("job.search.jobs").tag("stage", "availability").summary().totalAmount());
+        Assertions.assertEquals(2, meterRegistry.get("job.search.jobs").tag("stage", "geo_cells").summary().totalAmount());
+        Assertions.assertEquals(2, meterRegistry.get("job.search.jobs").tag("stage", "distance").summary().totalAmount());
+        Assertions.assertEquals(2, meterRegistry.get("job.search.jobs").tag("stage", "results").summary().totalAmount());
+        Assertions.assertEquals(1, meterRegistry.get("job.search.anomalies").tag("reason", "no_location").counter().count());
+        for (String stage : Arrays.asList("candidates", "certificates", "scan", "materialize")) {
+            Assertions.assertEquals(1, meterRegistry.get("job.search.stage").tag("stage", stage).timer().count(), stage);
+        }
+    }
+
+    @Test
+    public void distanceStageIsOnlyRecordedWhenEveryCandidateIsScanned() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobSearchEngine engine = new JobSearchEngine(meterRegistry);
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+        List<Job> jobs = new ArrayList<>(getJobs());
+        jobs.add(Job.builder().jobId(501L).workersRequired(1).build());
+        Worker worker = getWorker();
+        worker.setHasDriverLicense(false);
+
+        List<Job> result = engine.findMatchingJobsForWorker(JobCatalogSnapshot.of(1L, jobs), worker, 1);
+
+        Assertions.assertEquals(Collections.singletonList(101L), jobIds(result));
+        Assertions.assertEquals(0, meterRegistry.get("job.search.jobs").tag("stage", "distance").summary().count());
+        Assertions.assertEquals(0, meterRegistry.get("job.search.stage").tag("stage", "scan").timer().count());
+        Assertions.assertEquals(1, meterRegistry.get("job.search.stage").tag("stage", "certificates").timer().count());
+    }
+
+    @Test
+    public void scoringPlanWeightsChangeTheRanking() {
+        Instant now = Instant.parse("2022-03-01T08:00:00Z");
+        JobSearchEngine engine = new JobSearchEngine(new SimpleMeterRegistry(), Clock.fixed(now, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+        Worker worker = getWorker();
+        worker.setSkills(Collections.singletonList("Cook"));
+        Job nearCheap = Job.builder().jobId(1L).workersRequired(1).billRate("$10").jobTitle("Driver")
+                .location(new Coordinates(15.067608, 50.081925)).build();
+        Job farWellPaid = Job.builder().jobId(2L).workersRequired(1).billRate("$30").jobTitle("Driver")
+                .location(new Coordinates(15.067608, 50.121925)).build();
+        Job cookStartingNow = Job.builder().jobId(3L).workersRequired(1).billRate("$10").jobTitle("cook").startTime(now)
+                .location(new Coordinates(15.067608, 50.101925)).build();
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, Arrays.asList(nearCheap, farWellPaid, cookStartingNow));
+
+        Assertions.assertEquals(Arrays.asList(1L, 3L, 2L), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+        engine.setScoringPlan(ScoringPlan.builder().add(JobSignals.billRate(), 1).build());
+        Assertions.assertEquals(Arrays.asList(2L, 1L, 3L), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+        engine.setScoringPlan(ScoringPlan.builder().add(JobSignals.billRate(), 1).add(JobSignals.skills(), 1).build());
+        Assertions.assertEquals(Arrays.asList(3L, 2L, 1L), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+        ReflectionTestUtils.setField(engine, "certificateWeight", 1.0);
+        ReflectionTestUtils.setField(engine, "startTimeWeight", 1.0);
+        ReflectionTestUtils.setField(engine, "startTimeHorizonHours", 24L);
+        engine.compileScoringPlan();
+        Assertions.assertEquals("1.0 * certificates + 1.0 * startTime", engine.getScoringPlan().toString());
+        Assertions.assertEquals(Arrays.asList(3L, 1L, 2L), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+    }
+
+    @Test
+    public void swipedJobsAreLeftOut() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobSearchEngine engine = new JobSearchEngine(meterRegistry);
+        SwipeStore swipeStore = new SwipeStore(SwipeLog.disabled(), meterRegistry, 256, 4096);
+        ReflectionTestUtils.setField(engine, "swipeStore", swipeStore);
+        ReflectionTestUtils.setField(engine, "parallelThreshold", Integer.MAX_VALUE);
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, getJobs());
+        Worker worker = getWorker();
+
+        swipeStore.record(10001L, 201L, SwipeAction.DECLINE);
+        swipeStore.record(10002L, 101L, SwipeAction.DECLINE);
+
+        Assertions.assertEquals(Collections.singletonList(101L), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+        Assertions.assertEquals(1, meterRegistry.get("job.search.swiped").counter().count());
+        swipeStore.record(10001L, 101L, SwipeAction.ACCEPT);
+        Assertions.assertEquals(Collections.emptyList(), jobIds(engine.findMatchingJobsForWorker(snapshot, worker, 3)));
+    }
+
+    private Worker.DayOfWeek day(int dayIndex) {
+        Worker.DayOfWeek day = new Worker.DayOfWeek();
+        day.setDayIndex(dayIndex);
+        return day;
+    }
+
+    private List<Long> jobIds(List<Job> jobs) {
+        return jobs.stream().map(Job::getJobId).collect(Collectors.toList());
+    }
+
     private Worker getWorker() {
         GeocodePreference jobSearchAddress = new GeocodePreference("km", 10);
         jobSearchAddress.setLongitude(15.067608);
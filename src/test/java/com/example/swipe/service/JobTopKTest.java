@@ -0,0 +1,53 @@
+package com.example.swipe.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class JobTopKTest {
+
+    @Test
+    public void retainsSameJobsAsFullSort() {
+        Random random = new Random(5);
+        int count = 2_000;
+        double[] scores = new double[count];
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i++) {
+            // Few distinct values so that ties on score and distance are frequent.
+            scores[i] = random.nextInt(4) / 3.0;
+            distances[i] = random.nextInt(10);
+        }
+
+        for (int limit : new int[]{0, 1, 3, 50, count, count + 10}) {
+            JobTopK topK = new JobTopK(limit);
+            for (int i = 0; i < count; i++) {
+                topK.offer(i, scores[i], distances[i], 10_000 - i);
+            }
+
+            int[] expected = IntStream.range(0, count)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingDouble(i -> distances[i]).thenComparingLong(i -> 10_000 - i))
+                    .limit(limit)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            Assertions.assertArrayEquals(expected, topK.toRankedOrdinals(), "limit " + limit);
+        }
+    }
+
+    @Test
+    public void addAllMergesSelectors() {
+        JobTopK left = new JobTopK(2);
+        left.offer(0, 0.5, 1, 100);
+        left.offer(1, 1.0, 9, 101);
+        JobTopK right = new JobTopK(2);
+        right.offer(2, 1.0, 3, 102);
+        right.offer(3, 0.1, 1, 103);
+
+        left.addAll(right);
+
+        Assertions.assertArrayEquals(new int[]{2, 1}, left.toRankedOrdinals());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.Worker.GeocodePreference;
+import com.example.swipe.domain.common.SwipeAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class RecommendationCacheTest {
+
+    private final JobCatalog jobCatalog = Mockito.mock(JobCatalog.class);
+    private final JobSearchEngine jobSearchEngine = Mockito.mock(JobSearchEngine.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SwipeStore swipeStore = new SwipeStore(SwipeLog.disabled(), meterRegistry, 4, 64);
+    private final JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, Collections.singletonList(Job.builder().jobId(1L).build()));
+    private final List<Job> jobs = snapshot.getJobs();
+    private RecommendationCache recommendationCache;
+    private Consumer<JobCatalogSnapshot> snapshotListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        recommendationCache = new RecommendationCache(jobCatalog, jobSearchEngine, swipeStore, meterRegistry, 100, 60_000);
+        ArgumentCaptor<Consumer<JobCatalogSnapshot>> listener = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(jobCatalog).addSnapshotListener(listener.capture());
+        snapshotListener = listener.getValue();
+
+        Mockito.when(jobCatalog.getSnapshot()).thenReturn(snapshot);
+        Mockito.when(jobSearchEngine.findMatchingJobsForWorker(Mockito.any(), Mockito.any(), Mockito.anyInt())).thenReturn(jobs);
+    }
+
+    @Test
+    public void sameProfileAndCatalogVersionIsServedFromCache() {
+        List<Job> first = recommendationCache.findMatchingJobsForWorker(worker(1L, "AA", "BB"), 3);
+        List<Job> second = recommendationCache.findMatchingJobsForWorker(worker(2L, "BB", "AA"), 3);
+
+        Assertions.assertEquals(jobs, first);
+        Assertions.assertSame(first, second);
+        Mockito.verify(jobSearchEngine, Mockito.times(1)).findMatchingJobsForWorker(Mockito.any(), Mockito.any(), Mockito.anyInt());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "recommendations").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "recommendations").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void profileLimitAndCatalogVersionArePartOfTheKey() {
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA"), 3);
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA", "BB"), 3);
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA"), 5);
+        recommendationCache.findMatchingJobsForWorker(JobCatalogSnapshot.of(2L, snapshot.getJobs()), worker(1L, "AA"), 3);
+
+        Mockito.verify(jobSearchEngine, Mockito.times(4)).findMatchingJobsForWorker(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void workerWithSwipesHasOwnEntriesMissedByNewSwipes() {
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA"), 3);
+        swipeStore.record(2L, 1L, SwipeAction.DECLINE);
+        recommendationCache.findMatchingJobsForWorker(worker(2L, "AA"), 3);
+        recommendationCache.findMatchingJobsForWorker(worker(2L, "AA"), 3);
+        swipeStore.record(2L, 2L, SwipeAction.ACCEPT);
+        recommendationCache.findMatchingJobsForWorker(worker(2L, "AA"), 3);
+        recommendationCache.findMatchingJobsForWorker(worker(3L, "AA"), 3);
+
+        Mockito.verify(jobSearchEngine, Mockito.times(3)).findMatchingJobsForWorker(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void newSnapshotInvalidatesEntries() {
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA"), 3);
+
+        snapshotListener.accept(JobCatalogSnapshot.of(2L, snapshot.getJobs()));
+        recommendationCache.findMatchingJobsForWorker(worker(1L, "AA"), 3);
+
+        Mockito.verify(jobSearchEngine, Mockito.times(2)).findMatchingJobsForWorker(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void profileHashIgnoresFieldsTheSearchDoesNotUse() {
+        Worker worker = worker(1L, "AA");
+        Worker other = worker(2L, "AA");
+        other.setEmail("someone@example.com");
+        other.setRating(5);
+
+        Assertions.assertEquals(RecommendationCache.profileHash(worker), RecommendationCache.profileHash(other));
+        other.setHasDriverLicense(false);
+        Assertions.assertNotEquals(RecommendationCache.profileHash(worker), RecommendationCache.profileHash(other));
+        other.setHasDriverLicense(true);
+        other.getJobSearchAddress().setMaxJobDistance(40);
+        Assertions.assertNotEquals(RecommendationCache.profileHash(worker), RecommendationCache.profileHash(other));
+    }
+
+    private Worker worker(Long userId, String... certificates) {
+        GeocodePreference jobSearchAddress = new GeocodePreference("km", 30);
+        jobSearchAddress.setLongitude(14.4378);
+        jobSearchAddress.setLatitude(50.0755);
+        return Worker.builder()
+                .userId(userId)
+                .hasDriverLicense(true)
+                .jobSearchAddress(jobSearchAddress)
+                .certificates(Arrays.asList(certificates))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RecommendationSessionsTest {
+
+    private final JobSearchEngine jobSearchEngine = Mockito.mock(JobSearchEngine.class);
+    private final JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, Arrays.asList(job(10L), job(11L), job(12L), job(13L), job(14L)));
+    private final Worker worker = Worker.builder().userId(7L).build();
+    private RecommendationSessions recommendationSessions;
+
+    @BeforeEach
+    public void setUp() {
+        recommendationSessions = new RecommendationSessions(jobSearchEngine, new SimpleMeterRegistry(), 100, 60_000, 2);
+        ReflectionTestUtils.setField(recommendationSessions, "depth", 10);
+        Mockito.when(jobSearchEngine.findMatchingOrdinals(Mockito.any(), Mockito.any(), Mockito.anyInt())).thenReturn(new int[]{4, 0, 2, 1, 3});
+    }
+
+    @Test
+    public void pagesFollowTheRankingOfTheFirstPage() {
+        RecommendationSessions.Page first = recommendationSessions.firstPage(snapshot, worker, 2);
+        RecommendationSessions.Page second = recommendationSessions.nextPage(7L, RecommendationSessions.parseCursor(first.getNextCursor()), 2);
+        RecommendationSessions.Page last = recommendationSessions.nextPage(7L, RecommendationSessions.parseCursor(second.getNextCursor()), 2);
+        RecommendationSessions.Page retried = recommendationSessions.nextPage(7L, RecommendationSessions.parseCursor(second.getNextCursor()), 5);
+
+        Assertions.assertEquals(Arrays.asList(14L, 10L), jobIds(first.getJobs()));
+        Assertions.assertEquals(Arrays.asList(12L, 11L), jobIds(second.getJobs()));
+        Assertions.assertEquals(Arrays.asList(13L), jobIds(last.getJobs()));
+        Assertions.assertNull(last.getNextCursor());
+        Assertions.assertEquals(Arrays.asList(13L), jobIds(retried.getJobs()));
+        Mockito.verify(jobSearchEngine, Mockito.times(1)).findMatchingOrdinals(snapshot, worker, 10);
+    }
+
+    @Test
+    public void singlePageStartsNoSession() {
+        RecommendationSessions.Page page = recommendationSessions.firstPage(snapshot, worker, 5);
+
+        Assertions.assertEquals(Arrays.asList(14L, 10L, 12L, 11L, 13L), jobIds(page.getJobs()));
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void cursorIsBoundToItsWorkerAndSession() {
+        RecommendationSessions.Cursor cursor = RecommendationSessions.parseCursor(recommendationSessions.firstPage(snapshot, worker, 2).getNextCursor());
+
+        Assertions.assertEquals(2, cursor.getOffset());
+        Assertions.assertNull(recommendationSessions.nextPage(8L, cursor, 2));
+        recommendationSessions.invalidateAll();
+        Assertions.assertNull(recommendationSessions.nextPage(7L, cursor, 2));
+        Assertions.assertNull(RecommendationSessions.parseCursor("abc"));
+        Assertions.assertNull(RecommendationSessions.parseCursor("not a cursor!"));
+    }
+
+    @Test
+    public void sessionsOfDroppedSnapshotsExpire() {
+        RecommendationSessions.Cursor first = RecommendationSessions.parseCursor(recommendationSessions.firstPage(snapshot, worker, 2).getNextCursor());
+        RecommendationSessions.Cursor second = RecommendationSessions.parseCursor(recommendationSessions.firstPage(catalog(2L), worker, 2).getNextCursor());
+        RecommendationSessions.Cursor third = RecommendationSessions.parseCursor(recommendationSessions.firstPage(catalog(3L), worker, 2).getNextCursor());
+
+        Assertions.assertNull(recommendationSessions.nextPage(7L, first, 2));
+        Assertions.assertEquals(Arrays.asList(12L, 11L), jobIds(recommendationSessions.nextPage(7L, second, 2).getJobs()));
+        Assertions.assertEquals(Arrays.asList(12L, 11L), jobIds(recommendationSessions.nextPage(7L, third, 2).getJobs()));
+    }
+
+    private static JobCatalogSnapshot catalog(long version) {
+        return JobCatalogSnapshot.of(version, Arrays.asList(job(10L), job(11L), job(12L), job(13L), job(14L)));
+    }
+
+    private static Job job(long jobId) {
+        return Job.builder().jobId(jobId).workersRequired(1).build();
+    }
+
+    private static List<Long> jobIds(List<Job> jobs) {
+        return jobs.stream().map(Job::getJobId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.SwipeAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SwipeStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void swipesAreReplayedFromTheLog() {
+        SwipeLog log = new SwipeLog(directory.resolve("swipes.log"));
+        SwipeStore store = new SwipeStore(log, new SimpleMeterRegistry(), 2, 64);
+        store.record(1L, 10L, SwipeAction.DECLINE);
+        store.record(1L, 11L, SwipeAction.ACCEPT);
+        store.record(1L, 12L, SwipeAction.DECLINE);
+        store.record(2L, 10L, SwipeAction.DECLINE);
+        log.close();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SwipeStore restarted = new SwipeStore(new SwipeLog(directory.resolve("swipes.log")), meterRegistry, 2, 64);
+
+        Assertions.assertEquals(3, restarted.getSeenJobs(1L).size());
+        Assertions.assertTrue(restarted.getSeenJobs(1L).contains(12L));
+        Assertions.assertTrue(restarted.getSeenJobs(2L).contains(10L));
+        Assertions.assertFalse(restarted.getSeenJobs(2L).contains(11L));
+        Assertions.assertNull(restarted.getSeenJobs(3L));
+        Assertions.assertEquals(2, meterRegistry.get("swipe.store.workers").gauge().value());
+    }
+
+    @Test
+    public void swipeCutShortIsDropped() throws IOException {
+        Path path = directory.resolve("swipes.log");
+        SwipeLog log = new SwipeLog(path);
+        new SwipeStore(log, new SimpleMeterRegistry(), 2, 64).record(1L, 10L, SwipeAction.DECLINE);
+        log.close();
+        try (RandomAccessFile raw = new RandomAccessFile(path.toFile(), "rw")) {
+            raw.seek(raw.length());
+            raw.write(new byte[5]);
+        }
+
+        SwipeLog reopened = new SwipeLog(path);
+        SwipeStore store = new SwipeStore(reopened, new SimpleMeterRegistry(), 2, 64);
+        store.record(1L, 11L, SwipeAction.DECLINE);
+        reopened.close();
+
+        SwipeStore restarted = new SwipeStore(new SwipeLog(path), new SimpleMeterRegistry(), 2, 64);
+        Assertions.assertEquals(2, restarted.getSeenJobs(1L).size());
+        Assertions.assertTrue(restarted.getSeenJobs(1L).contains(11L));
+    }
+
+    @Test
+    public void fileOfAnotherFormatIsLeftUntouched() throws IOException {
+        Path path = directory.resolve("swipes.log");
+        Files.write(path, "not a swipe log".getBytes());
+
+        SwipeLog log = new SwipeLog(path);
+        new SwipeStore(log, new SimpleMeterRegistry(), 2, 64).record(1L, 10L, SwipeAction.DECLINE);
+
+        Assertions.assertEquals("not a swipe log", new String(Files.readAllBytes(path)));
+    }
+
+    @Test
+    public void forgottenAndRepeatedSwipesAreCompactedOnReplay() throws IOException {
+        Path path = directory.resolve("swipes.log");
+        SwipeLog log = new SwipeLog(path);
+        SwipeStore store = new SwipeStore(log, new SimpleMeterRegistry(), 2, 64);
+        store.record(1L, 10L, SwipeAction.DECLINE);
+        store.record(1L, 10L, SwipeAction.ACCEPT);
+        store.record(2L, 10L, SwipeAction.DECLINE);
+        store.forget(1L);
+        store.record(1L, 11L, SwipeAction.DECLINE);
+        log.close();
+        Assertions.assertEquals(8 + 4 * 17, Files.size(path));
+
+        SwipeStore restarted = new SwipeStore(new SwipeLog(path), new SimpleMeterRegistry(), 2, 64);
+
+        Assertions.assertEquals(8 + 2 * 17, Files.size(path));
+        Assertions.assertEquals(1, restarted.getSeenJobs(1L).size());
+        Assertions.assertTrue(restarted.getSeenJobs(1L).contains(11L));
+        Assertions.assertTrue(restarted.getSeenJobs(2L).contains(10L));
+        restarted.record(3L, 10L, SwipeAction.DECLINE);
+        Assertions.assertEquals(8 + 3 * 17, Files.size(path));
+    }
+
+    @Test
+    public void workersRemovedFromTheStoreAreForgotten() {
+        WorkerStore workerStore = Mockito.mock(WorkerStore.class);
+        SwipeStore store = new SwipeStore(SwipeLog.disabled(), workerStore, new SimpleMeterRegistry(), 2, 64);
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(workerStore).addLoadListener(listener.capture());
+        store.record(1L, 10L, SwipeAction.DECLINE);
+        store.record(2L, 10L, SwipeAction.DECLINE);
+
+        listener.getValue().run();
+        Assertions.assertNotNull(store.getSeenJobs(2L));
+
+        Mockito.when(workerStore.size()).thenReturn(1);
+        Mockito.when(workerStore.peekWorker(1L, true)).thenReturn(Worker.builder().userId(1L).build());
+        listener.getValue().run();
+
+        Assertions.assertNotNull(store.getSeenJobs(1L));
+        Assertions.assertNull(store.getSeenJobs(2L));
+    }
+}
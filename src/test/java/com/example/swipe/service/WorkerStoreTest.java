@@ -0,0 +1,69 @@
+package com.example.swipe.service;
+
+import com.example.swipe.domain.Worker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class WorkerStoreTest {
+
+    private final WorkerService workerService = Mockito.mock(WorkerService.class);
+    private WorkerStore workerStore;
+
+    @BeforeEach
+    public void setUp() {
+        workerStore = new WorkerStore(workerService, new SimpleMeterRegistry(), Clock.fixed(Instant.parse("2022-03-01T10:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(workerStore, "entryTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(workerStore, "missReloadMinIntervalMillis", 5_000L);
+    }
+
+    @Test
+    public void getWorkerIsServedFromStoreAfterRefresh() {
+        Mockito.when(workerService.forEachWorker(Mockito.any())).thenAnswer(streaming(worker(0L), worker(46L)));
+        workerStore.refresh();
+
+        Assertions.assertEquals((Long) 0L, workerStore.getWorker(0L).getUserId());
+        Assertions.assertEquals((Long) 46L, workerStore.getWorker(46L).getUserId());
+        Mockito.verify(workerService, Mockito.times(1)).forEachWorker(Mockito.any());
+    }
+
+    @Test
+    public void getWorkerReadsThroughOnMiss() {
+        Mockito.when(workerService.forEachWorker(Mockito.any())).thenAnswer(streaming(worker(7L)));
+
+        Assertions.assertEquals((Long) 7L, workerStore.getWorker(7L).getUserId());
+        Assertions.assertEquals(1, workerStore.size());
+    }
+
+    @Test
+    public void unknownWorkersDoNotReloadWithinMinInterval() {
+        Mockito.when(workerService.forEachWorker(Mockito.any())).thenAnswer(streaming(worker(7L)));
+        workerStore.refresh();
+
+        Assertions.assertNull(workerStore.getWorker(123L));
+        Assertions.assertNull(workerStore.getWorker(124L));
+        Mockito.verify(workerService, Mockito.times(1)).forEachWorker(Mockito.any());
+    }
+
+    private Answer<Integer> streaming(Worker... workers) {
+        return invocation -> {
+            Consumer<Worker> consumer = invocation.getArgument(0);
+            Arrays.stream(workers).forEach(consumer);
+            return workers.length;
+        };
+    }
+
+    private Worker worker(Long userId) {
+        return Worker.builder().userId(userId).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CertificateDictionaryTest {
+
+    private final CertificateDictionary dictionary = CertificateDictionary.getInstance();
+
+    @Test
+    public void internReturnsStableIds() {
+        int id = dictionary.intern("Outstanding Innovator");
+        Assertions.assertEquals(id, dictionary.intern("Outstanding Innovator"));
+        Assertions.assertNotEquals(id, dictionary.intern("outstanding innovator"));
+    }
+
+    @Test
+    public void countCommonMatchesListIntersection() {
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            many.add("Certificate " + i);
+        }
+        long[] required = dictionary.encode(Arrays.asList("Certificate 3", "Certificate 70", "Certificate 149", "Missing"));
+        long[] held = dictionary.encode(many);
+
+        Assertions.assertEquals(4, CertificateDictionary.count(required));
+        Assertions.assertEquals(3, CertificateDictionary.countCommon(required, held));
+        Assertions.assertEquals(3, CertificateDictionary.countCommon(held, required));
+        Assertions.assertEquals(0, CertificateDictionary.count(dictionary.encode(Collections.emptyList())));
+        Assertions.assertEquals(0, CertificateDictionary.count(dictionary.encode(null)));
+    }
+
+    @Test
+    public void bitsetIsNotSerialized() throws JsonProcessingException {
+        Job job = Job.builder().jobId(1L).requiredCertificates(Collections.singletonList("A")).build();
+        job.setRequiredCertificateBits(dictionary.encode(job.getRequiredCertificates()));
+
+        String json = new ObjectMapper().writeValueAsString(job);
+
+        Assertions.assertFalse(json.contains("requiredCertificateBits"), json);
+    }
+}
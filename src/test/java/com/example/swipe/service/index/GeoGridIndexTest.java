@@ -0,0 +1,83 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.utility.ApplicationUtilities;
+import com.example.swipe.utility.IntArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class GeoGridIndexTest {
+
+    private static final String UNIT = "km";
+
+    @Test
+    public void queryFindsSameJobsAsLinearScan() {
+        Random random = new Random(42);
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            jobs.add(job(i, new Coordinates(-180 + random.nextDouble() * 360, -90 + random.nextDouble() * 180)));
+        }
+        GeoGridIndex index = GeoGridIndex.build(jobs);
+
+        // Regular case, antimeridian on both sides, and circles containing a pole.
+        assertSameAsLinearScan(jobs, index, new Coordinates(14.2, 50.1), 500);
+        assertSameAsLinearScan(jobs, index, new Coordinates(179.9, -16.5), 800);
+        assertSameAsLinearScan(jobs, index, new Coordinates(-179.5, 65.0), 1_500);
+        assertSameAsLinearScan(jobs, index, new Coordinates(10.0, 89.0), 400);
+        assertSameAsLinearScan(jobs, index, new Coordinates(-60.0, -88.0), 3_000);
+        for (int i = 0; i < 50; i++) {
+            Coordinates centre = new Coordinates(-180 + random.nextDouble() * 360, -90 + random.nextDouble() * 180);
+            assertSameAsLinearScan(jobs, index, centre, 50 + random.nextInt(2_000));
+        }
+    }
+
+    @Test
+    public void jobsWithoutLocationAreAlwaysCandidates() {
+        List<Job> jobs = List.of(job(0, null), job(1, new Coordinates(14.2, 50.1)), job(2, new Coordinates(-70.0, -30.0)));
+        GeoGridIndex index = GeoGridIndex.build(jobs);
+
+        IntArrayList candidates = new IntArrayList();
+        index.query(50.1, 14.2, 10 / DistanceUnit.KILOMETERS.earthRadius(), candidates);
+        candidates.sort();
+
+        Assertions.assertArrayEquals(new int[]{0, 1}, candidates.toArray());
+    }
+
+    private void assertSameAsLinearScan(List<Job> jobs, GeoGridIndex index, Coordinates centre, double radiusKm) {
+        Set<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            if (ApplicationUtilities.distance(jobs.get(i).getLocation(), centre, UNIT) < radiusKm) {
+                expected.add(i);
+            }
+        }
+
+        IntArrayList candidates = new IntArrayList();
+        index.query(centre.getLatitude(), centre.getLongitude(), radiusKm / DistanceUnit.KILOMETERS.earthRadius(), candidates);
+        Set<Integer> actual = new TreeSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int ordinal = candidates.get(i);
+            Assertions.assertTrue(actual.add(ordinal), "Ordinal reported twice: " + ordinal);
+            if (ApplicationUtilities.distance(jobs.get(ordinal).getLocation(), centre, UNIT) >= radiusKm) {
+                actual.remove(ordinal);
+            }
+        }
+
+        Assertions.assertEquals(expected, actual, "Mismatch around " + centre + " within " + radiusKm + " km");
+
+        candidates.sort();
+        Assertions.assertArrayEquals(candidates.toArray(),
+                                     index.queryBitmap(centre.getLatitude(), centre.getLongitude(), radiusKm / DistanceUnit.KILOMETERS.earthRadius()).toArray());
+    }
+
+    private Job job(long jobId, Coordinates location) {
+        return Job.builder().jobId(jobId).location(location).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.common.Coordinates;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JobColumnsTest {
+
+    @Test
+    public void materializedJobHasTheStoredFields() {
+        Job job = Job.builder()
+                .jobId(7L)
+                .guid("guid-7")
+                .company("Columns Inc")
+                .jobTitle("Driver")
+                .about("About")
+                .startTime(Instant.parse("2022-03-01T08:00:00Z"))
+                .workersRequired(2)
+                .billRate("$10.00")
+                .location(new Coordinates(13.5, 49.5))
+                .requiredCertificates(Arrays.asList("Columns Forklift", "Columns Welding"))
+                .driverLicenseRequired(true)
+                .build();
+        JobColumns columns = JobColumns.of(Arrays.asList(job, Job.builder().build()));
+
+        Job stored = columns.getJob(0);
+        Assertions.assertEquals(job.toString(), stored.toString());
+        Assertions.assertTrue(columns.sameContent(0, job));
+        Assertions.assertArrayEquals(CertificateDictionary.getInstance().encode(job.getRequiredCertificates()), stored.getRequiredCertificateBits());
+
+        Job empty = columns.getJob(1);
+        Assertions.assertNull(empty.getJobId());
+        Assertions.assertNull(empty.getLocation());
+        Assertions.assertNull(empty.getRequiredCertificates());
+        Assertions.assertEquals(Long.MAX_VALUE, columns.getRankingJobId(1));
+        Assertions.assertTrue(columns.sameContent(1, Job.builder().build()));
+    }
+
+    @Test
+    public void sameContentComparesEveryField() {
+        JobColumns columns = JobColumns.of(Collections.singletonList(job(1L, 13.5, "Columns Crane")));
+
+        Assertions.assertTrue(columns.sameContent(0, job(1L, 13.5, "Columns Crane")));
+        Assertions.assertFalse(columns.sameContent(0, job(2L, 13.5, "Columns Crane")));
+        Assertions.assertFalse(columns.sameContent(0, job(1L, 13.6, "Columns Crane")));
+        Assertions.assertFalse(columns.sameContent(0, job(1L, 13.5)));
+        Job otherTitle = job(1L, 13.5, "Columns Crane");
+        otherTitle.setJobTitle("Other");
+        Assertions.assertFalse(columns.sameContent(0, otherTitle));
+    }
+
+    @Test
+    public void equalCertificateSetsAreStoredOnce() {
+        JobColumns columns = JobColumns.of(Arrays.asList(job(1L, 13.5, "Columns Crane", "Columns First Aid"),
+                                                         job(2L, 13.5, "Columns Crane", "Columns First Aid"),
+                                                         job(3L, 13.5, "Columns Crane")));
+
+        Assertions.assertSame(columns.getRequiredCertificateBits(0), columns.getRequiredCertificateBits(1));
+        Assertions.assertNotSame(columns.getRequiredCertificateBits(0), columns.getRequiredCertificateBits(2));
+    }
+
+    @Test
+    public void appendLeavesTheBaseUnchanged() {
+        JobColumns base = JobColumns.of(Collections.singletonList(job(1L, 13.5, "Columns Crane")));
+
+        JobColumns appended = base.append(Arrays.asList(job(2L, 14.5, "Columns Welding"), job(3L, 15.5)));
+
+        Assertions.assertEquals(1, base.size());
+        Assertions.assertEquals(3, appended.size());
+        Assertions.assertEquals(1L, appended.getRankingJobId(0));
+        Assertions.assertEquals(3L, appended.getRankingJobId(2));
+        Assertions.assertEquals(14.5, appended.getLongitude(1));
+        Assertions.assertSame(base.getRequiredCertificateBits(0), appended.getRequiredCertificateBits(0));
+    }
+
+    @Test
+    public void rankingColumnsAreDerivedFromTheJob() throws IOException {
+        Job job = job(1L, 13.5);
+        job.setJobTitle(" Forklift Driver ");
+        job.setBillRate("$1,234.565");
+        job.setStartTime(Instant.parse("2022-03-01T08:00:00Z"));
+        JobColumns base = JobColumns.of(Arrays.asList(job, Job.builder().billRate("n/a").build()));
+        JobColumns appended = base.append(Collections.singletonList(Job.builder().billRate("$2000").build()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        base.write(new DataOutputStream(bytes), new int[]{0, 1});
+        JobColumns read = JobColumns.read(ByteBuffer.wrap(bytes.toByteArray()));
+
+        for (JobColumns columns : Arrays.asList(base, appended, read)) {
+            Assertions.assertEquals(123457, columns.getBillRateCents(0));
+            Assertions.assertEquals(-1, columns.getBillRateCents(1));
+            Assertions.assertEquals(1646121600L, columns.getStartEpochSecond(0));
+            Assertions.assertEquals(Long.MIN_VALUE, columns.getStartEpochSecond(1));
+            Assertions.assertEquals(JobColumns.titleHash("forklift driver"), columns.getTitleHash(0));
+            Assertions.assertEquals(0, columns.getTitleHash(1));
+        }
+        Assertions.assertEquals(123457, base.getMaxBillRateCents());
+        Assertions.assertEquals(200000, appended.getMaxBillRateCents());
+        Assertions.assertEquals(123457, read.getMaxBillRateCents());
+    }
+
+    private Job job(Long jobId, double longitude, String... certificates) {
+        List<String> required = Arrays.asList(certificates);
+        return Job.builder().jobId(jobId).jobTitle("Title").workersRequired(1).location(new Coordinates(longitude, 49.5)).requiredCertificates(required).build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JobPostingIndexTest {
+
+    private final CertificateDictionary dictionary = CertificateDictionary.getInstance();
+
+    @Test
+    public void postingListsHoldOrdinalsOfMatchingJobs() {
+        List<Job> jobs = Arrays.asList(job(3, false, "Posting Forklift"),
+                                       job(0, false, "Posting Forklift", "Posting First Aid"),
+                                       job(1, true),
+                                       job(null, null, "Posting First Aid"));
+        JobPostingIndex index = JobPostingIndex.build(jobs);
+
+        Assertions.assertArrayEquals(new int[]{0, 2}, index.getOpen().toArray());
+        Assertions.assertArrayEquals(new int[]{0, 1, 3}, index.getNoLicenseRequired().toArray());
+        Assertions.assertArrayEquals(new int[]{0, 1}, index.getRequiringCertificate(dictionary.intern("Posting Forklift")).toArray());
+        Assertions.assertArrayEquals(new int[]{1, 3}, index.getRequiringCertificate(dictionary.intern("Posting First Aid")).toArray());
+        Assertions.assertTrue(index.getRequiringCertificate(dictionary.intern("Posting Unused")).isEmpty());
+    }
+
+    @Test
+    public void requiringAnyCertificateIsUnionOfPostingLists() {
+        List<Job> jobs = Arrays.asList(job(1, false, "Posting Welding"),
+                                       job(1, false, "Posting Crane"),
+                                       job(1, false),
+                                       job(1, false, "Posting Welding", "Posting Crane"));
+        JobPostingIndex index = JobPostingIndex.build(jobs);
+
+        Assertions.assertArrayEquals(new int[]{0, 1, 3}, index.getRequiringAnyCertificate(dictionary.encode(Arrays.asList("Posting Welding", "Posting Crane"))).toArray());
+        Assertions.assertArrayEquals(new int[]{1, 3}, index.getRequiringAnyCertificate(dictionary.encode(Collections.singletonList("Posting Crane"))).toArray());
+        Assertions.assertTrue(index.getRequiringAnyCertificate(dictionary.encode(Collections.emptyList())).isEmpty());
+    }
+
+    @Test
+    public void startDayPostingListsFollowAvailabilityAndPatches() {
+        // 2015-11-02 is a Monday.
+        Instant monday = Instant.parse("2015-11-02T23:30:00Z");
+        List<Job> jobs = Arrays.asList(startingAt(monday), startingAt(monday.plus(1, ChronoUnit.DAYS)), startingAt(null),
+                                       startingAt(monday.plus(6, ChronoUnit.DAYS)));
+        JobColumns columns = JobColumns.of(jobs);
+        JobPostingIndex index = JobPostingIndex.build(columns, 0, columns.size());
+
+        Assertions.assertSame(index.getOpen(), index.getOpenStartingOnAnyDay(DayMask.ALL));
+        Assertions.assertArrayEquals(new int[]{0, 2}, index.getOpenStartingOnAnyDay(1).toArray());
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, index.getOpenStartingOnAnyDay(1 << 1 | 1 << 6).toArray());
+        Assertions.assertArrayEquals(new int[]{2}, index.getOpenStartingOnAnyDay(1 << 2).toArray());
+
+        JobColumns appended = columns.append(Collections.singletonList(startingAt(monday.plus(7, ChronoUnit.DAYS))));
+        JobPostingIndex patched = index.patch(RoaringBitmap.bitmapOf(0), appended, columns.size());
+
+        Assertions.assertArrayEquals(new int[]{2, 4}, patched.getOpenStartingOnAnyDay(1).toArray());
+        Assertions.assertArrayEquals(new int[]{0, 2}, index.getOpenStartingOnAnyDay(1).toArray());
+    }
+
+    @Test
+    public void availabilityWithoutValidDayMatchesEveryDay() {
+        Assertions.assertEquals(DayMask.ALL, DayMask.of(null));
+        Assertions.assertEquals(DayMask.ALL, DayMask.of(Arrays.asList(null, day(0), day(null))));
+        Assertions.assertEquals(1 | 1 << 6, DayMask.of(Arrays.asList(day(1), day(7), day(8), day(1))));
+        Assertions.assertEquals(4, DayMask.dayIndex(Instant.EPOCH));
+        Assertions.assertEquals(3, DayMask.dayIndex(Instant.EPOCH.minusSeconds(1)));
+        Assertions.assertEquals(0, DayMask.dayIndex(null));
+    }
+
+    private Job startingAt(Instant startTime) {
+        return Job.builder().workersRequired(1).startTime(startTime).build();
+    }
+
+    private Worker.DayOfWeek day(Integer dayIndex) {
+        Worker.DayOfWeek day = new Worker.DayOfWeek();
+        day.setDayIndex(dayIndex);
+        return day;
+    }
+
+    private Job job(Integer workersRequired, Boolean driverLicenseRequired, String... certificates) {
+        Job job = Job.builder().workersRequired(workersRequired).driverLicenseRequired(driverLicenseRequired).requiredCertificates(Arrays.asList(certificates)).build();
+        job.setRequiredCertificateBits(dictionary.encode(job.getRequiredCertificates()));
+        return job;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.swipe.service.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SeenJobsTest {
+
+    @Test
+    public void smallSetIsExact() {
+        SeenJobs seenJobs = new SeenJobs(4, 64);
+
+        Assertions.assertTrue(seenJobs.add(30L));
+        Assertions.assertTrue(seenJobs.add(-2L));
+        Assertions.assertTrue(seenJobs.add(7L));
+        Assertions.assertFalse(seenJobs.add(30L));
+
+        Assertions.assertTrue(seenJobs.isExact());
+        Assertions.assertEquals(3, seenJobs.size());
+        Assertions.assertTrue(seenJobs.contains(-2L));
+        Assertions.assertTrue(seenJobs.contains(7L));
+        Assertions.assertTrue(seenJobs.contains(30L));
+        Assertions.assertFalse(seenJobs.contains(8L));
+    }
+
+    @Test
+    public void largeSetUpgradesToBloomFilterWithoutFalseNegatives() {
+        SeenJobs seenJobs = new SeenJobs(16, 64);
+        // Several times the first filter, so that the chain grows.
+        for (long jobId = 0; jobId < 1_000; jobId++) {
+            seenJobs.add(jobId * 3);
+        }
+
+        Assertions.assertFalse(seenJobs.isExact());
+        for (long jobId = 0; jobId < 1_000; jobId++) {
+            Assertions.assertTrue(seenJobs.contains(jobId * 3));
+        }
+        int falsePositives = 0;
+        for (long jobId = 0; jobId < 10_000; jobId++) {
+            if (seenJobs.contains(1_000_000 + jobId)) {
+                falsePositives++;
+            }
+        }
+        // About 1% per filter of the chain.
+        Assertions.assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+    }
+}
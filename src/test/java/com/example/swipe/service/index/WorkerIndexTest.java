@@ -0,0 +1,186 @@
+package com.example.swipe.service.index;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.Worker.GeocodePreference;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.service.JobCatalogSnapshot;
+import com.example.swipe.service.JobSearchEngine;
+import com.example.swipe.utility.DistanceFormula;
+import com.example.swipe.utility.DistanceQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+public class WorkerIndexTest {
+
+    private static final List<String> CERTIFICATES = List.of("AA", "BB", "CC", "DD", "EE");
+
+    private static final Function<Worker, DistanceQuery> AREA = worker -> {
+        GeocodePreference preference = worker.getJobSearchAddress();
+        if (preference == null || preference.getMaxJobDistance() == null || preference.getUnit() == null) {
+            return null;
+        }
+        return DistanceQuery.of(preference, preference.getMaxJobDistance(), DistanceUnit.of(preference.getUnit()), DistanceFormula.HAVERSINE);
+    };
+
+    private static final ToIntFunction<Worker> AVAILABLE_DAYS = worker -> DayMask.of(worker.getAvailability());
+
+    @Test
+    public void matchFindsSameWorkersAsJobSearch() {
+        Random random = new Random(42);
+        List<Worker> workers = new ArrayList<>();
+        for (long userId = 1; userId <= 300; userId++) {
+            Worker worker = worker(userId, random.nextBoolean(), randomCertificates(random),
+                                   random.nextInt(10) == 0 ? null : preference(10 + random.nextDouble() * 10, 45 + random.nextDouble() * 10, 5 + random.nextInt(200)));
+            worker.setAvailability(randomAvailability(random));
+            workers.add(worker);
+        }
+        List<Job> jobs = new ArrayList<>();
+        for (long jobId = 1; jobId <= 400; jobId++) {
+            jobs.add(Job.builder()
+                             .jobId(jobId)
+                             .workersRequired(random.nextInt(8) == 0 ? 0 : 1 + random.nextInt(3))
+                             .driverLicenseRequired(random.nextBoolean())
+                             .requiredCertificates(randomCertificates(random))
+                             .location(random.nextInt(20) == 0 ? null : new Coordinates(9 + random.nextDouble() * 12, 44 + random.nextDouble() * 12))
+                             .startTime(random.nextInt(10) == 0 ? null : Instant.ofEpochSecond(1_446_000_000L + random.nextInt(30 * 86_400)))
+                             .build());
+        }
+
+        JobSearchEngine jobSearchEngine = new JobSearchEngine(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jobSearchEngine, "matchAvailability", true);
+        JobCatalogSnapshot snapshot = JobCatalogSnapshot.of(1L, jobs);
+        Map<Long, TreeSet<Long>> expected = new TreeMap<>();
+        for (Job job : jobs) {
+            expected.put(job.getJobId(), new TreeSet<>());
+        }
+        for (Worker worker : workers) {
+            for (Job job : jobSearchEngine.findMatchingJobsForWorker(snapshot, worker, Integer.MAX_VALUE)) {
+                expected.get(job.getJobId()).add(worker.getUserId());
+            }
+        }
+        jobSearchEngine.shutdown();
+
+        WorkerIndex index = WorkerIndex.build(workers, AREA, AVAILABLE_DAYS);
+        Assertions.assertEquals(workers.size(), index.size());
+        for (Job job : jobs) {
+            long[] matched = index.match(job, 0);
+            Assertions.assertArrayEquals(expected.get(job.getJobId()).stream().mapToLong(Long::longValue).toArray(), matched,
+                                         "Job " + job.getJobId());
+        }
+    }
+
+    @Test
+    public void matchAppliesMinCertificateScore() {
+        List<Worker> workers = List.of(worker(3L, false, List.of("AA"), null),
+                                       worker(1L, false, List.of("AA", "BB", "CC"), null),
+                                       worker(2L, false, List.of(), null));
+        WorkerIndex index = WorkerIndex.build(workers, AREA, AVAILABLE_DAYS);
+        Job job = Job.builder().jobId(1L).workersRequired(1).requiredCertificates(List.of("AA", "BB")).build();
+        Job noCertificates = Job.builder().jobId(2L).workersRequired(1).build();
+
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, index.match(job, 0));
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.match(job, 0.5));
+        Assertions.assertArrayEquals(new long[]{1}, index.match(job, 1));
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, index.match(noCertificates, 1));
+    }
+
+    @Test
+    public void matchAppliesAvailabilityToJobsWithStartTime() {
+        Worker mondays = worker(1L, false, List.of(), null);
+        mondays.setAvailability(List.of(day(1)));
+        Worker weekends = worker(2L, false, List.of(), null);
+        weekends.setAvailability(List.of(day(6), day(7)));
+        Worker anyDay = worker(3L, false, List.of(), null);
+        WorkerIndex index = WorkerIndex.build(List.of(mondays, weekends, anyDay), AREA, AVAILABLE_DAYS);
+
+        // 2015-11-02 is a Monday.
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.match(startingAt(Instant.parse("2015-11-02T08:00:00Z")), 0));
+        Assertions.assertArrayEquals(new long[]{2, 3}, index.match(startingAt(Instant.parse("2015-11-08T08:00:00Z")), 0));
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, index.match(startingAt(null), 0));
+    }
+
+    @Test
+    public void matchHandlesAntimeridianAndWorkersWithoutArea() {
+        List<Worker> workers = List.of(worker(1L, true, List.of(), preference(179.9, 0, 100)),
+                                       worker(2L, true, List.of(), preference(-179.9, 0, 10)),
+                                       worker(3L, false, List.of(), null),
+                                       worker(null, true, List.of(), null));
+        WorkerIndex index = WorkerIndex.build(workers, AREA, AVAILABLE_DAYS);
+
+        Assertions.assertEquals(3, index.size());
+        Assertions.assertArrayEquals(new long[]{1, 2, 3}, index.match(job(-179.95, 0, false), 0));
+        Assertions.assertArrayEquals(new long[]{1, 3}, index.match(job(-179.5, 0.2, false), 0));
+        Assertions.assertArrayEquals(new long[]{1}, index.match(job(-179.5, 0.2, true), 0));
+        Assertions.assertArrayEquals(new long[]{3}, index.match(job(10, 50, false), 0));
+        Assertions.assertArrayEquals(new long[0], index.match(Job.builder().jobId(1L).workersRequired(0).build(), 0));
+    }
+
+    private static Job job(double longitude, double latitude, boolean driverLicenseRequired) {
+        return Job.builder()
+                .jobId(1L)
+                .workersRequired(1)
+                .driverLicenseRequired(driverLicenseRequired)
+                .location(new Coordinates(longitude, latitude))
+                .build();
+    }
+
+    private static Job startingAt(Instant startTime) {
+        return Job.builder().jobId(1L).workersRequired(1).startTime(startTime).build();
+    }
+
+    private static Worker worker(Long userId, boolean hasDriverLicense, List<String> certificates, GeocodePreference preference) {
+        return Worker.builder()
+                .userId(userId)
+                .hasDriverLicense(hasDriverLicense)
+                .certificates(certificates)
+                .jobSearchAddress(preference)
+                .build();
+    }
+
+    private static GeocodePreference preference(double longitude, double latitude, int maxJobDistance) {
+        GeocodePreference preference = new GeocodePreference("km", maxJobDistance);
+        preference.setLongitude(longitude);
+        preference.setLatitude(latitude);
+        return preference;
+    }
+
+    private static Worker.DayOfWeek day(int dayIndex) {
+        Worker.DayOfWeek day = new Worker.DayOfWeek();
+        day.setDayIndex(dayIndex);
+        return day;
+    }
+
+    private static List<Worker.DayOfWeek> randomAvailability(Random random) {
+        List<Worker.DayOfWeek> availability = new ArrayList<>();
+        for (int dayIndex = 1; dayIndex <= 7; dayIndex++) {
+            if (random.nextBoolean()) {
+                availability.add(day(dayIndex));
+            }
+        }
+        return availability;
+    }
+
+    private static List<String> randomCertificates(Random random) {
+        List<String> certificates = new ArrayList<>();
+        for (String certificate : CERTIFICATES) {
+            if (random.nextInt(3) == 0) {
+                certificates.add(certificate);
+            }
+        }
+        return certificates;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.swipe.service.scoring;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import com.example.swipe.service.index.CertificateDictionary;
+import com.example.swipe.service.index.JobColumns;
+import com.example.swipe.utility.DistanceFormula;
+import com.example.swipe.utility.DistanceQuery;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ScoringPlanTest {
+
+    private static final Instant NOW = Instant.parse("2022-03-01T08:00:00Z");
+
+    private final JobColumns jobs = JobColumns.of(Arrays.asList(
+            Job.builder().jobId(1L).jobTitle("Scoring Welder").billRate("$20.00").startTime(NOW.plus(Duration.ofHours(12)))
+                    .requiredCertificates(Arrays.asList("Scoring A", "Scoring B")).build(),
+            Job.builder().jobId(2L).jobTitle("Scoring Cook").billRate("$10.00").build()));
+
+    @Test
+    public void builtInSignalsScoreBetweenZeroAndOne() {
+        ScoringRequest request = request(worker(Arrays.asList("Scoring A", "Scoring C"), Collections.singletonList(" scoring welder ")), 10);
+
+        JobScorer certificates = JobSignals.certificates().prepare(request);
+        Assertions.assertEquals(0.5, certificates.score(jobs, 0, 0));
+        Assertions.assertEquals(0, certificates.score(jobs, 1, 0));
+
+        JobScorer distance = JobSignals.distance().prepare(request);
+        Assertions.assertEquals(1, distance.score(jobs, 0, 0));
+        Assertions.assertEquals(0.75, distance.score(jobs, 0, 2.5));
+        Assertions.assertEquals(0, distance.score(jobs, 0, Double.POSITIVE_INFINITY));
+
+        JobScorer billRate = JobSignals.billRate().prepare(request);
+        Assertions.assertEquals(1, billRate.score(jobs, 0, 0));
+        Assertions.assertEquals(0.5, billRate.score(jobs, 1, 0));
+
+        JobScorer skills = JobSignals.skills().prepare(request);
+        Assertions.assertEquals(1, skills.score(jobs, 0, 0));
+        Assertions.assertEquals(0, skills.score(jobs, 1, 0));
+
+        JobScorer startTime = JobSignals.startTime(Duration.ofHours(48)).prepare(request);
+        Assertions.assertEquals(0.75, startTime.score(jobs, 0, 0));
+        Assertions.assertEquals(0, startTime.score(jobs, 1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> JobSignals.startTime(Duration.ZERO));
+    }
+
+    @Test
+    public void signalsWithoutWorkerDataAreDropped() {
+        ScoringRequest request = request(worker(null, null), 0);
+
+        Assertions.assertSame(JobScorer.ZERO, JobSignals.certificates().prepare(request));
+        Assertions.assertSame(JobScorer.ZERO, JobSignals.distance().prepare(request));
+        Assertions.assertSame(JobScorer.ZERO, JobSignals.skills().prepare(request));
+        Assertions.assertSame(JobScorer.ZERO, ScoringPlan.builder().add(JobSignals.certificates(), 1).add(JobSignals.skills(), 2).build().prepare(request));
+    }
+
+    @Test
+    public void planScoreIsTheWeightedSumOfItsSignals() {
+        ScoringRequest request = request(worker(Arrays.asList("Scoring A", "Scoring C"), Collections.singletonList("Scoring Welder")), 10);
+        ScoringPlan plan = ScoringPlan.builder()
+                .add(JobSignals.certificates(), 2)
+                .add(JobSignals.distance(), 0)
+                .add(JobSignals.billRate(), 1)
+                .add(JobSignals.skills(), -0.5)
+                .build();
+
+        JobScorer scorer = plan.prepare(request);
+
+        Assertions.assertEquals(2 * 0.5 + 1 - 0.5, scorer.score(jobs, 0, 0), 1e-9);
+        Assertions.assertEquals(0.5, scorer.score(jobs, 1, 0), 1e-9);
+        Assertions.assertEquals("2.0 * certificates + 1.0 * billRate + -0.5 * skills", plan.toString());
+        Assertions.assertFalse(plan.isCertificatesOnly());
+        Assertions.assertTrue(ScoringPlan.certificatesOnly().isCertificatesOnly());
+        Assertions.assertTrue(ScoringPlan.builder().add(JobSignals.certificates(), 3).add(JobSignals.skills(), 0).build().isCertificatesOnly());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ScoringPlan.builder().add(JobSignals.billRate(), Double.NaN));
+    }
+
+    private ScoringRequest request(Worker worker, int maxDistance) {
+        DistanceQuery distanceQuery = maxDistance > 0
+                ? DistanceQuery.of(new Coordinates(15.0, 50.0), maxDistance, DistanceUnit.of("km"), DistanceFormula.HAVERSINE)
+                : null;
+        return new ScoringRequest(worker, CertificateDictionary.getInstance().encode(worker.getCertificates()), distanceQuery, NOW, jobs.getMaxBillRateCents());
+    }
+
+    private Worker worker(List<String> certificates, List<String> skills) {
+        return Worker.builder().userId(1L).certificates(certificates).skills(skills).build();
+    }
+}
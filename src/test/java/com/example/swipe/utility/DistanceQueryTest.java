@@ -0,0 +1,78 @@
+package com.example.swipe.utility;
+
+import com.example.swipe.domain.common.Coordinates;
+import com.example.swipe.domain.common.DistanceUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class DistanceQueryTest {
+
+    private static final Coordinates PRAGUE = new Coordinates(14.4378, 50.0755);
+
+    @Test
+    public void haversineAgreesWithLegacyDistance() {
+        Random random = new Random(7);
+        for (DistanceUnit unit : DistanceUnit.values()) {
+            DistanceQuery query = DistanceQuery.of(PRAGUE, 100, unit, DistanceFormula.HAVERSINE);
+            String code = unit == DistanceUnit.KILOMETERS ? "km" : unit == DistanceUnit.NAUTICAL_MILES ? "N" : "mi";
+            for (int i = 0; i < 1_000; i++) {
+                Coordinates location = new Coordinates(-180 + random.nextDouble() * 360, -90 + random.nextDouble() * 180);
+                double expected = ApplicationUtilities.distance(location, PRAGUE, code);
+                Assertions.assertEquals(expected, query.distance(location), Math.max(1e-6, expected * 1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void containsMatchesDistanceAroundTheRadius() {
+        Random random = new Random(11);
+        for (DistanceFormula formula : DistanceFormula.values()) {
+            DistanceQuery query = DistanceQuery.of(PRAGUE, 30, DistanceUnit.KILOMETERS, formula);
+            for (int i = 0; i < 10_000; i++) {
+                Coordinates location = new Coordinates(PRAGUE.getLongitude() - 1 + random.nextDouble() * 2,
+                                                       PRAGUE.getLatitude() - 1 + random.nextDouble() * 2);
+                double distance = query.distance(location);
+                if (Math.abs(distance - 30) > 1e-6) {
+                    Assertions.assertEquals(distance < 30, query.contains(location), formula + " " + location + " at " + distance);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equirectangularIsCloseForShortRadii() {
+        Random random = new Random(13);
+        DistanceQuery haversine = DistanceQuery.of(PRAGUE, 100, DistanceUnit.KILOMETERS, DistanceFormula.HAVERSINE);
+        DistanceQuery equirectangular = DistanceQuery.of(PRAGUE, 100, DistanceUnit.KILOMETERS, DistanceFormula.EQUIRECTANGULAR);
+        for (int i = 0; i < 1_000; i++) {
+            Coordinates location = new Coordinates(PRAGUE.getLongitude() - 1.2 + random.nextDouble() * 2.4,
+                                                   PRAGUE.getLatitude() - 0.8 + random.nextDouble() * 1.6);
+            double expected = haversine.distance(location);
+            if (expected <= 100) {
+                Assertions.assertEquals(expected, equirectangular.distance(location), Math.max(1e-3, expected * 1e-3));
+            }
+        }
+    }
+
+    @Test
+    public void boundingBoxHandlesAntimeridianAndPoles() {
+        DistanceQuery nearAntimeridian = DistanceQuery.of(new Coordinates(179.9, 0), 50, DistanceUnit.KILOMETERS, DistanceFormula.HAVERSINE);
+        Assertions.assertTrue(nearAntimeridian.contains(0, -179.9));
+        Assertions.assertFalse(nearAntimeridian.contains(0, -179.0));
+
+        DistanceQuery nearPole = DistanceQuery.of(new Coordinates(0, 89.9), 50, DistanceUnit.KILOMETERS, DistanceFormula.HAVERSINE);
+        Assertions.assertTrue(nearPole.contains(89.9, 180));
+        Assertions.assertFalse(nearPole.contains(89.0, 180));
+    }
+
+    @Test
+    public void unitCodesResolveLikeLegacyDistance() {
+        Assertions.assertEquals(DistanceUnit.KILOMETERS, DistanceUnit.of("km"));
+        Assertions.assertEquals(DistanceUnit.KILOMETERS, DistanceUnit.of("KM"));
+        Assertions.assertEquals(DistanceUnit.NAUTICAL_MILES, DistanceUnit.of("n"));
+        Assertions.assertEquals(DistanceUnit.MILES, DistanceUnit.of("mi"));
+        Assertions.assertEquals(DistanceUnit.MILES, DistanceUnit.of("anything"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.swipe.utility;
+
+import com.example.swipe.domain.Job;
+import com.example.swipe.domain.Worker;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonArrayReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    public void forEachStreamsElementsInOrderAndSkipsNulls() throws IOException {
+        List<Job> jobs = new ArrayList<>();
+
+        int count = JsonArrayReader.<Job>forEach(objectMapper.readerFor(Job.class), json("[{\"jobId\": 3}, null, {\"jobId\": 1, \"unknown\": [1, {}]}]"), jobs::add);
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals((Long) 3L, jobs.get(0).getJobId());
+        Assertions.assertEquals((Long) 1L, jobs.get(1).getJobId());
+    }
+
+    @Test
+    public void forEachReadsFixture() throws IOException {
+        List<Worker> workers = new ArrayList<>();
+        try (InputStream input = getClass().getResourceAsStream("/data/workers.json")) {
+            JsonArrayReader.<Worker>forEach(objectMapper.readerFor(Worker.class), input, workers::add);
+        }
+
+        Assertions.assertEquals(50, workers.size());
+        Assertions.assertEquals((Long) 0L, workers.get(0).getUserId());
+    }
+
+    @Test
+    public void forEachAcceptsEmptyDocumentsAndRejectsNonArrays() throws IOException {
+        Assertions.assertEquals(0, JsonArrayReader.forEach(objectMapper.readerFor(Job.class), json(""), job -> Assertions.fail()));
+        Assertions.assertEquals(0, JsonArrayReader.forEach(objectMapper.readerFor(Job.class), json("null"), job -> Assertions.fail()));
+        Assertions.assertThrows(JsonParseException.class, () -> JsonArrayReader.forEach(objectMapper.readerFor(Job.class), json("{\"jobId\": 1}"), job -> {
+        }));
+        Assertions.assertThrows(JsonParseException.class, () -> JsonArrayReader.forEach(objectMapper.readerFor(Job.class), json("[{\"jobId\": 1}"), job -> {
+        }));
+    }
+
+    private InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
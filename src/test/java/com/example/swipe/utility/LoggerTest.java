@@ -0,0 +1,66 @@
+package com.example.swipe.utility;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+public class LoggerTest {
+
+    private final ch.qos.logback.classic.Logger logback = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LoggerTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        logback.addAppender(appender);
+        logback.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logback.detachAppender(appender);
+        logback.setLevel(null);
+    }
+
+    @Test
+    public void fixedArityOverloadsFormatTheirParameters() {
+        Logger.info(getClass(), "one {}", 1);
+        Logger.warn(getClass(), "two {} {}", 1, "b");
+        Logger.error(getClass(), "three {} {} {}", 1, "b", 3.5);
+        Logger.info(getClass(), "four {} {} {} {}", 1, 2, 3, 4);
+
+        Assertions.assertEquals(4, appender.list.size());
+        Assertions.assertEquals("one 1", appender.list.get(0).getFormattedMessage());
+        Assertions.assertEquals("two 1 b", appender.list.get(1).getFormattedMessage());
+        Assertions.assertEquals(Level.ERROR, appender.list.get(2).getLevel());
+        Assertions.assertEquals("three 1 b 3.5", appender.list.get(2).getFormattedMessage());
+        Assertions.assertEquals("four 1 2 3 4", appender.list.get(3).getFormattedMessage());
+    }
+
+    @Test
+    public void trailingThrowableIsLoggedWithItsStackTrace() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        Logger.error(getClass(), "Could not write {} to {}.", "snapshot", "file", failure);
+
+        ILoggingEvent event = appender.list.get(0);
+        Assertions.assertEquals("Could not write snapshot to file.", event.getFormattedMessage());
+        Assertions.assertEquals("boom", event.getThrowableProxy().getMessage());
+    }
+
+    @Test
+    public void disabledLevelIsNotLogged() {
+        Logger.debug(getClass(), "one {}", 1);
+        Logger.debug(getClass(), "three {} {} {}", 1, 2, 3);
+        Logger.debug(getClass(), "supplied {}", () -> {
+            throw new AssertionError("Supplier of a disabled level called");
+        });
+
+        Assertions.assertTrue(appender.list.isEmpty());
+    }
+}
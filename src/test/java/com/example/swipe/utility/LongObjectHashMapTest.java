@@ -0,0 +1,52 @@
+package com.example.swipe.utility;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void putAndGetAcrossResize() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(2);
+        for (long key = -500; key <= 500; key++) {
+            Assertions.assertNull(map.put(key, "v" + key));
+        }
+
+        Assertions.assertEquals(1001, map.size());
+        for (long key = -500; key <= 500; key++) {
+            Assertions.assertEquals("v" + key, map.get(key));
+        }
+        Assertions.assertNull(map.get(501L));
+        Assertions.assertNull(map.get(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void zeroKeyIsSupported() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assertions.assertFalse(map.containsKey(0L));
+
+        map.put(0L, "zero");
+        Assertions.assertEquals("zero", map.put(0L, "still zero"));
+
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals("still zero", map.get(0L));
+    }
+
+    @Test
+    public void copyIsIndependentOfOriginal() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(0L, "zero");
+        map.put(1L, "one");
+
+        LongObjectHashMap<String> copy = map.copy();
+        copy.put(1L, "uno");
+        copy.put(2L, "two");
+
+        Assertions.assertEquals("one", map.get(1L));
+        Assertions.assertNull(map.get(2L));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals("zero", copy.get(0L));
+        Assertions.assertEquals("uno", copy.get(1L));
+        Assertions.assertEquals(3, copy.size());
+    }
+}